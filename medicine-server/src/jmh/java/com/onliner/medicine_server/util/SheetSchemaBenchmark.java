@@ -0,0 +1,184 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.service.MedicineSheet;
+import com.onliner.medicine_server.util.XlsxStreamReader.CellKind;
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 약품 엑셀 한 행 → Medicine 변환 처리량 (rows/s)
+ * - compiledBinding: MedicineSheet.SCHEMA 를 헤더로 한 번 컴파일한 바인딩 배열로 RowCells 를 변환 (현재 업로드 경로)
+ * - legacyPerCell : 예전 컨트롤러 방식 — POI Row 에서 셀마다 getCellStringValue / getCellDoubleValue,
+ *                   문자열 숫자는 replaceAll(",", "") 정규식으로 쉼표 제거
+ * 파일 읽기(SAX / DOM)는 두 경우 모두 제외하고, 같은 내용을 미리 메모리에 올려 행 변환만 잰다.
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SheetSchemaBenchmark.ROWS)
+public class SheetSchemaBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private static final String[] HEADERS = {
+            "No", "입고처", "제조사", "코드", "제품명", "규격", "기준가", "재고위치", "전일재고", "전일금액",
+            "입고수량", "입고금액", "출고수량", "출고금액", "재고수량", "매입처집계수량", "단가", "기준가%",
+            "재고금액", "기준가코드", "비고", "표준코드", "제품위치"
+    };
+    private static final int[] TEXT_COLUMNS = {1, 2, 3, 4, 5, 7, 19, 20, 21, 22};
+
+    private XSSFWorkbook workbook;
+    private Row[] poiRows;
+    private RowCells[] cellRows;
+    private SheetSchema.Compiled<Medicine> compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet();
+        Row header = sheet.createRow(0);
+        RowCells headerCells = new RowCells(MedicineSheet.SCHEMA.width());
+        headerCells.reset(0);
+        for (int c = 0; c < HEADERS.length; c++) {
+            header.createCell(c).setCellValue(HEADERS[c]);
+            headerCells.set(c, HEADERS[c], CellKind.STRING);
+        }
+        compiled = MedicineSheet.SCHEMA.compile(headerCells);
+
+        poiRows = new Row[ROWS];
+        cellRows = new RowCells[ROWS];
+        for (int r = 0; r < ROWS; r++) {
+            Row row = sheet.createRow(r + 1);
+            RowCells cells = new RowCells(MedicineSheet.SCHEMA.width());
+            cells.reset(r + 1);
+            for (int c = 0; c < HEADERS.length; c++) {
+                if (c == 0) {
+                    row.createCell(c).setCellValue(r + 1);
+                    cells.set(c, Double.toString(r + 1), CellKind.NUMERIC);
+                } else if (isText(c)) {
+                    String v = HEADERS[c] + "-" + r;
+                    row.createCell(c).setCellValue(v);
+                    cells.set(c, v, CellKind.STRING);
+                } else if ((r + c) % 3 == 0) {
+                    // 실제 양식처럼 일부 숫자는 쉼표가 들어간 문자열 셀
+                    String v = String.format("%,d", (r + 1) * 1000 + c);
+                    row.createCell(c).setCellValue(v);
+                    cells.set(c, v, CellKind.STRING);
+                } else {
+                    double v = (r + 1) * 10.5 + c;
+                    row.createCell(c).setCellValue(v);
+                    cells.set(c, Double.toString(v), CellKind.NUMERIC);
+                }
+            }
+            poiRows[r] = row;
+            cellRows[r] = cells;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public void compiledBinding(Blackhole bh) {
+        for (RowCells row : cellRows) {
+            bh.consume(compiled.map(row));
+        }
+    }
+
+    @Benchmark
+    public void legacyPerCell(Blackhole bh) {
+        for (Row row : poiRows) {
+            bh.consume(legacyMap(row));
+        }
+    }
+
+    // ======================= 예전 방식 (MedicineController 의 셀 단위 매핑) =======================
+    private static Medicine legacyMap(Row row) {
+        Medicine m = new Medicine();
+        Cell noCell = row.getCell(0);
+        m.setNo(noCell != null && noCell.getCellType() == CellType.NUMERIC ? (int) noCell.getNumericCellValue() : null);
+        m.setCode(getCellStringValue(row.getCell(3)));
+        m.setSupplier(getCellStringValue(row.getCell(1)));
+        m.setManufacturer(getCellStringValue(row.getCell(2)));
+        m.setName(getCellStringValue(row.getCell(4)));
+        m.setSpec(getCellStringValue(row.getCell(5)));
+        m.setBasePrice(getCellDoubleValue(row.getCell(6)));
+        m.setLocation(getCellStringValue(row.getCell(7)));
+        m.setPrevStock(getCellDoubleValue(row.getCell(8)));
+        m.setPrevAmount(getCellDoubleValue(row.getCell(9)));
+        m.setInQty(getCellDoubleValue(row.getCell(10)));
+        m.setInAmount(getCellDoubleValue(row.getCell(11)));
+        m.setOutQty(getCellDoubleValue(row.getCell(12)));
+        m.setOutAmount(getCellDoubleValue(row.getCell(13)));
+        m.setStockQty(getCellDoubleValue(row.getCell(14)));
+        m.setPurchasedQty(getCellDoubleValue(row.getCell(15)));
+        m.setUnitPrice(getCellDoubleValue(row.getCell(16)));
+        m.setBasePricePercent(getCellDoubleValue(row.getCell(17)));
+        m.setStockAmount(getCellDoubleValue(row.getCell(18)));
+        m.setBasePriceCode(getCellStringValue(row.getCell(19)));
+        m.setRemarks(getCellStringValue(row.getCell(20)));
+        m.setStandardCode(getCellStringValue(row.getCell(21)));
+        m.setProductLocation(getCellStringValue(row.getCell(22)));
+        return m;
+    }
+
+    private static String getCellStringValue(Cell cell) {
+        if (cell == null) {
+            return "";
+        }
+        if (cell.getCellType() == CellType.STRING) {
+            return cell.getStringCellValue();
+        } else if (cell.getCellType() == CellType.NUMERIC) {
+            return String.valueOf(cell.getNumericCellValue());
+        } else {
+            return "";
+        }
+    }
+
+    private static Double getCellDoubleValue(Cell cell) {
+        if (cell == null) {
+            return 0.0;
+        }
+        if (cell.getCellType() == CellType.STRING) {
+            try {
+                return Double.parseDouble(cell.getStringCellValue().replaceAll(",", ""));
+            } catch (NumberFormatException ex) {
+                return 0.0;
+            }
+        } else if (cell.getCellType() == CellType.NUMERIC) {
+            return cell.getNumericCellValue();
+        } else {
+            return 0.0;
+        }
+    }
+
+    private static boolean isText(int col) {
+        for (int c : TEXT_COLUMNS) {
+            if (c == col) return true;
+        }
+        return false;
+    }
+}
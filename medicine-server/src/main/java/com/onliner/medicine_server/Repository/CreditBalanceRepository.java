@@ -0,0 +1,117 @@
+// src/main/java/com/onliner/medicine_server/repository/CreditBalanceRepository.java
+package com.onliner.medicine_server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * client_credit_balances / client_payments (JDBC)
+ * - 증감은 outstanding = outstanding + ? 원자적 갱신, 재계산은 (원장 SUM - 입금 SUM) 으로 덮어쓰기
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class CreditBalanceRepository {
+
+    // 거래처 + 잔액을 코드 한 번으로 조회 (코드 유니크 인덱스 + 잔액 PK)
+    public record ClientBalanceRow(String code, String name, Double creditLimit, Integer maxTurnDays,
+                                   Boolean prePayment, BigDecimal outstanding, LocalDateTime updatedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // 1) 잔액 증감 (행이 없으면 만든다, 호출 측 트랜잭션에 참여)
+    public void increment(String hospitalId, BigDecimal delta) {
+        jdbcTemplate.update(
+                "INSERT INTO client_credit_balances (hospital_id, outstanding, updated_at) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE outstanding = outstanding + VALUES(outstanding), "
+                        + "updated_at = VALUES(updated_at)",
+                hospitalId, delta, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // 1-1) 입금 기록 (잔액 차감은 호출 측이 같은 트랜잭션에서 increment 로)
+    public void insertPayment(String hospitalId, LocalDate paidOn, BigDecimal amount, String memo) {
+        jdbcTemplate.update(
+                "INSERT INTO client_payments (hospital_id, paid_on, amount, memo, created_at) VALUES (?, ?, ?, ?, ?)",
+                hospitalId, paidOn, amount, memo, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // 2) 거래처 여신 조회
+    public ClientBalanceRow findByCode(String code) {
+        List<ClientBalanceRow> rows = jdbcTemplate.query(
+                "SELECT c.code, c.name_original, c.credit_limit, c.max_turn_days, c.pre_payment, "
+                        + "b.outstanding, b.updated_at "
+                        + "FROM vendor_clients c LEFT JOIN client_credit_balances b ON b.hospital_id = c.code "
+                        + "WHERE c.code = ?",
+                (rs, i) -> {
+                    double limit = rs.getDouble("credit_limit");
+                    Double creditLimit = rs.wasNull() ? null : limit;
+                    int turn = rs.getInt("max_turn_days");
+                    Integer maxTurnDays = rs.wasNull() ? null : turn;
+                    boolean pre = rs.getBoolean("pre_payment");
+                    Boolean prePayment = rs.wasNull() ? null : pre;
+                    BigDecimal outstanding = rs.getBigDecimal("outstanding");
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    return new ClientBalanceRow(rs.getString("code"), rs.getString("name_original"),
+                            creditLimit, maxTurnDays, prePayment,
+                            outstanding == null ? BigDecimal.ZERO : outstanding,
+                            updatedAt == null ? null : updatedAt.toLocalDateTime());
+                },
+                code);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // 3) 거래장 / 입금 내역이 있는 병원 목록 ((hospital_id, ...) 인덱스 앞부분만 읽음)
+    public List<String> findLedgerHospitalIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT hospital_id FROM vendor_ledger_entries "
+                        + "UNION SELECT hospital_id FROM client_payments ORDER BY hospital_id", String.class);
+    }
+
+    // 4) 병원 묶음의 잔액을 (원장 합계 - 입금 합계)로 덮어쓰기
+    public int recompute(Collection<String> hospitalIds) {
+        if (hospitalIds.isEmpty()) return 0;
+        return namedJdbcTemplate.update(
+                "INSERT INTO client_credit_balances (hospital_id, outstanding, updated_at) "
+                        + "SELECT hospital_id, SUM(amount), :now FROM ("
+                        + "SELECT hospital_id, amount FROM vendor_ledger_entries WHERE hospital_id IN (:ids) "
+                        + "UNION ALL "
+                        + "SELECT hospital_id, -amount AS amount FROM client_payments WHERE hospital_id IN (:ids)"
+                        + ") t GROUP BY hospital_id "
+                        + "ON DUPLICATE KEY UPDATE outstanding = VALUES(outstanding), updated_at = VALUES(updated_at)",
+                new MapSqlParameterSource()
+                        .addValue("ids", hospitalIds)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    // 5) 거래장 / 입금 내역이 모두 사라진 병원의 잔액 행 삭제
+    public int deleteOrphans() {
+        return jdbcTemplate.update(
+                "DELETE FROM client_credit_balances WHERE NOT EXISTS "
+                        + "(SELECT 1 FROM vendor_ledger_entries e WHERE e.hospital_id = client_credit_balances.hospital_id) "
+                        + "AND NOT EXISTS "
+                        + "(SELECT 1 FROM client_payments p WHERE p.hospital_id = client_credit_balances.hospital_id)");
+    }
+
+    // 잔액은 비어 있는데 거래장은 있는지 (기동 시 백필 판단)
+    public boolean needsBackfill() {
+        Integer balances = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM client_credit_balances)", Integer.class);
+        if (balances != null && balances == 1) return false;
+        Integer entries = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM vendor_ledger_entries)", Integer.class);
+        return entries != null && entries == 1;
+    }
+}
@@ -0,0 +1,88 @@
+// src/main/java/com/onliner/medicine_server/repository/FieldProjection.java
+package com.onliner.medicine_server.repository;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 목록 API 의 ?fields= 처리 (선택 가능한 필드 화이트리스트 + Criteria 튜플 프로젝션)
+ * - 요청한 필드만 SELECT 하고 {필드: 값} 맵으로 돌려주므로 넓은 엔티티 전체를 읽거나 직렬화하지 않는다.
+ * - 필드 이름은 엔티티 JSON 응답과 같은 이름을 쓰고, 엔티티 속성 이름이 다르면 "json=attribute" 로 등록한다.
+ * - id 는 항상 첫 번째로 포함된다 (키셋 커서 / 순서 복원용).
+ */
+public final class FieldProjection {
+
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+
+    private FieldProjection(String... fields) {
+        for (String field : fields) {
+            int eq = field.indexOf('=');
+            if (eq < 0) {
+                attributes.put(field, field);
+            } else {
+                attributes.put(field.substring(0, eq), field.substring(eq + 1));
+            }
+        }
+    }
+
+    public static FieldProjection of(String... fields) {
+        return new FieldProjection(fields);
+    }
+
+    /**
+     * "code,name, stockQty" → [id, code, name, stockQty] (비어 있으면 null = 전체 필드)
+     * @throws IllegalArgumentException 선택할 수 없는 필드
+     */
+    public List<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) return null;
+        List<String> selected = new ArrayList<>();
+        selected.add("id");
+        for (String part : fields.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty() || selected.contains(field)) continue;
+            if (!attributes.containsKey(field)) {
+                throw new IllegalArgumentException("선택할 수 없는 필드입니다: " + field);
+            }
+            selected.add(field);
+        }
+        return selected;
+    }
+
+    /**
+     * ?view= : 없거나 "full" 이면 전체 필드(false), "summary" 이면 요약 DTO(true)
+     * @throws IllegalArgumentException 그 외 값
+     */
+    public static boolean isSummaryView(String view) {
+        if (view == null || view.isBlank() || "full".equalsIgnoreCase(view)) return false;
+        if ("summary".equalsIgnoreCase(view)) return true;
+        throw new IllegalArgumentException("지원하지 않는 view 입니다: " + view);
+    }
+
+    // parse 결과 → SELECT 목록
+    public Selection<?>[] select(Root<?> root, List<String> fields) {
+        Selection<?>[] selections = new Selection<?>[fields.size()];
+        for (int i = 0; i < selections.length; i++) {
+            selections[i] = root.get(attributes.getOrDefault(fields.get(i), fields.get(i)));
+        }
+        return selections;
+    }
+
+    // 튜플 → {필드: 값} (요청한 순서 유지)
+    public static List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
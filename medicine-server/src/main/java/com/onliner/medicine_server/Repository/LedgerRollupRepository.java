@@ -0,0 +1,100 @@
+// src/main/java/com/onliner/medicine_server/repository/LedgerRollupRepository.java
+package com.onliner.medicine_server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 거래장 집계 테이블 (ledger_daily_totals / ledger_monthly_totals, JDBC)
+ * - 갱신은 "구간 삭제 + INSERT ... SELECT GROUP BY" 로 DB 안에서 끝나므로 원본 행을 애플리케이션으로 읽지 않는다.
+ * - 원본 집계는 vendor_ledger_entries 의 (hospital_id, entry_date) 인덱스 범위만 읽는다.
+ * - 호출 측 트랜잭션에 참여하므로 거래장 쓰기와 집계가 함께 커밋/롤백된다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class LedgerRollupRepository {
+
+    private static final String DAILY_SELECT =
+            "SELECT hospital_id, entry_date, SUM(qty), SUM(amount), COUNT(DISTINCT order_id), COUNT(*) "
+                    + "FROM vendor_ledger_entries ";
+
+    private static final String MONTHLY_SELECT =
+            "SELECT hospital_id, DATE_SUB(entry_date, INTERVAL DAYOFMONTH(entry_date) - 1 DAY) AS month_start, "
+                    + "SUM(qty), SUM(amount), COUNT(DISTINCT order_id), COUNT(*) "
+                    + "FROM vendor_ledger_entries ";
+
+    private static final String DAILY_INSERT =
+            "INSERT INTO ledger_daily_totals (hospital_id, entry_date, qty_total, amount_total, order_count, line_count) ";
+
+    private static final String MONTHLY_INSERT =
+            "INSERT INTO ledger_monthly_totals (hospital_id, month_start, qty_total, amount_total, order_count, line_count) ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 1) 병원 하나의 [from, to] 일별 집계 + 그 구간이 걸친 달 전체의 월별 집계 다시 계산
+    public void refresh(String hospitalId, LocalDate from, LocalDate to) {
+        Date dayFrom = Date.valueOf(from);
+        Date dayTo = Date.valueOf(to);
+        jdbcTemplate.update("DELETE FROM ledger_daily_totals WHERE hospital_id = ? AND entry_date BETWEEN ? AND ?",
+                hospitalId, dayFrom, dayTo);
+        jdbcTemplate.update(DAILY_INSERT + DAILY_SELECT
+                        + "WHERE hospital_id = ? AND entry_date BETWEEN ? AND ? GROUP BY hospital_id, entry_date",
+                hospitalId, dayFrom, dayTo);
+
+        // 주문번호 수는 일별 값을 더하면 중복되므로 월 단위로 원본에서 다시 센다
+        Date monthFrom = Date.valueOf(from.withDayOfMonth(1));
+        Date monthTo = Date.valueOf(to.withDayOfMonth(to.lengthOfMonth()));
+        jdbcTemplate.update("DELETE FROM ledger_monthly_totals WHERE hospital_id = ? AND month_start BETWEEN ? AND ?",
+                hospitalId, monthFrom, monthTo);
+        jdbcTemplate.update(MONTHLY_INSERT + MONTHLY_SELECT
+                        + "WHERE hospital_id = ? AND entry_date BETWEEN ? AND ? GROUP BY hospital_id, month_start",
+                hospitalId, monthFrom, monthTo);
+    }
+
+    // 2) 전체 다시 계산 (집계 테이블을 처음 만들었을 때)
+    public void rebuildAll() {
+        jdbcTemplate.update("DELETE FROM ledger_daily_totals");
+        jdbcTemplate.update(DAILY_INSERT + DAILY_SELECT + "GROUP BY hospital_id, entry_date");
+        jdbcTemplate.update("DELETE FROM ledger_monthly_totals");
+        jdbcTemplate.update(MONTHLY_INSERT + MONTHLY_SELECT + "GROUP BY hospital_id, month_start");
+    }
+
+    // 집계가 비어 있는데 원본은 있는지 (기동 시 백필 판단)
+    public boolean needsBackfill() {
+        Integer rolled = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM ledger_daily_totals)", Integer.class);
+        if (rolled != null && rolled == 1) return false;
+        Integer entries = jdbcTemplate.queryForObject(
+                "SELECT EXISTS(SELECT 1 FROM vendor_ledger_entries)", Integer.class);
+        return entries != null && entries == 1;
+    }
+
+    // 3) 일별 조회 (PK 범위 스캔)
+    public List<LedgerTotal> findDaily(String hospitalId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT entry_date, qty_total, amount_total, order_count, line_count FROM ledger_daily_totals "
+                        + "WHERE hospital_id = ? AND entry_date BETWEEN ? AND ? ORDER BY entry_date",
+                (rs, i) -> new LedgerTotal(rs.getDate("entry_date").toLocalDate().toString(),
+                        rs.getLong("qty_total"), rs.getBigDecimal("amount_total"),
+                        rs.getInt("order_count"), rs.getInt("line_count")),
+                hospitalId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // 4) 월별 조회 (fromMonth, toMonth 는 각 달 1일)
+    public List<LedgerTotal> findMonthly(String hospitalId, LocalDate fromMonth, LocalDate toMonth) {
+        return jdbcTemplate.query(
+                "SELECT month_start, qty_total, amount_total, order_count, line_count FROM ledger_monthly_totals "
+                        + "WHERE hospital_id = ? AND month_start BETWEEN ? AND ? ORDER BY month_start",
+                (rs, i) -> new LedgerTotal(rs.getDate("month_start").toLocalDate().toString().substring(0, 7),
+                        rs.getLong("qty_total"), rs.getBigDecimal("amount_total"),
+                        rs.getInt("order_count"), rs.getInt("line_count")),
+                hospitalId, Date.valueOf(fromMonth), Date.valueOf(toMonth));
+    }
+}
@@ -0,0 +1,16 @@
+// src/main/java/com/onliner/medicine_server/repository/LedgerTotal.java
+package com.onliner.medicine_server.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * 거래장 집계 한 행 (일별: period = "yyyy-MM-dd", 월별: period = "yyyy-MM")
+ */
+public record LedgerTotal(
+        String period,
+        long qty,
+        BigDecimal amount,
+        int orderCount,
+        int lineCount
+) {
+}
@@ -0,0 +1,140 @@
+// src/main/java/com/onliner/medicine_server/repository/MedicineBulkRepository.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.Medicine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * medicines 테이블 대량 쓰기 (JDBC 배치)
+ * - Medicine 은 IDENTITY 전략이라 Hibernate 가 INSERT 를 배치로 묶지 못하므로 JdbcTemplate 로 직접 실행
+ * - URL 의 rewriteBatchedStatements=true 와 함께 쓰면 청크 하나가 멀티로우 INSERT 로 전송된다
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class MedicineBulkRepository {
+
+    // No/코드를 제외한 갱신 대상 컬럼 (bindFields 순서와 동일)
+    private static final String[] FIELD_COLUMNS = {
+            "supplier", "manufacturer", "name", "spec", "base_price", "location",
+            "prev_stock", "prev_amount", "in_qty", "in_amount", "out_qty", "out_amount",
+            "stock_qty", "purchased_qty", "unit_price", "base_price_percent", "stock_amount",
+            "base_price_code", "remarks", "standard_code", "product_location", "row_fingerprint"
+    };
+
+    // 업로드 매칭용 키 + 지문 + 현재 재고 스냅샷 (엔티티 전체를 읽지 않음)
+    public record MedicineKey(Long id, Integer no, String code, String rowFingerprint,
+                              Double stockQty, Double stockAmount) {
+    }
+
+    private static final String UPDATE_SQL = buildUpdateSql();
+    private static final String UPSERT_SQL = buildUpsertSql();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // 0) 코드 또는 No 가 일치하는 기존 행의 키/지문/재고를 한 번에 조회
+    //    FOR UPDATE: 같은 트랜잭션에서 재고를 덮어쓸 때까지 다른 증감이 끼어들지 못하게 해 원장 차이를 정확히 맞춘다
+    public List<MedicineKey> lockKeys(Collection<String> codes, Collection<Integer> nos) {
+        if (codes.isEmpty() && nos.isEmpty()) return List.of();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("codes", codes.isEmpty() ? List.of("") : codes)
+                .addValue("nos", nos.isEmpty() ? List.of(-1) : nos);
+        return namedJdbcTemplate.query(
+                "SELECT id, `no`, code, row_fingerprint, stock_qty, stock_amount FROM medicines "
+                        + "WHERE code IN (:codes) OR `no` IN (:nos) FOR UPDATE",
+                params,
+                (rs, i) -> new MedicineKey(rs.getLong("id"), rs.getInt("no"),
+                        rs.getString("code"), rs.getString("row_fingerprint"),
+                        nullableDouble(rs, "stock_qty"), nullableDouble(rs, "stock_amount")));
+    }
+
+    // 1) 기존 행 갱신 (id 기준)
+    public void batchUpdate(List<Medicine> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, m) -> {
+            int idx = bindFields(ps, 1, m);
+            ps.setLong(idx, m.getId());
+        });
+    }
+
+    // 2) 신규 행 삽입 (동시에 같은 No/코드가 들어온 경우에는 ON DUPLICATE KEY UPDATE 로 갱신)
+    public void batchUpsert(List<Medicine> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, m) -> {
+            ps.setInt(1, m.getNo());
+            ps.setString(2, m.getCode());
+            bindFields(ps, 3, m);
+        });
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private static int bindFields(PreparedStatement ps, int idx, Medicine m) throws SQLException {
+        ps.setString(idx++, m.getSupplier());
+        ps.setString(idx++, m.getManufacturer());
+        ps.setString(idx++, m.getName());
+        ps.setString(idx++, m.getSpec());
+        ps.setObject(idx++, m.getBasePrice(), Types.DOUBLE);
+        ps.setString(idx++, m.getLocation());
+        ps.setObject(idx++, m.getPrevStock(), Types.DOUBLE);
+        ps.setObject(idx++, m.getPrevAmount(), Types.DOUBLE);
+        ps.setObject(idx++, m.getInQty(), Types.DOUBLE);
+        ps.setObject(idx++, m.getInAmount(), Types.DOUBLE);
+        ps.setObject(idx++, m.getOutQty(), Types.DOUBLE);
+        ps.setObject(idx++, m.getOutAmount(), Types.DOUBLE);
+        ps.setObject(idx++, m.getStockQty(), Types.DOUBLE);
+        ps.setObject(idx++, m.getPurchasedQty(), Types.DOUBLE);
+        ps.setObject(idx++, m.getUnitPrice(), Types.DOUBLE);
+        ps.setObject(idx++, m.getBasePricePercent(), Types.DOUBLE);
+        ps.setObject(idx++, m.getStockAmount(), Types.DOUBLE);
+        ps.setString(idx++, m.getBasePriceCode());
+        ps.setString(idx++, m.getRemarks());
+        ps.setString(idx++, m.getStandardCode());
+        ps.setString(idx++, m.getProductLocation());
+        ps.setString(idx++, m.getRowFingerprint());
+        return idx;
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double v = rs.getDouble(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    private static String buildUpdateSql() {
+        StringBuilder sb = new StringBuilder("UPDATE medicines SET ");
+        for (int i = 0; i < FIELD_COLUMNS.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(FIELD_COLUMNS[i]).append(" = ?");
+        }
+        return sb.append(" WHERE id = ?").toString();
+    }
+
+    private static String buildUpsertSql() {
+        StringBuilder sb = new StringBuilder("INSERT INTO medicines (`no`, code");
+        for (String col : FIELD_COLUMNS) {
+            sb.append(", ").append(col);
+        }
+        sb.append(") VALUES (?, ?");
+        for (int i = 0; i < FIELD_COLUMNS.length; i++) {
+            sb.append(", ?");
+        }
+        sb.append(") ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < FIELD_COLUMNS.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(FIELD_COLUMNS[i]).append(" = VALUES(").append(FIELD_COLUMNS[i]).append(")");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+// src/main/java/com/onliner/medicine_server/repository/MedicineFilter.java
+package com.onliner.medicine_server.repository;
+
+/**
+ * 약품 목록 조회 조건 (null 인 항목은 조건에서 제외)
+ * - name: 제품명 부분 일치 / supplier, manufacturer, location: 정확히 일치
+ * - maxStock: 재고수량이 이 값 이하인 품목 (저재고)
+ */
+public record MedicineFilter(
+        String name,
+        String supplier,
+        String manufacturer,
+        String location,
+        Double maxStock
+) {
+}
@@ -4,11 +4,12 @@ package com.onliner.medicine_server.repository;
 import com.onliner.medicine_server.entity.Medicine;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface MedicineRepository extends JpaRepository<Medicine, Long> {
+public interface MedicineRepository extends JpaRepository<Medicine, Long>, MedicineRepositoryCustom {
     // 이름으로 조회 (Controller에서 검색 기능을 쓸 때)
-    // List<Medicine> findByNameContainingIgnoreCase(String name);
+    List<Medicine> findByNameContainingIgnoreCase(String name);
 
     // 중복 검사용
     boolean existsByNo(Integer no);
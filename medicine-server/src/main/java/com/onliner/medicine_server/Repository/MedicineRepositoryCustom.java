@@ -0,0 +1,33 @@
+// src/main/java/com/onliner/medicine_server/repository/MedicineRepositoryCustom.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.Medicine;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조건이 동적으로 바뀌는 약품 조회 (Criteria API 구현: MedicineRepositoryImpl)
+ */
+public interface MedicineRepositoryCustom {
+
+    // ?fields= 로 선택할 수 있는 필드 (내부용 row_fingerprint 제외)
+    FieldProjection FIELDS = FieldProjection.of(
+            "id", "no", "supplier", "manufacturer", "code", "name", "spec", "basePrice", "location",
+            "prevStock", "prevAmount", "inQty", "inAmount", "outQty", "outAmount", "stockQty",
+            "purchasedQty", "unitPrice", "basePricePercent", "stockAmount", "basePriceCode",
+            "remarks", "standardCode", "productLocation", "safetyStock", "expiryDate");
+
+    // id 오름차순 키셋 페이지 (afterId 가 null 이면 첫 페이지)
+    List<Medicine> findPageById(MedicineFilter filter, Long afterId, int limit);
+
+    // 코드 오름차순 키셋 페이지 (afterCode 가 null 이면 첫 페이지)
+    List<Medicine> findPageByCode(MedicineFilter filter, String afterCode, int limit);
+
+    // 선택한 필드만 조회 (byCode 면 코드순, 아니면 id 순 / after 는 마지막 코드 또는 id / limit <= 0 이면 전체)
+    List<Map<String, Object>> findFields(MedicineFilter filter, List<String> fields,
+                                         boolean byCode, Object after, int limit);
+
+    // 요약 필드만 조회 (정렬/키셋/limit 규칙은 findFields 와 같음)
+    List<MedicineSummary> findSummaries(MedicineFilter filter, boolean byCode, Object after, int limit);
+}
@@ -0,0 +1,111 @@
+// src/main/java/com/onliner/medicine_server/repository/MedicineRepositoryImpl.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.Medicine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MedicineRepositoryCustom 구현
+ * - OFFSET 없이 "마지막 키보다 큰 행"만 읽으므로 몇 번째 페이지든 인덱스 범위 스캔 한 번으로 끝난다.
+ * - supplier / manufacturer / location / stock_qty 조건은 Medicine 의 (컬럼, id) 인덱스를 탄다.
+ * - findFields / findSummaries 는 같은 조건으로 필요한 컬럼만 SELECT 한다 (튜플 / 생성자 프로젝션).
+ */
+public class MedicineRepositoryImpl implements MedicineRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Medicine> findPageById(MedicineFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Medicine> cq = cb.createQuery(Medicine.class);
+        Root<Medicine> root = cq.from(Medicine.class);
+        keyset(cb, cq, root, filter, false, afterId);
+        return limited(em.createQuery(cq), limit).getResultList();
+    }
+
+    @Override
+    public List<Medicine> findPageByCode(MedicineFilter filter, String afterCode, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Medicine> cq = cb.createQuery(Medicine.class);
+        Root<Medicine> root = cq.from(Medicine.class);
+        keyset(cb, cq, root, filter, true, afterCode);
+        return limited(em.createQuery(cq), limit).getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(MedicineFilter filter, List<String> fields,
+                                                boolean byCode, Object after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Medicine> root = cq.from(Medicine.class);
+        cq.multiselect(FIELDS.select(root, fields));
+        keyset(cb, cq, root, filter, byCode, after);
+        return FieldProjection.toMaps(limited(em.createQuery(cq), limit).getResultList(), fields);
+    }
+
+    @Override
+    public List<MedicineSummary> findSummaries(MedicineFilter filter, boolean byCode, Object after, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<MedicineSummary> cq = cb.createQuery(MedicineSummary.class);
+        Root<Medicine> root = cq.from(Medicine.class);
+        cq.select(cb.construct(MedicineSummary.class,
+                root.get("id"), root.get("code"), root.get("name"), root.get("spec"),
+                root.get("manufacturer"), root.get("stockQty"), root.get("unitPrice")));
+        keyset(cb, cq, root, filter, byCode, after);
+        return limited(em.createQuery(cq), limit).getResultList();
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    // 조건 + "마지막 키보다 큰 행" + 키 오름차순
+    private static void keyset(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Medicine> root,
+                               MedicineFilter filter, boolean byCode, Object after) {
+        List<Predicate> where = predicates(cb, root, filter);
+        if (after != null) {
+            where.add(byCode
+                    ? cb.greaterThan(root.<String>get("code"), (String) after)
+                    : cb.greaterThan(root.<Long>get("id"), (Long) after));
+        }
+        cq.where(where.toArray(new Predicate[0])).orderBy(cb.asc(root.get(byCode ? "code" : "id")));
+    }
+
+    private static <R> TypedQuery<R> limited(TypedQuery<R> query, int limit) {
+        return limit > 0 ? query.setMaxResults(limit) : query;
+    }
+
+    static List<Predicate> predicates(CriteriaBuilder cb, Root<Medicine> root, MedicineFilter filter) {
+        List<Predicate> where = new ArrayList<>();
+        if (filter == null) return where;
+        if (hasText(filter.name())) {
+            where.add(cb.like(cb.lower(root.get("name")), "%" + filter.name().toLowerCase() + "%"));
+        }
+        if (hasText(filter.supplier())) {
+            where.add(cb.equal(root.get("supplier"), filter.supplier()));
+        }
+        if (hasText(filter.manufacturer())) {
+            where.add(cb.equal(root.get("manufacturer"), filter.manufacturer()));
+        }
+        if (hasText(filter.location())) {
+            where.add(cb.equal(root.get("location"), filter.location()));
+        }
+        if (filter.maxStock() != null) {
+            where.add(cb.lessThanOrEqualTo(root.get("stockQty"), filter.maxStock()));
+        }
+        return where;
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+}
@@ -0,0 +1,16 @@
+// src/main/java/com/onliner/medicine_server/repository/MedicineSummary.java
+package com.onliner.medicine_server.repository;
+
+/**
+ * 약품 목록 화면용 요약 (?view=summary, 생성자 프로젝션으로 이 컬럼만 SELECT)
+ */
+public record MedicineSummary(
+        Long id,
+        String code,
+        String name,
+        String spec,
+        String manufacturer,
+        Double stockQty,
+        Double unitPrice
+) {
+}
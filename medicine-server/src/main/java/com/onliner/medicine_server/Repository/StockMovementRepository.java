@@ -0,0 +1,163 @@
+// src/main/java/com/onliner/medicine_server/repository/StockMovementRepository.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.StockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 재고 이동 원장 + medicines 재고 스냅샷 (JDBC)
+ * - 원장은 INSERT 만 하고, 스냅샷은 stock_qty = stock_qty + ? 형태의 원자적 증감으로만 바꾼다.
+ * - 금액 증감이 null 이면 qty × 단가(unit_price)를 DB 에서 계산하므로 원장과 스냅샷 금액이 항상 같다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class StockMovementRepository {
+
+    private static final String AMOUNT_EXPR = "COALESCE(?, ? * COALESCE(unit_price, 0))";
+
+    // 코드는 medicines 에서 함께 읽어 기록 (호출 측은 id 만 알면 된다)
+    private static final String APPEND_SQL =
+            "INSERT INTO stock_movements (medicine_id, code, movement_type, qty_delta, amount_delta, reason, created_at) "
+                    + "SELECT id, code, ?, ?, " + AMOUNT_EXPR + ", ?, ? FROM medicines WHERE id = ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE medicines SET stock_qty = COALESCE(stock_qty, 0) + ?, "
+                    + "stock_amount = COALESCE(stock_amount, 0) + " + AMOUNT_EXPR + ", "
+                    + "row_fingerprint = NULL WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // 1) 원장 배치 추가
+    public void batchAppend(List<StockMovement> movements) {
+        if (movements.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND_SQL, movements, movements.size(), (ps, mv) -> {
+            ps.setString(1, mv.getType().name());
+            ps.setDouble(2, mv.getQtyDelta());
+            bindAmount(ps, 3, mv);
+            ps.setString(5, mv.getReason());
+            ps.setTimestamp(6, mv.getCreatedAt() != null ? Timestamp.valueOf(mv.getCreatedAt()) : now);
+            ps.setLong(7, mv.getMedicineId());
+        });
+    }
+
+    // 2) 스냅샷 원자적 증감 (지문은 더 이상 엑셀 행과 같지 않으므로 지운다)
+    public int[] batchIncrement(List<StockMovement> movements) {
+        if (movements.isEmpty()) return new int[0];
+        int[][] counts = jdbcTemplate.batchUpdate(INCREMENT_SQL, movements, movements.size(), (ps, mv) -> {
+            ps.setDouble(1, mv.getQtyDelta());
+            bindAmount(ps, 2, mv);
+            ps.setLong(4, mv.getMedicineId());
+        });
+        return counts.length == 0 ? new int[0] : counts[0];
+    }
+
+    // 3) 원장이 하나도 없는 품목은 현재 스냅샷을 기초 재고로 기록
+    public int insertOpeningBalances() {
+        return jdbcTemplate.update(
+                "INSERT INTO stock_movements (medicine_id, code, movement_type, qty_delta, amount_delta, reason, created_at) "
+                        + "SELECT m.id, m.code, 'OPENING', COALESCE(m.stock_qty, 0), COALESCE(m.stock_amount, 0), '기초 재고', NOW() "
+                        + "FROM medicines m "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM stock_movements s WHERE s.medicine_id = m.id)");
+    }
+
+    // 4) 원장 합계로 스냅샷 재계산 (값이 달라진 행 수 반환)
+    public int rebuildSnapshot() {
+        return jdbcTemplate.update(
+                "UPDATE medicines m "
+                        + "LEFT JOIN (SELECT medicine_id, SUM(qty_delta) AS qty, SUM(amount_delta) AS amount "
+                        + "           FROM stock_movements GROUP BY medicine_id) s ON s.medicine_id = m.id "
+                        + "SET m.stock_qty = COALESCE(s.qty, 0), m.stock_amount = COALESCE(s.amount, 0), "
+                        + "    m.row_fingerprint = NULL "
+                        + "WHERE NOT (m.stock_qty <=> COALESCE(s.qty, 0)) OR NOT (m.stock_amount <=> COALESCE(s.amount, 0))");
+    }
+
+    // 5) 품목별 최근 이력 (최신순)
+    public List<StockMovement> findRecent(Long medicineId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, medicine_id, code, movement_type, qty_delta, amount_delta, reason, created_at "
+                        + "FROM stock_movements WHERE medicine_id = ? ORDER BY id DESC LIMIT ?",
+                (rs, i) -> StockMovement.builder()
+                        .id(rs.getLong("id"))
+                        .medicineId(rs.getLong("medicine_id"))
+                        .code(rs.getString("code"))
+                        .type(StockMovement.Type.valueOf(rs.getString("movement_type")))
+                        .qtyDelta(rs.getDouble("qty_delta"))
+                        .amountDelta(rs.getDouble("amount_delta"))
+                        .reason(rs.getString("reason"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(),
+                medicineId, limit);
+    }
+
+    // 6) 코드 → id (재고 조정 요청 매칭용)
+    public Map<String, Long> findIdsByCode(Collection<String> codes) {
+        Map<String, Long> result = new HashMap<>();
+        if (codes.isEmpty()) return result;
+        namedJdbcTemplate.query(
+                "SELECT id, code FROM medicines WHERE code IN (:codes)",
+                new MapSqlParameterSource("codes", codes),
+                (ResultSet rs) -> {
+                    result.put(rs.getString("code"), rs.getLong("id"));
+                });
+        return result;
+    }
+
+    // 7) 증감 후 스냅샷 읽기: id → {stockQty, stockAmount}
+    public Map<Long, Double[]> findStock(Collection<Long> medicineIds) {
+        Map<Long, Double[]> result = new HashMap<>();
+        if (medicineIds.isEmpty()) return result;
+        namedJdbcTemplate.query(
+                "SELECT id, stock_qty, stock_amount FROM medicines WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", medicineIds),
+                (ResultSet rs) -> {
+                    result.put(rs.getLong("id"),
+                            new Double[]{nullableDouble(rs, "stock_qty"), nullableDouble(rs, "stock_amount")});
+                });
+        return result;
+    }
+
+    // 8) 품목별 원장 합계: id → {수량 합계, 금액 합계} (원장이 없는 품목은 빠짐)
+    public Map<Long, Double[]> sumByMedicine(Collection<Long> medicineIds) {
+        Map<Long, Double[]> result = new HashMap<>();
+        if (medicineIds.isEmpty()) return result;
+        namedJdbcTemplate.query(
+                "SELECT medicine_id, SUM(qty_delta) AS qty, SUM(amount_delta) AS amount "
+                        + "FROM stock_movements WHERE medicine_id IN (:ids) GROUP BY medicine_id",
+                new MapSqlParameterSource("ids", medicineIds),
+                (ResultSet rs) -> {
+                    result.put(rs.getLong("medicine_id"),
+                            new Double[]{nullableDouble(rs, "qty"), nullableDouble(rs, "amount")});
+                });
+        return result;
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private static void bindAmount(PreparedStatement ps, int idx, StockMovement mv) throws SQLException {
+        ps.setObject(idx, mv.getAmountDelta(), Types.DOUBLE);
+        ps.setDouble(idx + 1, mv.getQtyDelta());
+    }
+
+    private static Double nullableDouble(ResultSet rs, String column) throws SQLException {
+        double v = rs.getDouble(column);
+        return rs.wasNull() ? null : v;
+    }
+}
@@ -0,0 +1,167 @@
+// src/main/java/com/onliner/medicine_server/repository/VendorClientBulkRepository.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * vendor_clients 테이블 대량 쓰기 (JDBC 배치)
+ * - 거래처 엑셀 업로드 전용: 코드 → id 맵은 한 번만 읽고, 청크마다 INSERT 배치 1회 + UPDATE 배치 1회
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class VendorClientBulkRepository {
+
+    // 코드를 제외한 갱신 대상 컬럼 (bindFields 순서와 동일)
+    private static final String[] FIELD_COLUMNS = {
+            "classification", "name_internal", "name_original", "representative", "dob",
+            "business_number", "phone", "fax", "zip", "address",
+            "sales_rep", "dept_head", "price_apply", "stock_apply", "invoice_issue",
+            "business_type", "item", "client_type", "client_group", "contract_type",
+            "delivery_type", "pharmacist", "license_no", "care_no", "narcotics_id",
+            "device_client", "contact", "email", "invoice_manager", "manager_phone",
+            "credit_limit", "max_turn_days", "monthly_estimate", "start_date", "note1",
+            "note2", "active", "e_invoice", "invoice_system", "external_exclude",
+            "pre_payment", "search_name", "business_number_digits", "search_text"
+    };
+
+    private static final String INSERT_SQL = buildInsertSql();
+    private static final String UPDATE_SQL = buildUpdateSql();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // 0) 코드(소문자) → id : DB 콜레이션이 대소문자를 구분하지 않으므로 키도 소문자로 맞춘다
+    public Map<String, Long> loadIdsByCode() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, code FROM vendor_clients", (ResultSet rs) -> {
+            ids.put(codeKey(rs.getString("code")), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    public Map<String, Long> findIdsByCode(Collection<String> codes) {
+        Map<String, Long> ids = new HashMap<>();
+        if (codes.isEmpty()) return ids;
+        namedJdbcTemplate.query("SELECT id, code FROM vendor_clients WHERE code IN (:codes)",
+                new MapSqlParameterSource("codes", codes), (ResultSet rs) -> {
+                    ids.put(codeKey(rs.getString("code")), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    // 1) 신규 거래처 삽입
+    public void batchInsert(List<VendorClient> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, c) -> {
+            ps.setString(1, c.getCode());
+            bindFields(ps, 2, c);
+        });
+    }
+
+    // 2) 기존 거래처 갱신 (id 기준, 코드는 그대로)
+    public void batchUpdate(List<VendorClient> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, c) -> {
+            int idx = bindFields(ps, 1, c);
+            ps.setLong(idx, c.getId());
+        });
+    }
+
+    public static String codeKey(String code) {
+        return code == null ? "" : code.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private static int bindFields(PreparedStatement ps, int idx, VendorClient c) throws SQLException {
+        ps.setString(idx++, c.getClassification());
+        ps.setString(idx++, c.getNameInternal());
+        ps.setString(idx++, c.getNameOriginal());
+        ps.setString(idx++, c.getRepresentative());
+        setDate(ps, idx++, c.getDob());
+        ps.setString(idx++, c.getBusinessNumber());
+        ps.setString(idx++, c.getPhone());
+        ps.setString(idx++, c.getFax());
+        ps.setString(idx++, c.getZip());
+        ps.setString(idx++, c.getAddress());
+        ps.setString(idx++, c.getSalesRep());
+        ps.setString(idx++, c.getDeptHead());
+        ps.setString(idx++, c.getPriceApply());
+        ps.setString(idx++, c.getStockApply());
+        ps.setObject(idx++, c.getInvoiceIssue(), Types.BOOLEAN);
+        ps.setString(idx++, c.getBusinessType());
+        ps.setString(idx++, c.getItem());
+        ps.setString(idx++, c.getClientType());
+        ps.setString(idx++, c.getClientGroup());
+        ps.setString(idx++, c.getContractType());
+        ps.setString(idx++, c.getDeliveryType());
+        ps.setString(idx++, c.getPharmacist());
+        ps.setString(idx++, c.getLicenseNo());
+        ps.setString(idx++, c.getCareNo());
+        ps.setString(idx++, c.getNarcoticsId());
+        ps.setString(idx++, c.getDeviceClient());
+        ps.setString(idx++, c.getContact());
+        ps.setString(idx++, c.getEmail());
+        ps.setString(idx++, c.getInvoiceManager());
+        ps.setString(idx++, c.getManagerPhone());
+        ps.setObject(idx++, c.getCreditLimit(), Types.DOUBLE);
+        ps.setObject(idx++, c.getMaxTurnDays(), Types.INTEGER);
+        ps.setObject(idx++, c.getMonthlyEstimate(), Types.INTEGER);
+        setDate(ps, idx++, c.getStartDate());
+        ps.setString(idx++, c.getNote1());
+        ps.setString(idx++, c.getNote2());
+        ps.setObject(idx++, c.getActive(), Types.BOOLEAN);
+        ps.setObject(idx++, c.getEInvoice(), Types.BOOLEAN);
+        ps.setString(idx++, c.getInvoiceSystem());
+        ps.setObject(idx++, c.getExternalExclude(), Types.BOOLEAN);
+        ps.setObject(idx++, c.getPrePayment(), Types.BOOLEAN);
+        ps.setString(idx++, c.getSearchName());
+        ps.setString(idx++, c.getBusinessNumberDigits());
+        ps.setString(idx++, c.getSearchText());
+        return idx;
+    }
+
+    private static void setDate(PreparedStatement ps, int idx, LocalDate date) throws SQLException {
+        if (date == null) ps.setNull(idx, Types.DATE);
+        else ps.setDate(idx, Date.valueOf(date));
+    }
+
+    private static String buildInsertSql() {
+        StringBuilder sb = new StringBuilder("INSERT INTO vendor_clients (code");
+        for (String col : FIELD_COLUMNS) {
+            sb.append(", ").append(col);
+        }
+        sb.append(") VALUES (?");
+        for (int i = 0; i < FIELD_COLUMNS.length; i++) {
+            sb.append(", ?");
+        }
+        return sb.append(")").toString();
+    }
+
+    private static String buildUpdateSql() {
+        StringBuilder sb = new StringBuilder("UPDATE vendor_clients SET ");
+        for (int i = 0; i < FIELD_COLUMNS.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(FIELD_COLUMNS[i]).append(" = ?");
+        }
+        return sb.append(" WHERE id = ?").toString();
+    }
+}
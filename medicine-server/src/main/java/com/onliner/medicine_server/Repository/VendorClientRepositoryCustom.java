@@ -0,0 +1,28 @@
+// src/main/java/com/onliner/medicine_server/repository/VendorClientRepositoryCustom.java
+package com.onliner.medicine_server.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 거래처 목록 프로젝션 조회 (Criteria API 구현: VendorClientRepositoryImpl)
+ */
+public interface VendorClientRepositoryCustom {
+
+    // ?fields= 로 선택할 수 있는 필드 (검색용 정규화 컬럼 제외, 이름은 엔티티 JSON 과 동일)
+    FieldProjection FIELDS = FieldProjection.of(
+            "id", "classification", "code", "nameInternal", "nameOriginal", "representative", "dob",
+            "businessNumber", "phone", "fax", "zip", "address", "salesRep", "deptHead", "priceApply",
+            "stockApply", "invoiceIssue", "businessType", "item", "clientType", "clientGroup",
+            "contractType", "deliveryType", "pharmacist", "licenseNo", "careNo", "narcoticsId",
+            "deviceClient", "contact", "email", "invoiceManager", "managerPhone", "creditLimit",
+            "maxTurnDays", "monthlyEstimate", "startDate", "note1", "note2", "active",
+            "einvoice=eInvoice", "invoiceSystem", "externalExclude", "prePayment");
+
+    // 선택한 필드만 id 순으로 (ids 가 null 이면 전체)
+    List<Map<String, Object>> findFields(List<String> fields, Collection<Long> ids);
+
+    // 요약 필드만 id 순으로 (ids 가 null 이면 전체)
+    List<VendorClientSummary> findSummaries(Collection<Long> ids);
+}
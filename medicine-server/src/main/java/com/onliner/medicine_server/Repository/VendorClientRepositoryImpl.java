@@ -0,0 +1,57 @@
+// src/main/java/com/onliner/medicine_server/repository/VendorClientRepositoryImpl.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VendorClientRepositoryCustom 구현
+ * - 45개 가까운 컬럼 중 요청한 컬럼만 SELECT 하므로 목록 화면 응답이 작아지고 엔티티도 만들지 않는다.
+ */
+public class VendorClientRepositoryImpl implements VendorClientRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields, Collection<Long> ids) {
+        if (ids != null && ids.isEmpty()) return List.of();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<VendorClient> root = cq.from(VendorClient.class);
+        cq.multiselect(FIELDS.select(root, fields));
+        restrict(cb, cq, root, ids);
+        return FieldProjection.toMaps(em.createQuery(cq).getResultList(), fields);
+    }
+
+    @Override
+    public List<VendorClientSummary> findSummaries(Collection<Long> ids) {
+        if (ids != null && ids.isEmpty()) return List.of();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<VendorClientSummary> cq = cb.createQuery(VendorClientSummary.class);
+        Root<VendorClient> root = cq.from(VendorClient.class);
+        cq.select(cb.construct(VendorClientSummary.class,
+                root.get("id"), root.get("code"), root.get("nameOriginal"), root.get("nameInternal"),
+                root.get("representative"), root.get("businessNumber"), root.get("phone"), root.get("active")));
+        restrict(cb, cq, root, ids);
+        return em.createQuery(cq).getResultList();
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private static void restrict(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<VendorClient> root,
+                                 Collection<Long> ids) {
+        if (ids != null) {
+            cq.where(root.get("id").in(ids));
+        }
+        cq.orderBy(cb.asc(root.get("id")));
+    }
+}
@@ -0,0 +1,17 @@
+// src/main/java/com/onliner/medicine_server/repository/VendorClientSummary.java
+package com.onliner.medicine_server.repository;
+
+/**
+ * 거래처 목록 화면용 요약 (?view=summary, 생성자 프로젝션으로 이 컬럼만 SELECT)
+ */
+public record VendorClientSummary(
+        Long id,
+        String code,
+        String nameOriginal,
+        String nameInternal,
+        String representative,
+        String businessNumber,
+        String phone,
+        Boolean active
+) {
+}
@@ -0,0 +1,60 @@
+// src/main/java/com/onliner/medicine_server/repository/VendorLedgerBulkRepository.java
+package com.onliner.medicine_server.repository;
+
+import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * vendor_ledger_entries 대량 쓰기 (JDBC)
+ * - 거래장 업로드는 "기간 교체": 병원의 [from, to] 구간을 한 번에 지우고 새 행을 배치로 넣는다.
+ * - 두 작업 모두 호출 측 트랜잭션에 참여하므로 중간에 실패하면 기존 구간이 그대로 남는다.
+ */
+@Repository
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class VendorLedgerBulkRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO vendor_ledger_entries (hospital_id, entry_date, order_id, qty, unit_price, amount, remarks) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 0) 구간 금액 합계 (삭제 전 잔액 차이 계산용)
+    public BigDecimal sumAmount(String hospitalId, LocalDate from, LocalDate to) {
+        BigDecimal sum = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM vendor_ledger_entries "
+                        + "WHERE hospital_id = ? AND entry_date BETWEEN ? AND ?",
+                BigDecimal.class, hospitalId, Date.valueOf(from), Date.valueOf(to));
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    // 1) 구간 삭제 ((hospital_id, entry_date) 인덱스 범위 스캔)
+    public int deleteRange(String hospitalId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.update(
+                "DELETE FROM vendor_ledger_entries WHERE hospital_id = ? AND entry_date BETWEEN ? AND ?",
+                hospitalId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // 2) 배치 삽입 (rewriteBatchedStatements=true 로 멀티로우 INSERT 전송)
+    public void batchInsert(List<VendorLedgerEntry> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, e) -> {
+            ps.setString(1, e.getHospitalId());
+            ps.setDate(2, Date.valueOf(e.getDate()));
+            ps.setString(3, e.getOrderId());
+            ps.setInt(4, e.getQty());
+            ps.setBigDecimal(5, e.getUnitPrice());
+            ps.setBigDecimal(6, e.getAmount());
+            ps.setString(7, e.getRemarks());
+        });
+    }
+}
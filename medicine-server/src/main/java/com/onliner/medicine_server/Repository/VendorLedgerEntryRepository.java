@@ -2,7 +2,11 @@
 package com.onliner.medicine_server.repository;
 
 import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.time.LocalDate;
 import java.util.List;
 
@@ -15,4 +19,19 @@ public interface VendorLedgerEntryRepository
             LocalDate from,
             LocalDate to
     );
+
+    // 키셋 페이지: (일자, id) 가 (afterDate, afterId) 보다 뒤인 행을 to 까지
+    // (hospital_id, entry_date, id) 인덱스 순서 그대로 읽으므로 몇 번째 페이지든 범위 스캔 한 번
+    // 첫 페이지는 afterDate = from, afterId = 0
+    @Query("SELECT e FROM VendorLedgerEntry e "
+            + "WHERE e.hospitalId = :hospitalId AND e.date <= :to "
+            + "AND (e.date > :afterDate OR (e.date = :afterDate AND e.id > :afterId)) "
+            + "ORDER BY e.date, e.id")
+    List<VendorLedgerEntry> findPageAfter(
+            @Param("hospitalId") String hospitalId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") Long afterId,
+            @Param("to") LocalDate to,
+            Limit limit
+    );
 }
@@ -0,0 +1,10 @@
+package com.onliner.medicine_server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled 작업 활성화 (유효기간 알림 스캔 등)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.onliner.medicine_server.config;
 
 import com.onliner.medicine_server.auth.JwtAuthenticationFilter;
 import com.onliner.medicine_server.auth.JwtService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,6 +40,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // 스트리밍 응답(StreamingResponseBody) 완료 시의 ASYNC 재디스패치는 최초 요청에서 이미 인가됨
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**", "/healthz/**", "/ws/**").permitAll()
                         .requestMatchers("/exports/**", "/uploads/**").permitAll()
                         .requestMatchers("/api/vendors/**").hasRole("VENDOR")
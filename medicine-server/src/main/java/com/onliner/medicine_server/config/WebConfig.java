@@ -1,5 +1,7 @@
 package com.onliner.medicine_server.config;
 
+import com.onliner.medicine_server.service.InvoiceCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
@@ -13,6 +15,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.allowed.origins:http://localhost:3000,https://onlinerr.netlify.app}")
     private String allowedOrigins;
 
+    @Autowired
+    private InvoiceCache invoiceCache;
+
     // 🔹 CORS 설정: React 프론트엔드와 연동 가능하도록 허용
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
@@ -39,8 +44,9 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:///C:/Users/USER/Desktop/react/onliner/medicine-server/uploads/");
 
-        // ② PDF 내보내기 폴더 매핑 (프론트에서 다운로드용 링크로 사용)
-       registry.addResourceHandler("/exports/**")
-        .addResourceLocations("file:///C:/Users/USER/Desktop/react/onliner/medicine-server/exports/");
+        // ② PDF 내보내기 폴더 매핑 (프론트에서 다운로드용 링크로 사용, 위치는 invoices.exports-dir)
+        String exports = invoiceCache.getExportsPath().toUri().toString();
+        registry.addResourceHandler("/exports/**")
+                .addResourceLocations(exports.endsWith("/") ? exports : exports + "/");
     }
 }
@@ -0,0 +1,52 @@
+package com.onliner.medicine_server.controller;
+
+import com.onliner.medicine_server.service.ImportJob;
+import com.onliner.medicine_server.service.ImportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/import-jobs")
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    // 1) 작업 상태 조회: 처리 행 수, 초당 처리량, 오류 목록 (본인 작업만)
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id, Principal principal) {
+        return importJobService.find(id, principal.getName())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("error", "해당 작업을 찾을 수 없습니다.", "jobId", id)));
+    }
+
+    // 2) 보관 중인 본인 작업 목록 (최근 제출 순)
+    @GetMapping
+    public List<ImportJob> listJobs(Principal principal) {
+        return importJobService.list(principal.getName());
+    }
+
+    // ─── 업로드 컨트롤러 공용 응답 ────────────────────────────────
+    // 202 Accepted + 작업 id / 상태 조회 경로
+    static ResponseEntity<?> accepted(ImportJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "jobId", job.getId(),
+                "status", job.getStatus(),
+                "statusUrl", "/api/import-jobs/" + job.getId()));
+    }
+
+    // 작업 대기열이 가득 찬 경우
+    static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "업로드 작업이 많아 잠시 후 다시 시도해 주세요."));
+    }
+}
@@ -1,8 +1,15 @@
 // src/main/java/com/onliner/medicine_server/controller/InvoiceController.java
 package com.onliner.medicine_server.controller;
 
-import com.onliner.medicine_server.util.PdfUtil;
-import org.springframework.beans.factory.annotation.Value;
+import com.onliner.medicine_server.service.InvoiceCache;
+import com.onliner.medicine_server.service.InvoiceJob;
+import com.onliner.medicine_server.service.InvoicePipeline;
+import com.onliner.medicine_server.service.InvoiceProcessingService;
+import com.onliner.medicine_server.service.InvoiceResult;
+import com.onliner.medicine_server.service.InvoiceTemplateRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -15,16 +22,32 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.nio.file.*;
+import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/invoices")
+@RequiredArgsConstructor
 public class InvoiceController {
 
+    private static final Logger log = LoggerFactory.getLogger(InvoiceController.class);
+
+    private final InvoiceTemplateRegistry templateRegistry;
+    private final InvoiceProcessingService invoiceProcessingService;
+    private final InvoicePipeline invoicePipeline;
+    private final InvoiceCache invoiceCache;
+
+    // 등록된 거래명세서 양식 목록 (업체 → 양식 이름)
+    @GetMapping("/templates")
+    public Map<String, List<String>> listTemplates() {
+        return templateRegistry.list();
+    }
+
     @GetMapping("/exports/{filename:.+}")
     public ResponseEntity<Resource> downloadPdf(@PathVariable String filename) {
         try {
-            Path filePath = Paths.get("C:/Users/USER/Desktop/react/onliner/medicine-server/exports").resolve(filename);
+            Path filePath = invoiceProcessingService.getExportsPath().resolve(filename);
             Resource resource = new UrlResource(filePath.toUri());
 
             if (!resource.exists()) {
@@ -41,110 +64,92 @@ public class InvoiceController {
         }
     }
 
-    @Value("${spring.servlet.multipart.location}")
-    private String uploadDir;
-
-    private final Path exportsPath = Paths.get("C:/Users/USER/Desktop/react/onliner/medicine-server/exports");
-
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadSingle(@RequestPart("invoice") MultipartFile file) {
+    public ResponseEntity<?> uploadSingle(@RequestPart("invoice") MultipartFile file,
+                                          @RequestParam(value = "vendor", required = false) String vendor,
+                                          @RequestParam(value = "template", required = false) String template) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "업로드할 PDF 파일이 없습니다."));
         }
 
         try {
-            String originalName = Objects.requireNonNull(file.getOriginalFilename());
-            Path tempDir = Paths.get(uploadDir);
-            if (Files.notExists(tempDir)) {
-                Files.createDirectories(tempDir);
-            }
-            String tempFilename = UUID.randomUUID() + "_" + originalName;
-            Path tempFilePath = tempDir.resolve(tempFilename);
-            Files.copy(file.getInputStream(), tempFilePath, StandardCopyOption.REPLACE_EXISTING);
+            InvoiceResult result = invoiceProcessingService.processOne(file, vendor, template);
 
-            String parsedText = PdfUtil.parseAndDedupeText(tempFilePath.toFile());
-            String hospitalName = PdfUtil.extractHospitalName(parsedText, originalName);
-            String orderDate = PdfUtil.extractOrderDate(parsedText);
-
-            String safeHosp = hospitalName.replaceAll("[^가-힣a-zA-Z0-9_-]", "");
-            String safeDate = orderDate;
-            String finalFilename = safeHosp + "_" + safeDate + ".pdf";
-
-            if (Files.notExists(exportsPath)) {
-                Files.createDirectories(exportsPath);
-            }
-            Path finalPdfPath = exportsPath.resolve(finalFilename);
-
-            String templateAbsolutePath = Paths.get("src/main/resources/templates/거래명세서_양식.pdf").toString();
-            PdfUtil.overlayTemplate(templateAbsolutePath, tempFilePath.toString(), finalPdfPath.toString());
-
-            Files.deleteIfExists(tempFilePath);
-
-            String pdfUrl = "/exports/" + finalFilename;
             Map<String, Object> body = new HashMap<>();
             body.put("message", "성공");
-            body.put("pdfUrl", pdfUrl);
-            body.put("parsedText", parsedText);
+            body.put("pdfUrl", result.pdfUrl());
+            body.put("parsedText", result.parsedText());
 
             return ResponseEntity.ok(body);
 
         } catch (IOException e) {
-            e.printStackTrace();
+            log.warn("invoice {} failed: {}", file.getOriginalFilename(), e.toString());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "처리 실패", "detail", e.getMessage()));
         }
     }
 
+    // 파일별로 병렬 처리, files 는 성공한 파일(업로드 순서), failed 는 실패한 파일과 사유
     @PostMapping("/upload-multiple")
-    public ResponseEntity<?> uploadMultiple(@RequestPart("invoices") MultipartFile[] files) {
+    public ResponseEntity<?> uploadMultiple(@RequestPart("invoices") MultipartFile[] files,
+                                            @RequestParam(value = "vendor", required = false) String vendor,
+                                            @RequestParam(value = "template", required = false) String template) {
         if (files == null || files.length == 0) {
             return ResponseEntity.badRequest().body(Map.of("error", "업로드할 파일이 없습니다."));
         }
 
-        List<Map<String, String>> results = new ArrayList<>();
-
-        for (MultipartFile file : files) {
-            if (file.isEmpty()) continue;
-            try {
-                String originalName = Objects.requireNonNull(file.getOriginalFilename());
-                Path tempDir = Paths.get(uploadDir);
-                if (Files.notExists(tempDir)) {
-                    Files.createDirectories(tempDir);
-                }
-                String tempFilename = UUID.randomUUID() + "_" + originalName;
-                Path tempFilePath = tempDir.resolve(tempFilename);
-                Files.copy(file.getInputStream(), tempFilePath, StandardCopyOption.REPLACE_EXISTING);
-
-                String parsedText = PdfUtil.parseAndDedupeText(tempFilePath.toFile());
-                String hospitalName = PdfUtil.extractHospitalName(parsedText, originalName);
-                String orderDate = PdfUtil.extractOrderDate(parsedText);
-
-                String safeHosp = hospitalName.replaceAll("[^가-힣a-zA-Z0-9_-]", "");
-                String safeDate = orderDate;
-                String finalFilename = safeHosp + "_" + safeDate + "_" + System.currentTimeMillis() + ".pdf";
-
-                if (Files.notExists(exportsPath)) {
-                    Files.createDirectories(exportsPath);
-                }
-                Path finalPdfPath = exportsPath.resolve(finalFilename);
-
-                String templateAbsolutePath = Paths.get("src/main/resources/templates/거래명세서_양식.pdf").toString();
-                PdfUtil.overlayTemplate(templateAbsolutePath, tempFilePath.toString(), finalPdfPath.toString());
-
-                Files.deleteIfExists(tempFilePath);
-
-                Map<String, String> singleResult = new HashMap<>();
-                singleResult.put("originalName", originalName);
-                singleResult.put("pdfUrl", "/exports/" + finalFilename);
-                singleResult.put("parsedText", parsedText);
-                singleResult.put("pdfFileName", finalFilename); // ✅ 추가
-                results.add(singleResult);
-
-            } catch (IOException ex) {
-                ex.printStackTrace();
-            }
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<Map<String, Object>> failed = new ArrayList<>();
+        for (InvoiceResult result : invoiceProcessingService.processAll(files, vendor, template)) {
+            (result.succeeded() ? results : failed).add(result.toMap());
         }
 
-        return ResponseEntity.ok(Map.of("message", "다중 업로드 완료", "files", results));
+        return ResponseEntity.ok(Map.of("message", "다중 업로드 완료", "files", results, "failed", failed));
+    }
+
+    // ─── 비동기 처리 (대량 배치) ────────────────────────────────
+    // 파일을 접수만 하고 202 + 작업 id 반환, 파일별 완료는 WebSocket INVOICE_FILE 이벤트로 받는다
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(@RequestPart("invoices") MultipartFile[] files,
+                                       @RequestParam(value = "vendor", required = false) String vendor,
+                                       @RequestParam(value = "template", required = false) String template,
+                                       Principal principal) {
+        if (files == null || files.length == 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "업로드할 파일이 없습니다."));
+        }
+        try {
+            InvoiceJob job = invoicePipeline.submit(files, vendor, template, principal.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "jobId", job.getId(),
+                    "status", job.getStatus(),
+                    "total", job.getTotal(),
+                    "statusUrl", "/api/invoices/jobs/" + job.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "처리 중인 거래명세서가 많아 잠시 후 다시 시도해 주세요."));
+        }
+    }
+
+    // 큐 깊이 / 워커 사용량
+    @GetMapping("/jobs/stats")
+    public InvoicePipeline.Stats getPipelineStats() {
+        return invoicePipeline.stats();
+    }
+
+    // 합성 결과 캐시 항목 수 / 사용량
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        return invoiceCache.stats();
+    }
+
+    // 작업 상태 + 끝난 파일 결과 (본인 작업만)
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id, Principal principal) {
+        return invoicePipeline.find(id, principal.getName())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404)
+                        .body(Map.of("error", "해당 작업을 찾을 수 없습니다.", "jobId", id)));
     }
 }
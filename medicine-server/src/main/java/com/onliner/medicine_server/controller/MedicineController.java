@@ -2,19 +2,41 @@
 package com.onliner.medicine_server.controller;
 
 import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.repository.FieldProjection;
+import com.onliner.medicine_server.repository.MedicineFilter;
 import com.onliner.medicine_server.repository.MedicineRepository;
+import com.onliner.medicine_server.repository.MedicineRepositoryCustom;
+import com.onliner.medicine_server.service.CatalogCache;
+import com.onliner.medicine_server.service.ImportJob;
+import com.onliner.medicine_server.service.ImportJobService;
+import com.onliner.medicine_server.service.ImportProgress;
+import com.onliner.medicine_server.service.MedicineCatalogService;
+import com.onliner.medicine_server.service.MedicineExportService;
+import com.onliner.medicine_server.service.MedicineFingerprint;
+import com.onliner.medicine_server.service.MedicineImportResult;
+import com.onliner.medicine_server.service.MedicineImportService;
+import com.onliner.medicine_server.service.MedicineSearchHit;
+import com.onliner.medicine_server.service.MedicineSearchIndex;
+import com.onliner.medicine_server.service.StockAdjustment;
+import com.onliner.medicine_server.service.StockLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.InputStream;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.context.annotation.Profile;
 
 @RestController
@@ -22,107 +44,180 @@ import org.springframework.context.annotation.Profile;
 @Profile("!render-nodb")
 public class MedicineController {
 
+    private static final Logger log = LoggerFactory.getLogger(MedicineController.class);
+
+    private static final int MAX_ADJUSTMENTS = 5000;
+
     @Autowired
     private MedicineRepository medicineRepository;
 
-    // 전체 조회 (optional: ?name=검색어)
-    @GetMapping
-    public List<Medicine> getAllMedicines(@RequestParam(required = false) String name) {
-        if (name != null && !name.isEmpty()) {
-            // 이름 검색 기능 (필요 시 enable)
-            // return medicineRepository.findByNameContainingIgnoreCase(name);
-            return medicineRepository.findAll().stream()
-                    .filter(m -> m.getName().toLowerCase().contains(name.toLowerCase()))
-                    .toList();
-        }
-        return medicineRepository.findAll();
-    }
+    @Autowired
+    private MedicineImportService medicineImportService;
 
-    // ------------- 엑셀 업로드 & 중복 처리 로직 -------------
-    // POST /api/medicines/upload
-    @PostMapping("/upload")
-    public ResponseEntity<?> uploadExcel(@RequestParam("file") MultipartFile file) {
-        if (file.isEmpty()) {
-            return ResponseEntity.badRequest().body("파일이 없습니다.");
-        }
+    @Autowired
+    private ImportJobService importJobService;
 
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = new XSSFWorkbook(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            List<Medicine> listToSave = new ArrayList<>();
+    @Autowired
+    private MedicineCatalogService medicineCatalogService;
 
-            // 엑셀 첫 번째 행(0번)은 헤더라고 가정 → 두 번째 행(1)부터 데이터
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
+    @Autowired
+    private MedicineSearchIndex medicineSearchIndex;
 
-                // “No” 칼럼(인덱스 0)이 숫자가 아니면 건너뛰기
-                Cell noCell = row.getCell(0);
-                if (noCell == null || noCell.getCellType() != CellType.NUMERIC) {
-                    continue;
-                }
+    @Autowired
+    private CatalogCache catalogCache;
 
-                Integer no = (int) noCell.getNumericCellValue();
-                String code = getCellStringValue(row.getCell(3)); // “코드” 칼럼
+    @Autowired
+    private MedicineExportService medicineExportService;
 
-                // (1) 중복 검사: 이미 DB에 같은 no나 code가 존재하는지 확인
-                Optional<Medicine> existingByCode = medicineRepository.findByCode(code);
-                Optional<Medicine> existingByNo   = medicineRepository.findByNo(no);
+    @Autowired
+    private StockLedgerService stockLedgerService;
 
-                Medicine medEntity;
-                if (existingByCode.isPresent()) {
-                    // 코드 기준으로 이미 존재 → 기존 엔티티 업데이트
-                    medEntity = existingByCode.get();
-                }
-                else if (existingByNo.isPresent()) {
-                    // no 기준으로 이미 존재 → 기존 엔티티 업데이트
-                    medEntity = existingByNo.get();
+    // 전체 조회 (optional: ?name=검색어)
+    // 필터(supplier, manufacturer, location, lowStock, maxStock) 나 페이지 파라미터(cursor, size, sort)가 있으면
+    // 키셋 페이지 응답 { items, size, nextCursor } 으로 반환
+    // ?view=summary 이면 목록 화면용 요약 필드만, ?fields=code,name,stockQty 이면 지정한 필드만 (id 는 항상 포함)
+    @GetMapping
+    public ResponseEntity<?> getAllMedicines(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String supplier,
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Boolean lowStock,
+            @RequestParam(required = false) Double maxStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean paged = supplier != null || manufacturer != null || location != null
+                || lowStock != null || maxStock != null
+                || cursor != null || size != null || sort != null;
+        List<String> selected;
+        boolean summary;
+        try {
+            selected = MedicineRepositoryCustom.FIELDS.parse(fields);
+            summary = FieldProjection.isSummaryView(view);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+        if (paged) {
+            try {
+                MedicineFilter filter = medicineCatalogService.toFilter(
+                        name, supplier, manufacturer, location, lowStock, maxStock);
+                if (selected != null) {
+                    return ResponseEntity.ok(medicineCatalogService.findFieldsPage(filter, selected, sort, cursor, size));
                 }
-                else {
-                    // (2) 완전히 새로 추가하는 경우
-                    medEntity = new Medicine();
-                    medEntity.setNo(no);
-                    medEntity.setCode(code);
+                if (summary) {
+                    return ResponseEntity.ok(medicineCatalogService.findSummaryPage(filter, sort, cursor, size));
                 }
-
-                // 공통: 필드 덮어쓰기 (신규든 기존이든 다시 세팅)
-                medEntity.setSupplier(getCellStringValue(row.getCell(1)));     // 입고처
-                medEntity.setManufacturer(getCellStringValue(row.getCell(2))); // 제조사
-                medEntity.setName(getCellStringValue(row.getCell(4)));         // 제품명
-                medEntity.setSpec(getCellStringValue(row.getCell(5)));         // 규격
-                medEntity.setBasePrice(getCellDoubleValue(row.getCell(6)));    // 기준가
-                medEntity.setLocation(getCellStringValue(row.getCell(7)));     // 재고위치
-                medEntity.setPrevStock(getCellDoubleValue(row.getCell(8)));    // 전일재고
-                medEntity.setPrevAmount(getCellDoubleValue(row.getCell(9)));   // 전일금액
-                medEntity.setInQty(getCellDoubleValue(row.getCell(10)));       // 입고수량
-                medEntity.setInAmount(getCellDoubleValue(row.getCell(11)));    // 입고금액
-                medEntity.setOutQty(getCellDoubleValue(row.getCell(12)));      // 출고수량
-                medEntity.setOutAmount(getCellDoubleValue(row.getCell(13)));   // 출고금액
-                medEntity.setStockQty(getCellDoubleValue(row.getCell(14)));    // 재고수량
-                medEntity.setPurchasedQty(getCellDoubleValue(row.getCell(15))); // 매입처집계수량
-                medEntity.setUnitPrice(getCellDoubleValue(row.getCell(16)));   // 단가
-                medEntity.setBasePricePercent(getCellDoubleValue(row.getCell(17))); // 기준가%
-                medEntity.setStockAmount(getCellDoubleValue(row.getCell(18))); // 재고금액
-                medEntity.setBasePriceCode(getCellStringValue(row.getCell(19))); // 기준가코드
-                medEntity.setRemarks(getCellStringValue(row.getCell(20)));      // 비고
-                medEntity.setStandardCode(getCellStringValue(row.getCell(21))); // 표준코드
-                medEntity.setProductLocation(getCellStringValue(row.getCell(22))); // 제품위치
-
-                listToSave.add(medEntity);
+                return ResponseEntity.ok(medicineCatalogService.findPage(filter, sort, cursor, size));
+            } catch (IllegalArgumentException iae) {
+                return ResponseEntity.badRequest().body(iae.getMessage());
+            }
+        }
+        MedicineFilter byName = (name != null && !name.isEmpty())
+                ? new MedicineFilter(name, null, null, null, null)
+                : null;
+        if (selected != null) {
+            return ResponseEntity.ok(medicineRepository.findFields(byName, selected, false, null, 0));
+        }
+        if (summary) {
+            if (byName != null) {
+                return ResponseEntity.ok(medicineRepository.findSummaries(byName, false, null, 0));
             }
+            CatalogCache.Entry entry = catalogCache.get(CatalogCache.Catalog.MEDICINES, "summary",
+                    () -> medicineRepository.findSummaries(null, false, null, 0));
+            return catalogCache.respond(entry, ifNoneMatch);
+        }
+        if (byName != null) {
+            // 이름 검색은 DB 에서 처리
+            return ResponseEntity.ok(medicineRepository.findByNameContainingIgnoreCase(name));
+        }
+        // 전체 목록은 캐시된 JSON + ETag (변경이 없으면 304)
+        CatalogCache.Entry entry = catalogCache.get(CatalogCache.Catalog.MEDICINES, medicineRepository::findAll);
+        return catalogCache.respond(entry, ifNoneMatch);
+    }
 
-            // 한 번에 모두 저장 (insert or update)
-            medicineRepository.saveAll(listToSave);
+    // 자동완성 검색: GET /api/medicines/search?q=타이레놀&limit=20 (초성 "ㅌㅇㄹㄴ" 도 가능)
+    @GetMapping("/search")
+    public List<MedicineSearchHit> search(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return medicineSearchIndex.search(q, Math.min(Math.max(limit, 1), 100));
+    }
 
-            workbook.close();
-            return ResponseEntity.ok("엑셀 업로드 및 저장/업데이트 성공 (" + listToSave.size() + "건 처리됨)");
+    // 전체 내보내기: GET /api/medicines/export?format=ndjson | xlsx
+    // DB 커서에서 읽는 즉시 응답 스트림으로 쓰므로 목록 전체를 메모리에 올리지 않음
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        if ("xlsx".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(
+                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"medicines.xlsx\"")
+                    .body(medicineExportService::writeXlsx);
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"medicines.ndjson\"")
+                .body(medicineExportService::writeNdjson);
+    }
+
+    // ------------- 엑셀 업로드 & 중복 처리 로직 -------------
+    // POST /api/medicines/upload (?mode=stream 기본, ?mode=workbook 이면 워크북(DOM) 방식으로 읽음)
+    // ?async=true 이면 작업 id 를 바로 반환하고 스트리밍 업로드를 백그라운드에서 실행
+    @PostMapping("/upload")
+    public ResponseEntity<?> uploadExcel(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "mode", defaultValue = "stream") String mode,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            Principal principal) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("파일이 없습니다.");
+        }
+        boolean workbook = "workbook".equalsIgnoreCase(mode);
+        if (async) {
+            try {
+                ImportJob job = importJobService.submit(ImportJob.Type.MEDICINE, file, principal.getName(),
+                        (f, progress) -> medicineImportService.importFile(f, workbook, progress).toMessage());
+                return ImportJobController.accepted(job);
+            } catch (RejectedExecutionException e) {
+                return ImportJobController.busy();
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("엑셀 처리 실패: " + e.getMessage());
+            }
+        }
+        return uploadExcelFile(file, workbook);
+    }
+    // 임시 파일로 받은 뒤 한 행씩 읽어 청크 단위 저장 (workbook=true 면 워크북 방식으로 읽음)
+    private ResponseEntity<?> uploadExcelFile(MultipartFile file, boolean workbook) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("medicine-upload-", ".xlsx");
+            file.transferTo(tempFile);
+            MedicineImportResult result = medicineImportService.importFile(tempFile.toFile(), workbook, ImportProgress.NONE);
+            return ResponseEntity.ok(result.toMessage());
         }
         catch (Exception e) {
-            e.printStackTrace();
+            log.warn("medicine upload {} failed", file.getOriginalFilename(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("엑셀 처리 실패: " + e.getMessage());
         }
+        finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (Exception ignored) {}
+            }
+        }
     }
+
     // 3) 개별 재고 수정: PUT /api/medicines/{id}
     @PutMapping("/{id}")
     public ResponseEntity<?> updateMedicine(
@@ -138,6 +233,8 @@ public class MedicineController {
 
         // 3-2. 기존 엔티티를 꺼내서, 필드 덮어쓰기
         Medicine exist = optional.get();
+        Double fromQty = exist.getStockQty();
+        Double fromAmount = exist.getStockAmount();
         exist.setSupplier(incoming.getSupplier());
         exist.setManufacturer(incoming.getManufacturer());
         exist.setName(incoming.getName());
@@ -159,10 +256,23 @@ public class MedicineController {
         exist.setRemarks(incoming.getRemarks());
         exist.setStandardCode(incoming.getStandardCode());
         exist.setProductLocation(incoming.getProductLocation());
+        // 알림 기준(안전재고/유효기간)은 엑셀에 없는 값이라 보낸 경우에만 바꾼다
+        if (incoming.getSafetyStock() != null) exist.setSafetyStock(incoming.getSafetyStock());
+        if (incoming.getExpiryDate() != null) exist.setExpiryDate(incoming.getExpiryDate());
         // → 필요 없는 필드, 즉 수정할 의도가 없으면 해당 setter는 생략해도 됩니다.
+        // 수정된 값 기준으로 지문을 다시 계산해야 다음 엑셀 업로드에서 올바르게 비교된다
+        exist.setRowFingerprint(MedicineFingerprint.of(exist));
 
-        // 3-3. 저장
-        medicineRepository.save(exist);
+        // 3-3. 저장 + 검색 인덱스 반영
+        //      재고수량/재고금액은 JPA 로 덮어쓰지 않고, 읽은 값과의 차이를 원장에 쌓아 원자적으로 증감
+        //      (저장과 원장 반영은 한 트랜잭션, 알림 판정은 커밋 후 서비스에서)
+        Double[] stock = stockLedgerService.saveManualEdit(exist, fromQty, incoming.getStockQty(),
+                fromAmount, incoming.getStockAmount(), "재고 수정 (PUT)");
+        if (stock != null) {
+            exist.setStockQty(stock[0]);
+            exist.setStockAmount(stock[1]);
+        }
+        medicineSearchIndex.upsert(exist);
 
         return ResponseEntity.ok(exist);
     }
@@ -177,43 +287,32 @@ public class MedicineController {
         }
         return ResponseEntity.ok(optional.get());
     }
-    // ======================= 헬퍼 메서드들 =======================
-    // 셀에서 문자열을 안전하게 읽어서 반환
-    private String getCellStringValue(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        if (cell.getCellType() == CellType.STRING) {
-            return cell.getStringCellValue();
-        }
-        else if (cell.getCellType() == CellType.NUMERIC) {
-            // 숫자가 들어있더라도 문자열로 보고 싶으면 toString()
-            return String.valueOf(cell.getNumericCellValue());
-        }
-        else {
-            return "";
-        }
+
+    // 5) 재고 이동 이력 (최신순): GET /api/medicines/{id}/stock-movements?limit=100
+    @GetMapping("/{id}/stock-movements")
+    public ResponseEntity<?> getStockMovements(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(stockLedgerService.history(id, limit));
     }
 
-    // 셀에서 숫자를 안전하게 Double로 변환해서 반환
-    private Double getCellDoubleValue(Cell cell) {
-        if (cell == null) {
-            return 0.0;
-        }
-        if (cell.getCellType() == CellType.STRING) {
-            try {
-                // 쉼표(,)가 들어갈 수도 있으므로 제거
-                return Double.parseDouble(cell.getStringCellValue().replaceAll(",", ""));
-            } catch (NumberFormatException ex) {
-                return 0.0;
-            }
-        }
-        else if (cell.getCellType() == CellType.NUMERIC) {
-            return cell.getNumericCellValue();
+    // 6) 원장 합계로 재고 스냅샷 재계산: POST /api/medicines/stock/rebuild
+    @PostMapping("/stock/rebuild")
+    public ResponseEntity<?> rebuildStockFromJournal() {
+        int fixed = stockLedgerService.rebuildFromJournal();
+        return ResponseEntity.ok(Map.of("corrected", fixed));
+    }
+
+    // 7) 일괄 재고 조정: POST /api/medicines/stock-adjustments  [{code, delta, reason}, ...]
+    //    전부 한 트랜잭션에서 stock_qty = stock_qty + delta 로 반영하고, 요청 순서대로 항목별 결과를 돌려준다
+    @PostMapping("/stock-adjustments")
+    public ResponseEntity<?> adjustStock(@RequestBody List<StockAdjustment> adjustments) {
+        if (adjustments == null || adjustments.isEmpty()) {
+            return ResponseEntity.badRequest().body("조정할 항목이 없습니다.");
         }
-        else {
-            return 0.0;
+        if (adjustments.size() > MAX_ADJUSTMENTS) {
+            return ResponseEntity.badRequest().body("한 번에 최대 " + MAX_ADJUSTMENTS + "건까지 조정할 수 있습니다.");
         }
+        return ResponseEntity.ok(stockLedgerService.adjustByCode(adjustments));
     }
-    // =========================================================
 }
@@ -2,14 +2,24 @@
 package com.onliner.medicine_server.controller;
 
 import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import com.onliner.medicine_server.service.ImportJob;
+import com.onliner.medicine_server.service.ImportJobService;
+import com.onliner.medicine_server.service.LedgerImportResult;
+import com.onliner.medicine_server.service.VendorLedgerExportService;
 import com.onliner.medicine_server.service.VendorLedgerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/vendors")
@@ -18,6 +28,8 @@ import java.util.List;
 public class VendorLedgerController {
 
     private final VendorLedgerService ledgerService;
+    private final ImportJobService importJobService;
+    private final VendorLedgerExportService ledgerExportService;
 
     // 1) 거래내역 조회
     @GetMapping("/ledger")
@@ -31,21 +43,120 @@ public class VendorLedgerController {
         return ResponseEntity.ok(entries);
     }
 
-    // 2) 엑셀 업로드 (POST, multipart/form-data)
+    // 1-1) 키셋 페이지: GET /api/vendors/ledger/page?hospitalId=..&from=..&to=..&size=200&cursor=..
+    //      응답 { items, size, nextCursor } — nextCursor 를 다음 요청의 cursor 로 넘기면 이어서 조회
+    @GetMapping("/ledger/page")
+    public ResponseEntity<?> getLedgerPage(
+            @RequestParam("hospitalId") String hospitalId,
+            @RequestParam("from") String fromDate,
+            @RequestParam("to") String toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        try {
+            return ResponseEntity.ok(ledgerService.getLedgerPage(hospitalId, fromDate, toDate, cursor, size));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    // 1-2) 기간 내보내기: GET /api/vendors/ledger/export?hospitalId=..&from=..&to=..&format=ndjson | csv
+    //      (일자, id) 순으로 DB 커서에서 읽는 즉시 응답 스트림으로 씀
+    @GetMapping("/ledger/export")
+    public ResponseEntity<?> exportLedger(
+            @RequestParam("hospitalId") String hospitalId,
+            @RequestParam("from") String fromDate,
+            @RequestParam("to") String toDate,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format
+    ) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = VendorLedgerService.parsePeriod(fromDate);
+            to = VendorLedgerService.parsePeriod(toDate);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+        String filename = "ledger-" + from + "-" + to;
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = out -> ledgerExportService.writeCsv(hospitalId, from, to, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + ".csv\"")
+                    .body(body);
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().body("지원하지 않는 형식입니다: " + format);
+        }
+        StreamingResponseBody body = out -> ledgerExportService.writeNdjson(hospitalId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + ".ndjson\"")
+                .body(body);
+    }
+
+    // 2) 엑셀 업로드 (POST, multipart/form-data, ?async=true 이면 작업 id 를 바로 반환)
+    //    hospitalId 의 [from, to] 구간을 파일 내용으로 교체 (다시 올려도 중복되지 않음)
     @PostMapping("/upload-ledger")
     public ResponseEntity<?> uploadLedger(
             @RequestParam("file") MultipartFile file,
             @RequestParam("hospitalId") String hospitalId,
             @RequestParam("from") String fromDate,
-            @RequestParam("to") String toDate
+            @RequestParam("to") String toDate,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            Principal principal
     ) {
+        if (async) {
+            try {
+                ImportJob job = importJobService.submit(ImportJob.Type.VENDOR_LEDGER, file, principal.getName(), (f, progress) ->
+                        ledgerService.importExcel(f, hospitalId, fromDate, toDate, progress).toMessage());
+                return ImportJobController.accepted(job);
+            } catch (RejectedExecutionException e) {
+                return ImportJobController.busy();
+            } catch (Exception ex) {
+                return ResponseEntity
+                        .internalServerError()
+                        .body("엑셀 업로드 오류: " + ex.getMessage());
+            }
+        }
+
         try {
-            ledgerService.uploadAndSaveExcel(file, hospitalId, fromDate, toDate);
-            return ResponseEntity.ok().body("거래장 엑셀 업로드 및 저장 완료");
+            LedgerImportResult result = ledgerService.uploadAndSaveExcel(file, hospitalId, fromDate, toDate);
+            return ResponseEntity.ok().body(result.toMessage());
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
         } catch (Exception ex) {
             return ResponseEntity
                     .internalServerError()
                     .body("엑셀 업로드 오류: " + ex.getMessage());
         }
     }
+
+    // 3) 일별 집계: GET /api/vendors/ledger/summary/daily?hospitalId=..&from=2024-01-01&to=2024-12-31
+    @GetMapping("/ledger/summary/daily")
+    public ResponseEntity<?> getDailySummary(
+            @RequestParam("hospitalId") String hospitalId,
+            @RequestParam("from") String fromDate,
+            @RequestParam("to") String toDate
+    ) {
+        try {
+            return ResponseEntity.ok(ledgerService.getDailySummary(hospitalId, fromDate, toDate));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    // 4) 월별 집계: GET /api/vendors/ledger/summary/monthly?hospitalId=..&from=2024-01&to=2024-12
+    @GetMapping("/ledger/summary/monthly")
+    public ResponseEntity<?> getMonthlySummary(
+            @RequestParam("hospitalId") String hospitalId,
+            @RequestParam("from") String fromMonth,
+            @RequestParam("to") String toMonth
+    ) {
+        try {
+            return ResponseEntity.ok(ledgerService.getMonthlySummary(hospitalId, fromMonth, toMonth));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
 }
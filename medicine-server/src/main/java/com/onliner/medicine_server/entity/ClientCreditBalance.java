@@ -0,0 +1,33 @@
+// src/main/java/com/onliner/medicine_server/entity/ClientCreditBalance.java
+package com.onliner.medicine_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 거래처(병원)별 미수 잔액 = 거래장 금액 합계 - 입금(client_payments) 합계
+ * - 거래장 업로드 / 입금 등록 트랜잭션에서 증감으로 갱신하고, 재계산 작업이 원장 - 입금 합계로 맞춘다.
+ * - 쓰기는 CreditBalanceRepository 의 JDBC 로만 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "client_credit_balances")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientCreditBalance {
+
+    // 거래장의 hospital_id (= 거래처 코드)
+    @Id
+    @Column(name = "hospital_id", length = 50, nullable = false)
+    private String hospitalId;
+
+    @Column(name = "outstanding", nullable = false, precision = 19, scale = 2)
+    private BigDecimal outstanding;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,45 @@
+// src/main/java/com/onliner/medicine_server/entity/ClientPayment.java
+package com.onliner.medicine_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 거래처(병원) 입금 내역 — 미수 잔액에서 차감된다
+ * - 쓰기는 CreditBalanceRepository 의 JDBC 로만 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "client_payments", indexes = {
+        // 재계산 시 병원 묶음별 입금 합계
+        @Index(name = "idx_client_payments_hospital_date", columnList = "hospital_id, paid_on")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPayment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 거래장의 hospital_id (= 거래처 코드)
+    @Column(name = "hospital_id", length = 50, nullable = false)
+    private String hospitalId;
+
+    @Column(name = "paid_on", nullable = false)
+    private LocalDate paidOn;
+
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "memo", length = 500)
+    private String memo;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+// src/main/java/com/onliner/medicine_server/entity/LedgerMonthlyTotal.java
+package com.onliner.medicine_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 거래장 월별 집계 (병원 × 월, month_start 는 그 달 1일)
+ * - 쓰기는 LedgerRollupRepository 의 INSERT ... SELECT 로만 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "ledger_monthly_totals")
+@IdClass(LedgerMonthlyTotal.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerMonthlyTotal {
+
+    @Id
+    @Column(name = "hospital_id", length = 50, nullable = false)
+    private String hospitalId;
+
+    @Id
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "qty_total", nullable = false)
+    private Long qtyTotal;
+
+    @Column(name = "amount_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amountTotal;
+
+    // 서로 다른 주문번호 수 (월 단위로 다시 센 값)
+    @Column(name = "order_count", nullable = false)
+    private Integer orderCount;
+
+    // 거래장 행 수
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private String hospitalId;
+        private LocalDate monthStart;
+    }
+}
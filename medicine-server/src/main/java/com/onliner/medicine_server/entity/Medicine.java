@@ -1,10 +1,21 @@
 // src/main/java/com/onliner/medicine_server/entity/Medicine.java
 package com.onliner.medicine_server.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
+
 @Entity
-@Table(name = "medicines")
+@Table(name = "medicines", indexes = {
+        // 목록 필터 + 키셋 페이지네이션 (조건 컬럼, id) 순서
+        @Index(name = "idx_medicines_supplier_id", columnList = "supplier, id"),
+        @Index(name = "idx_medicines_manufacturer_id", columnList = "manufacturer, id"),
+        @Index(name = "idx_medicines_location_id", columnList = "location, id"),
+        @Index(name = "idx_medicines_stock_qty_id", columnList = "stock_qty, id"),
+        // 유효기간 임박 알림 스캔
+        @Index(name = "idx_medicines_expiry_date", columnList = "expiry_date")
+})
 public class Medicine {
 
     @Id
@@ -37,16 +48,31 @@ public class Medicine {
     private Double inAmount;
     private Double outQty;
     private Double outAmount;
+    // 재고수량/재고금액은 재고 이동 원장의 스냅샷 → JPA 로는 덮어쓰지 않고 StockLedgerService 의 원자적 증감으로만 변경
+    @Column(name = "stock_qty", updatable = false)
     private Double stockQty;
     private Double purchasedQty;
     private Double unitPrice;
     private Double basePricePercent;
+    @Column(name = "stock_amount", updatable = false)
     private Double stockAmount;
     private String basePriceCode;
     private String remarks;
     private String standardCode;
     private String productLocation;
 
+    // 품목별 안전재고 (없으면 medicines.low-stock-threshold 적용) / 유효기간 — 엑셀 양식에는 없는 값
+    @Column(name = "safety_stock")
+    private Double safetyStock;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    // 엑셀 행 지문 (MedicineFingerprint) — 같은 행이 다시 올라오면 UPDATE 생략
+    @JsonIgnore
+    @Column(name = "row_fingerprint", length = 64)
+    private String rowFingerprint;
+
     // 기본 생성자 (JPA 사용 용도)
     public Medicine() {}
 
@@ -218,5 +244,26 @@ public class Medicine {
     public void setProductLocation(String productLocation) {
         this.productLocation = productLocation;
     }
+
+    public Double getSafetyStock() {
+        return safetyStock;
+    }
+    public void setSafetyStock(Double safetyStock) {
+        this.safetyStock = safetyStock;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public String getRowFingerprint() {
+        return rowFingerprint;
+    }
+    public void setRowFingerprint(String rowFingerprint) {
+        this.rowFingerprint = rowFingerprint;
+    }
     // --- 끝 ---
 }
@@ -0,0 +1,60 @@
+// src/main/java/com/onliner/medicine_server/entity/StockMovement.java
+package com.onliner.medicine_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 재고 이동 원장 (추가 전용)
+ * - medicines.stock_qty / stock_amount 는 이 원장의 합계를 원자적 증감으로 반영한 스냅샷이다.
+ * - 쓰기는 StockMovementRepository 의 JDBC 배치로만 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        // 품목별 이력 조회 / 원장 재집계
+        @Index(name = "idx_stock_movements_medicine_id", columnList = "medicine_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    public enum Type {
+        OPENING,     // 원장 도입 시점의 기초 재고
+        IMPORT,      // 재고 엑셀 업로드로 맞춘 차이
+        RECEIPT,     // 입고
+        SHIPMENT,    // 출고
+        ADJUSTMENT   // 수기 조정 (PUT, 재고 조정 API)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(name = "code", nullable = false)
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private Type type;
+
+    // 재고 수량 증감 (출고는 음수)
+    @Column(name = "qty_delta", nullable = false)
+    private Double qtyDelta;
+
+    // 재고 금액 증감 (null 로 넘기면 qtyDelta × 단가로 계산해 저장)
+    @Column(name = "amount_delta", nullable = false)
+    private Double amountDelta;
+
+    @Column(name = "reason", length = 200)
+    private String reason;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
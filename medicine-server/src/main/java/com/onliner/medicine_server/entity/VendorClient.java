@@ -1,13 +1,19 @@
 // src/main/java/com/onliner/medicine_server/entity/VendorClient.java
 package com.onliner.medicine_server.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.onliner.medicine_server.util.SearchText;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "vendor_clients")
+@Table(name = "vendor_clients", indexes = {
+        // 검색: 이름 접두 / 사업자번호(숫자만) 접두
+        @Index(name = "idx_vendor_clients_search_name", columnList = "search_name"),
+        @Index(name = "idx_vendor_clients_business_number_digits", columnList = "business_number_digits")
+})
 @Data
 public class VendorClient {
 
@@ -71,7 +77,34 @@ public class VendorClient {
     private Boolean externalExclude; // 외부연동제외
     private Boolean prePayment;      // 선결제유무
 
+    // ─── 검색용 정규화 값 (저장 시 자동 계산) ───
+    @JsonIgnore
+    @Column(name = "search_name")
+    private String searchName;             // 사업자원어명 (공백 제거, 소문자)
+
+    @JsonIgnore
+    @Column(name = "business_number_digits", length = 20)
+    private String businessNumberDigits;   // 사업자번호 숫자만
+
+    @JsonIgnore
+    @Column(name = "search_text", length = 1000)
+    private String searchText;             // 원어명|내부명|코드|사업자번호 (포함 검색 확인용)
+
     public VendorClient() {
         // 기본 생성자
     }
+
+    @PrePersist
+    @PreUpdate
+    public void updateSearchKeys() {
+        searchName = SearchText.normalize(nameOriginal);
+        businessNumberDigits = SearchText.digits(businessNumber);
+        searchText = buildSearchText(nameOriginal, nameInternal, code, businessNumber);
+    }
+
+    public static String buildSearchText(String nameOriginal, String nameInternal, String code, String businessNumber) {
+        String text = SearchText.normalize(nameOriginal) + "|" + SearchText.normalize(nameInternal) + "|"
+                + SearchText.normalize(code) + "|" + SearchText.digits(businessNumber);
+        return text.length() > 1000 ? text.substring(0, 1000) : text;
+    }
 }
@@ -0,0 +1,45 @@
+// src/main/java/com/onliner/medicine_server/entity/VendorClientSearchGram.java
+package com.onliner.medicine_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 거래처 검색용 2-gram 색인 (gram, 거래처 id)
+ * - 쓰기는 VendorClientSearchService 의 JDBC 배치로만 하고, 이 엔티티는 테이블 정의용이다.
+ */
+@Entity
+@Table(name = "vendor_client_search_grams", indexes = {
+        @Index(name = "idx_vendor_client_search_grams_client", columnList = "client_id")
+})
+@IdClass(VendorClientSearchGram.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendorClientSearchGram {
+
+    @Id
+    @Column(name = "gram", length = 2, nullable = false)
+    private String gram;
+
+    @Id
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private String gram;
+        private Long clientId;
+    }
+}
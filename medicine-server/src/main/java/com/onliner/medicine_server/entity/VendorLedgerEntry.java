@@ -7,7 +7,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "vendor_ledger_entries")
+@Table(name = "vendor_ledger_entries", indexes = {
+        // 병원별 기간 조회 / 키셋 페이지·내보내기 정렬 / 업로드 시 기간 교체(DELETE) 범위 스캔
+        @Index(name = "idx_vendor_ledger_hospital_date_id", columnList = "hospital_id, entry_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
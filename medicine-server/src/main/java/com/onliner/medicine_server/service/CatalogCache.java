@@ -0,0 +1,125 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 전체 목록(약품 / 거래처) 응답 캐시
+ * - 직렬화된 JSON 바이트와 강한 ETag 를 보관하고, If-None-Match 가 맞으면 304 로 응답한다.
+ * - 업로드/수정 경로에서 invalidate() 로 버전을 올리면 다음 조회 때 한 번만 DB 에서 다시 읽는다.
+ * - 로딩 도중 버전이 바뀌면(동시 수정) 읽은 결과는 응답에만 쓰고 캐시에 넣지 않는다.
+ */
+@Component
+@Profile("!render-nodb")
+public class CatalogCache {
+
+    public enum Catalog { MEDICINES, VENDOR_CLIENTS }
+
+    public record Entry(byte[] body, String etag, long version) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+    // 카탈로그별로 보기(전체 = "", 요약 = "summary")마다 한 항목
+    private final Map<Catalog, Map<String, Entry>> entries = new EnumMap<>(Catalog.class);
+
+    public CatalogCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+            entries.put(catalog, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * 1) 캐시 조회 (없거나 버전이 바뀌었으면 loader 로 다시 읽어 직렬화)
+     */
+    public Entry get(Catalog catalog, Supplier<?> loader) {
+        return get(catalog, "", loader);
+    }
+
+    /**
+     * 1-1) 같은 카탈로그의 다른 보기 (예: ?view=summary) — 무효화는 카탈로그 단위로 함께 된다
+     */
+    public Entry get(Catalog catalog, String view, Supplier<?> loader) {
+        AtomicLong version = versions.get(catalog);
+        Map<String, Entry> views = entries.get(catalog);
+        Entry cached = views.get(view);
+        if (cached != null && cached.version() == version.get()) {
+            return cached;
+        }
+        synchronized (version) {
+            cached = views.get(view);
+            long current = version.get();
+            if (cached != null && cached.version() == current) {
+                return cached;
+            }
+            Entry loaded = serialize(loader.get(), current);
+            if (version.get() == current) {
+                views.put(view, loaded);
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * 2) 데이터 변경 시 호출 (업로드, PUT, PATCH, POST)
+     */
+    public void invalidate(Catalog catalog) {
+        versions.get(catalog).incrementAndGet();
+        entries.get(catalog).clear();
+    }
+
+    /**
+     * 3) 조건부 GET 응답: If-None-Match 가 현재 ETag 와 같으면 본문 없이 304
+     */
+    public ResponseEntity<byte[]> respond(Entry entry, String ifNoneMatch) {
+        if (matches(ifNoneMatch, entry.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag())
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entry.etag())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(entry.body());
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private Entry serialize(Object value, long version) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            return new Entry(body, etag, version);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("목록 직렬화 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
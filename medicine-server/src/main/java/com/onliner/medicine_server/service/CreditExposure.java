@@ -0,0 +1,24 @@
+package com.onliner.medicine_server.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 거래처 여신 현황 (GET /api/vendors/clients/{code}/credit)
+ * - creditLimit 이 없거나 0 이하면 한도 미설정으로 보고 available / utilization 은 null
+ * - allowed: 선결제 거래처이거나 한도 미설정이거나, 미수 + requestedAmount 가 한도 이내
+ */
+public record CreditExposure(
+        String code,
+        String name,
+        Double creditLimit,
+        BigDecimal outstanding,
+        BigDecimal available,
+        Double utilization,
+        Boolean prePayment,
+        Integer maxTurnDays,
+        BigDecimal requestedAmount,
+        boolean allowed,
+        LocalDateTime balanceUpdatedAt
+) {
+}
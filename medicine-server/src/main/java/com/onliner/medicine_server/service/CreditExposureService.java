@@ -0,0 +1,163 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.repository.CreditBalanceRepository;
+import com.onliner.medicine_server.repository.CreditBalanceRepository.ClientBalanceRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 거래처 여신 (미수 잔액 vs 여신한도)
+ * - 여신 노출액(outstanding) = 미결제 금액 = 거래장 금액 합계 - 입금 합계
+ *   거래장 업로드는 잔액을 늘리고(교체 구간 차액만큼), 입금 등록은 그 금액만큼 줄인다. 초과 입금이면 음수(선수금)로 남는다.
+ * - 잔액은 client_credit_balances 에 거래처별 한 행으로 유지: 업로드 / 입금 등록이 같은 트랜잭션에서 증감을 반영
+ * - 여신 조회는 거래처 + 잔액 한 행만 읽으므로 거래장 크기와 무관
+ * - 재계산 작업은 병원 목록을 CHUNK_SIZE 씩 나눠 병렬로 (원장 - 입금) 합계를 다시 구한다 (기동 시 백필, 매일 새벽, 수동)
+ */
+@Service
+@Profile("!render-nodb")
+public class CreditExposureService {
+
+    private static final int CHUNK_SIZE = 200;
+
+    private final CreditBalanceRepository balanceRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int threads;
+    private final AtomicBoolean recomputing = new AtomicBoolean();
+
+    public CreditExposureService(
+            CreditBalanceRepository balanceRepo,
+            TransactionTemplate transactionTemplate,
+            @Value("${vendors.credit.recompute-threads:4}") int threads
+    ) {
+        this.balanceRepo = balanceRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * 1) 여신 조회 (amount 가 있으면 그 금액을 더 출고해도 되는지 함께 판단)
+     */
+    public Optional<CreditExposure> check(String code, BigDecimal amount) {
+        ClientBalanceRow row = balanceRepo.findByCode(code);
+        if (row == null) return Optional.empty();
+
+        BigDecimal outstanding = row.outstanding();
+        BigDecimal requested = amount == null ? BigDecimal.ZERO : amount;
+        boolean limited = row.creditLimit() != null && row.creditLimit() > 0;
+        BigDecimal available = null;
+        Double utilization = null;
+        boolean allowed = true;
+        if (limited) {
+            BigDecimal limit = BigDecimal.valueOf(row.creditLimit());
+            available = limit.subtract(outstanding);
+            utilization = outstanding.multiply(BigDecimal.valueOf(100))
+                    .divide(limit, 1, RoundingMode.HALF_UP).doubleValue();
+            allowed = Boolean.TRUE.equals(row.prePayment())
+                    || outstanding.add(requested).compareTo(limit) <= 0;
+        }
+        return Optional.of(new CreditExposure(row.code(), row.name(), row.creditLimit(), outstanding,
+                available, utilization, row.prePayment(), row.maxTurnDays(), amount, allowed, row.updatedAt()));
+    }
+
+    /**
+     * 2) 거래장 변경분 반영 (호출 측 트랜잭션에 참여)
+     */
+    public void applyLedgerDelta(String hospitalId, BigDecimal delta) {
+        if (delta.signum() == 0) return;
+        balanceRepo.increment(hospitalId, delta);
+    }
+
+    /**
+     * 3) 입금 등록: 입금 내역을 남기고 같은 트랜잭션에서 미수 잔액을 그만큼 줄인 뒤 갱신된 여신 현황 반환
+     * @throws IllegalArgumentException 입금액이 0 이하인 경우
+     */
+    public Optional<CreditExposure> recordPayment(String code, BigDecimal amount, LocalDate paidOn, String memo) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("입금액은 0보다 커야 합니다.");
+        }
+        if (balanceRepo.findByCode(code) == null) return Optional.empty();
+        transactionTemplate.executeWithoutResult(status -> {
+            balanceRepo.insertPayment(code, paidOn, amount, memo);
+            balanceRepo.increment(code, amount.negate());
+        });
+        return check(code, null);
+    }
+
+    /**
+     * 4) 전체 재계산 (이미 실행 중이면 건너뜀)
+     * @return { hospitals, chunks, elapsedMs } 또는 { skipped: true }
+     */
+    public Map<String, Object> recomputeAll() throws InterruptedException {
+        if (!recomputing.compareAndSet(false, true)) {
+            return Map.of("skipped", true);
+        }
+        long started = System.currentTimeMillis();
+        try {
+            List<String> ids = balanceRepo.findLedgerHospitalIds();
+            List<List<String>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                chunks.add(ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE)));
+            }
+
+            AtomicInteger seq = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, chunks.size())), r -> {
+                Thread t = new Thread(r, "credit-recompute-" + seq.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                // 묶음마다 한 트랜잭션 (INSERT ... SELECT 가 원장 행을 공유 잠금하므로 동시 업로드와 섞이지 않음)
+                List<Future<?>> futures = new ArrayList<>(chunks.size());
+                for (List<String> chunk : chunks) {
+                    futures.add(pool.submit(() ->
+                            transactionTemplate.executeWithoutResult(status -> balanceRepo.recompute(chunk))));
+                }
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("여신 잔액 재계산 실패: " + e.getCause().getMessage(), e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+            balanceRepo.deleteOrphans();
+            return Map.of("hospitals", ids.size(), "chunks", chunks.size(),
+                    "elapsedMs", System.currentTimeMillis() - started);
+        } finally {
+            recomputing.set(false);
+        }
+    }
+
+    // 잔액 테이블이 새로 생겼으면 기존 거래장으로 한 번 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() throws InterruptedException {
+        if (balanceRepo.needsBackfill()) {
+            recomputeAll();
+        }
+    }
+
+    // 매일 한 번 원장 합계로 맞춤 (증감 누락 보정)
+    @Scheduled(cron = "${vendors.credit.recompute-cron:0 30 3 * * *}")
+    public void scheduledRecompute() throws InterruptedException {
+        recomputeAll();
+    }
+}
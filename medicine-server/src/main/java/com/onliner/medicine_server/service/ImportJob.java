@@ -0,0 +1,139 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비동기 엑셀 업로드 작업 1건의 상태
+ * - 워커 스레드가 갱신하고 조회 API 가 읽으므로 모든 필드는 스레드 안전하게 유지한다.
+ * - 제출한 사용자(JWT subject)를 기록해 두고, 조회 API 는 본인 작업만 돌려준다.
+ */
+public class ImportJob implements ImportProgress {
+
+    public enum Type { MEDICINE, VENDOR_CLIENT, VENDOR_LEDGER, CREDIT_RECOMPUTE }
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String userId;
+    private final Type type;
+    private final String fileName;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private volatile long errorCount;
+
+    public ImportJob(String id, String userId, Type type, String fileName) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.fileName = fileName;
+    }
+
+    // ======================= ImportProgress =======================
+    @Override
+    public void rowsProcessed(int count) {
+        rowsProcessed.addAndGet(count);
+    }
+
+    @Override
+    public synchronized void error(String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    // ======================= 상태 전이 =======================
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markSucceeded(String message) {
+        this.message = message;
+        finishedAt = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void markFailed(String message) {
+        error(message);
+        this.message = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    // --- Getter ---
+    public String getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getUserId() {
+        return userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    // 초당 처리 행 수 (실행 중이면 현재 시각 기준)
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) return 0.0;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return rowsProcessed.get() * 1000.0 / millis;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized List<String> getErrors() {
+        return List.copyOf(errors);
+    }
+}
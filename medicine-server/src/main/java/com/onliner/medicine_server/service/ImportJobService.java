@@ -0,0 +1,176 @@
+package com.onliner.medicine_server.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 엑셀 업로드 작업 실행기
+ * - 업로드 파일은 요청 스레드에서 임시 파일로 옮긴 뒤 곧바로 작업 id 를 돌려준다.
+ * - 파싱/저장은 크기가 고정된 스레드 풀에서 실행하고, 대기열이 가득 차면 제출을 거절한다.
+ * - 완료된 작업은 최대 maxRetained 건까지만 보관하고 오래된 것부터 제거한다.
+ * - 작업마다 제출한 사용자를 기록하고, 조회/목록은 그 사용자의 작업만 돌려준다.
+ */
+@Service
+@Profile("!render-nodb")
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    @FunctionalInterface
+    public interface ImportTask {
+        // 작업이 끝나면 결과 메시지를 돌려준다
+        String run(File file, ImportProgress progress) throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int maxRetained;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    public ImportJobService(
+            @Value("${import.jobs.threads:2}") int threads,
+            @Value("${import.jobs.queue-capacity:20}") int queueCapacity,
+            @Value("${import.jobs.max-retained:200}") int maxRetained
+    ) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "import-job-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * 1) 작업 제출: 업로드 파일을 임시 파일로 옮기고 바로 반환
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public ImportJob submit(ImportJob.Type type, MultipartFile file, String userId, ImportTask task) throws IOException {
+        String originalName = file.getOriginalFilename();
+        String suffix = originalName != null && originalName.contains(".")
+                ? originalName.substring(originalName.lastIndexOf('.'))
+                : ".xlsx";
+        Path tempFile = Files.createTempFile("import-job-", suffix);
+        file.transferTo(tempFile);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, type, originalName);
+        register(job);
+        try {
+            executor.execute(() -> runJob(job, tempFile, task));
+        } catch (RejectedExecutionException e) {
+            unregister(job.getId());
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * 2) 파일 없이 실행하는 작업 (재계산 등)
+     */
+    public ImportJob submit(ImportJob.Type type, String name, String userId, ImportTask task) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, type, name);
+        register(job);
+        try {
+            executor.execute(() -> runJob(job, null, task));
+        } catch (RejectedExecutionException e) {
+            unregister(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    // 3) 작업 조회 (본인 작업만)
+    public synchronized Optional<ImportJob> find(String id, String userId) {
+        ImportJob job = jobs.get(id);
+        if (job == null || !Objects.equals(job.getUserId(), userId)) return Optional.empty();
+        return Optional.of(job);
+    }
+
+    // 4) 보관 중인 본인 작업 목록 (최근 제출 순)
+    public synchronized List<ImportJob> list(String userId) {
+        List<ImportJob> list = new ArrayList<>();
+        for (ImportJob job : jobs.values()) {
+            if (Objects.equals(job.getUserId(), userId)) list.add(job);
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ======================= 내부 처리 =======================
+    private void runJob(ImportJob job, Path tempFile, ImportTask task) {
+        job.markRunning();
+        try {
+            String message = task.run(tempFile != null ? tempFile.toFile() : null, job);
+            job.markSucceeded(message);
+        } catch (Exception e) {
+            log.warn("import job {} ({}, {}) failed", job.getId(), job.getType(), job.getFileName(), e);
+            job.markFailed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private synchronized void register(ImportJob job) {
+        jobs.put(job.getId(), job);
+        evictFinished();
+    }
+
+    private synchronized void unregister(String id) {
+        jobs.remove(id);
+    }
+
+    // 보관 한도를 넘으면 가장 오래된 완료 작업부터 제거 (실행/대기 중 작업은 유지)
+    private void evictFinished() {
+        Iterator<ImportJob> it = jobs.values().iterator();
+        while (jobs.size() > maxRetained && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+            }
+        }
+    }
+}
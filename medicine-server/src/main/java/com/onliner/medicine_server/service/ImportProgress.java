@@ -0,0 +1,22 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 엑셀 업로드 진행 상황 보고용 콜백
+ * - 동기 업로드는 NONE, 비동기 작업은 ImportJob 이 구현한다.
+ */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+        @Override
+        public void rowsProcessed(int count) { }
+
+        @Override
+        public void error(String message) { }
+    };
+
+    // 청크 저장이 끝날 때마다 처리한 행 수를 더한다
+    void rowsProcessed(int count);
+
+    // 건너뛴 행 등 작업을 멈추지 않는 오류
+    void error(String message);
+}
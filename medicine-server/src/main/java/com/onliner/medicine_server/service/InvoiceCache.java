@@ -0,0 +1,267 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 거래명세서 합성 결과 캐시 (내용 주소 방식)
+ * - 키 = 업로드 파일 SHA-256 + 양식 지문 앞 16자리: 같은 파일을 같은 양식으로 다시 올리면 추출/합성 없이 바로 응답한다.
+ * - {dir}/{키}.pdf (합성 결과 사본) + {dir}/{키}.json (추출 텍스트, 병원명, 주문일, exports 파일명)
+ * - 전체 크기가 max-size-mb 를 넘으면 가장 오래 쓰이지 않은 항목부터 디스크에서 지운다. (LRU)
+ * - 적중 시 json 의 수정 시각을 갱신해 두므로 재기동 후에도 사용 순서가 유지된다.
+ * - exports 파일이 지워졌거나 다른 업로드로 덮어써졌으면 캐시 사본을 새 이름으로 복사해 돌려준다.
+ * - 잠금은 메모리 색인(LRU 순서 / 크기 합계)을 바꿀 때만 잡고, 파일 복사/삭제는 잠금 밖에서 한다.
+ */
+@Component
+public class InvoiceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceCache.class);
+
+    // 캐시 항목 메타데이터 (json 으로 저장)
+    public record Entry(String key, String originalName, String parsedText, String hospitalName, String orderDate,
+                        String pdfFileName, long exportSize, long exportModified) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Path dir;
+    private final Path exportsPath;
+    private final long maxBytes;
+    private final boolean enabled;
+
+    // 키 → 항목 (접근 순서, 가장 앞이 가장 오래 안 쓰인 항목)
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> sizes = new LinkedHashMap<>();
+    private long totalBytes;
+
+    public InvoiceCache(
+            ObjectMapper objectMapper,
+            @Value("${invoices.cache.dir:invoice-cache}") String dir,
+            @Value("${invoices.exports-dir}") String exportsDir,
+            @Value("${invoices.cache.max-size-mb:1024}") long maxSizeMb,
+            @Value("${invoices.cache.enabled:true}") boolean enabled
+    ) {
+        this.objectMapper = objectMapper;
+        this.dir = Paths.get(dir);
+        this.exportsPath = Paths.get(exportsDir).toAbsolutePath().normalize();
+        this.maxBytes = maxSizeMb * 1024L * 1024L;
+        this.enabled = enabled;
+        if (enabled) {
+            loadIndex();
+        }
+    }
+
+    // 합성 결과를 저장하는 exports 디렉터리 (invoices.exports-dir 은 여기서만 읽고, 다른 곳은 이 값을 쓴다)
+    public Path getExportsPath() {
+        return exportsPath;
+    }
+
+    public static String key(String uploadSha256, InvoiceTemplate template) {
+        return uploadSha256 + "-" + template.getFingerprint().substring(0, 16);
+    }
+
+    /**
+     * 1) 조회: 적중하면 exports 에 결과 파일이 있는지 확인(없으면 복원)하고 결과를 돌려준다
+     */
+    public Optional<InvoiceResult> lookup(String key, int index, String originalName) {
+        if (!enabled) return Optional.empty();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) return Optional.empty();
+        // 파일 확인 / 복원 / 수정 시각 갱신은 잠금 밖에서 (다른 키의 조회/저장을 막지 않는다)
+        try {
+            String pdfFileName = entry.pdfFileName();
+            Path exported = exportsPath.resolve(pdfFileName);
+            if (!sameFile(exported, entry)) {
+                Entry restored = restoreExport(entry);
+                synchronized (this) {
+                    // 그 사이 같은 키가 다시 저장/삭제되지 않았을 때만 색인 갱신
+                    if (entries.get(key) == entry) entries.put(key, restored);
+                }
+                pdfFileName = restored.pdfFileName();
+            }
+            Files.setLastModifiedTime(metaPath(key), FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(new InvoiceResult(index, originalName, pdfFileName, entry.parsedText(), null));
+        } catch (IOException e) {
+            // 캐시 파일이 깨졌으면(또는 그 사이 밀려났으면) 항목을 버리고 새로 처리하게 한다
+            log.warn("invoice cache {} ({}): entry dropped: {}", key, originalName, e.toString());
+            remove(key, entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 2) 저장: 합성이 끝난 exports 파일을 캐시 디렉터리로 복사하고 메타데이터 기록
+     */
+    public void store(String key, InvoiceResult result, String hospitalName, String orderDate) {
+        if (!enabled || !result.succeeded()) return;
+        // 같은 키가 이미 있으면 색인에서 먼저 빼고 파일은 덮어쓴다 (복사 중인 사본을 조회가 쓰지 않도록)
+        synchronized (this) {
+            forget(key);
+        }
+        Entry entry;
+        long size;
+        try {
+            if (Files.notExists(dir)) {
+                Files.createDirectories(dir);
+            }
+            Path exported = exportsPath.resolve(result.pdfFileName());
+            Files.copy(exported, pdfPath(key), StandardCopyOption.REPLACE_EXISTING);
+            entry = new Entry(key, result.originalName(), result.parsedText(), hospitalName, orderDate,
+                    result.pdfFileName(), Files.size(exported), Files.getLastModifiedTime(exported).toMillis());
+            objectMapper.writeValue(metaPath(key).toFile(), entry);
+            size = Files.size(pdfPath(key)) + Files.size(metaPath(key));
+        } catch (IOException e) {
+            log.warn("invoice cache {} ({}): store failed: {}", key, result.originalName(), e.toString());
+            deleteFiles(key);
+            return;
+        }
+
+        List<String> evicted;
+        synchronized (this) {
+            put(entry, size);
+            evicted = evict();
+        }
+        evicted.forEach(this::deleteFiles);
+    }
+
+    public synchronized Map<String, Object> stats() {
+        return Map.of("enabled", enabled, "entries", entries.size(),
+                "totalBytes", totalBytes, "maxBytes", maxBytes);
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    // 기동 시 디스크의 항목을 마지막 사용 시각(json 수정 시각) 순으로 읽어 LRU 순서 복원 (생성자에서만 호출)
+    private void loadIndex() {
+        if (!Files.isDirectory(dir)) return;
+        List<Path> metas;
+        try (Stream<Path> files = Files.list(dir)) {
+            metas = new ArrayList<>(files.filter(p -> p.getFileName().toString().endsWith(".json")).toList());
+        } catch (IOException e) {
+            log.warn("invoice cache {}: index not loaded: {}", dir, e.toString());
+            return;
+        }
+        metas.sort(Comparator.comparingLong(InvoiceCache::modifiedMillis));
+        for (Path meta : metas) {
+            try {
+                Entry entry = objectMapper.readValue(meta.toFile(), Entry.class);
+                if (Files.exists(pdfPath(entry.key()))) {
+                    put(entry, Files.size(pdfPath(entry.key())) + Files.size(meta));
+                    continue;
+                }
+            } catch (IOException e) {
+                log.warn("invoice cache {}: unreadable entry removed: {}", meta.getFileName(), e.toString());
+            }
+            try {
+                Files.deleteIfExists(meta);
+            } catch (IOException ignored) {}
+        }
+        evict().forEach(this::deleteFiles);
+    }
+
+    // 아래 색인 메서드(put / evict / forget)는 잠금 안에서만 호출하고 파일은 건드리지 않는다
+    private void put(Entry entry, long size) {
+        entries.put(entry.key(), entry);
+        sizes.put(entry.key(), size);
+        totalBytes += size;
+    }
+
+    // 한도를 넘은 만큼 오래된 항목을 색인에서 빼고, 지울 키 목록을 돌려준다
+    private List<String> evict() {
+        List<String> evicted = new ArrayList<>();
+        Iterator<String> it = entries.keySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            String key = it.next();
+            it.remove();
+            Long size = sizes.remove(key);
+            if (size != null) totalBytes -= size;
+            evicted.add(key);
+        }
+        return evicted;
+    }
+
+    private void forget(String key) {
+        entries.remove(key);
+        Long size = sizes.remove(key);
+        if (size != null) totalBytes -= size;
+    }
+
+    // 조회한 항목이 아직 색인에 그대로 있을 때만 지운다 (그 사이 새로 저장된 항목은 남김)
+    private void remove(String key, Entry expected) {
+        synchronized (this) {
+            if (entries.get(key) != expected) return;
+            forget(key);
+        }
+        deleteFiles(key);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(pdfPath(key));
+            Files.deleteIfExists(metaPath(key));
+        } catch (IOException e) {
+            log.warn("invoice cache {}: delete failed: {}", key, e.toString());
+        }
+    }
+
+    // exports 파일이 저장 당시 그대로인지 (크기 + 수정 시각)
+    private static boolean sameFile(Path exported, Entry entry) throws IOException {
+        return Files.exists(exported)
+                && Files.size(exported) == entry.exportSize()
+                && Files.getLastModifiedTime(exported).toMillis() == entry.exportModified();
+    }
+
+    // 원래 이름은 다른 업로드가 쓰고 있을 수 있으므로 키 앞부분을 붙인 새 이름으로 복원 (색인 갱신은 호출한 쪽에서)
+    private Entry restoreExport(Entry entry) throws IOException {
+        String base = entry.pdfFileName().endsWith(".pdf")
+                ? entry.pdfFileName().substring(0, entry.pdfFileName().length() - 4)
+                : entry.pdfFileName();
+        String restoredName = base + "_" + entry.key().substring(0, 12) + ".pdf";
+        if (Files.notExists(exportsPath)) {
+            Files.createDirectories(exportsPath);
+        }
+        Path restored = exportsPath.resolve(restoredName);
+        Files.copy(pdfPath(entry.key()), restored, StandardCopyOption.REPLACE_EXISTING);
+
+        Entry updated = new Entry(entry.key(), entry.originalName(), entry.parsedText(), entry.hospitalName(),
+                entry.orderDate(), restoredName, Files.size(restored), Files.getLastModifiedTime(restored).toMillis());
+        objectMapper.writeValue(metaPath(entry.key()).toFile(), updated);
+        return updated;
+    }
+
+    private Path pdfPath(String key) {
+        return dir.resolve(key + ".pdf");
+    }
+
+    private Path metaPath(String key) {
+        return dir.resolve(key + ".json");
+    }
+
+    private static long modifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 비동기 거래명세서 처리 작업 1건 (업로드 묶음 하나)
+ * - 파이프라인 스레드가 파일별 결과를 채우고 조회 API 가 읽으므로 결과 접근은 synchronized 로 묶는다.
+ * - results 는 업로드 순서대로, 아직 끝나지 않은 파일은 null
+ */
+public class InvoiceJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id;
+    private final String userId;
+    private final Instant submittedAt = Instant.now();
+    private final InvoiceResult[] results;
+
+    private volatile Instant finishedAt;
+    private final int total;
+    private int completed;
+    private int failed;
+
+    /**
+     * @param capacity 업로드된 파트 수 (결과 index 범위)
+     * @param total    실제로 처리할 파일 수 (빈 파일 제외)
+     */
+    public InvoiceJob(String id, String userId, int capacity, int total) {
+        this.id = id;
+        this.userId = userId;
+        this.results = new InvoiceResult[capacity];
+        this.total = total;
+    }
+
+    // ======================= 파이프라인에서 호출 =======================
+    // 파일 하나 완료 → 작업 전체가 끝났으면 true
+    synchronized boolean complete(InvoiceResult result) {
+        results[result.index()] = result;
+        completed++;
+        if (!result.succeeded()) failed++;
+        if (completed >= total) {
+            finishedAt = Instant.now();
+            return true;
+        }
+        return false;
+    }
+
+    // ======================= 조회 =======================
+    public synchronized Status getStatus() {
+        if (completed == 0) return Status.QUEUED;
+        if (completed < total) return Status.RUNNING;
+        return failed == total ? Status.FAILED : Status.SUCCEEDED;
+    }
+
+    public synchronized boolean isFinished() {
+        return completed >= total;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public String getUserId() {
+        return userId;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    public synchronized int getFailed() {
+        return failed;
+    }
+
+    // 끝난 파일만 업로드 순서대로 (기존 다중 업로드 응답의 files[] 항목 형식)
+    public synchronized List<Map<String, Object>> getResults() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (InvoiceResult result : results) {
+            if (result != null) list.add(result.toMap());
+        }
+        return list;
+    }
+}
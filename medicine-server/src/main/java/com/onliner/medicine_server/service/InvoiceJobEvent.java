@@ -0,0 +1,38 @@
+package com.onliner.medicine_server.service;
+
+import java.time.Instant;
+
+/**
+ * 거래명세서 작업 진행 이벤트 (업로드한 사용자에게 WebSocket 으로 전송)
+ * - INVOICE_FILE: 파일 하나 완료 (성공이면 pdfUrl, 실패면 error)
+ * - INVOICE_JOB: 작업 전체 완료
+ */
+public record InvoiceJobEvent(
+        String type,
+        String jobId,
+        Integer index,
+        String originalName,
+        String pdfUrl,
+        String pdfFileName,
+        String error,
+        int completed,
+        int failed,
+        int total,
+        InvoiceJob.Status status,
+        String timestamp
+) {
+
+    public static final String TYPE_FILE = "INVOICE_FILE";
+    public static final String TYPE_JOB = "INVOICE_JOB";
+
+    public static InvoiceJobEvent file(InvoiceJob job, InvoiceResult result) {
+        return new InvoiceJobEvent(TYPE_FILE, job.getId(), result.index(), result.originalName(),
+                result.pdfUrl(), result.pdfFileName(), result.error(),
+                job.getCompleted(), job.getFailed(), job.getTotal(), job.getStatus(), Instant.now().toString());
+    }
+
+    public static InvoiceJobEvent finished(InvoiceJob job) {
+        return new InvoiceJobEvent(TYPE_JOB, job.getId(), null, null, null, null, null,
+                job.getCompleted(), job.getFailed(), job.getTotal(), job.getStatus(), Instant.now().toString());
+    }
+}
@@ -0,0 +1,306 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.service.InvoiceProcessingService.Extracted;
+import com.onliner.medicine_server.service.InvoiceProcessingService.InvoiceDocument;
+import com.onliner.medicine_server.service.InvoiceProcessingService.Staged;
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import com.onliner.medicine_server.websocket.ChatWebSocketHandler;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비동기 거래명세서 처리 파이프라인
+ * - 접수(요청 스레드: 임시 파일 복사) → 추출 워커(파싱 1회 + 텍스트/병원명/주문일) → 합성 워커(같은 문서에 양식 합성) → 발행(결과 기록 + WebSocket)
+ * - 단계 사이는 크기가 정해진 큐로 연결해, 뒤 단계가 밀리면 앞 단계 워커가 put 에서 기다린다. (backpressure)
+ * - 접수 큐에 배치 전체가 들어갈 자리가 없으면 바로 거절(503)하고, 요청은 작업 id 만 받아 즉시 끝난다.
+ * - 파일 하나가 끝날 때마다 업로드한 사용자(JWT subject)의 WebSocket 연결로 INVOICE_FILE 이벤트를 보낸다.
+ * - 추출 워커는 먼저 업로드 SHA-256 으로 결과 캐시를 확인하고, 적중하면 바로 발행 단계로 넘긴다.
+ * - 워커 수는 CPU 코어 수 기준이며, 메모리 예산은 파싱된 문서가 열려 있는 동안 잡혀 있다. (합성 워커가 닫을 때 반환)
+ */
+@Service
+public class InvoicePipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePipeline.class);
+
+    private record IngestItem(InvoiceJob job, InvoiceTemplate template, String suffix, Staged staged) {
+    }
+
+    private record OverlayItem(InvoiceJob job, InvoiceTemplate template, Extracted extracted) {
+    }
+
+    private record PublishItem(InvoiceJob job, Staged staged, InvoiceResult result) {
+    }
+
+    // 큐 깊이 / 워커 사용량 (GET /api/invoices/jobs/stats)
+    public record Stats(int ingestQueued, int ingestCapacity,
+                        int overlayQueued, int overlayCapacity,
+                        int publishQueued,
+                        int extractWorkers, int extractActive,
+                        int overlayWorkers, int overlayActive,
+                        int jobsRunning, long filesCompleted) {
+    }
+
+    private final InvoiceProcessingService processing;
+    private final InvoiceTemplateRegistry templateRegistry;
+    private final ChatWebSocketHandler webSocketHandler;
+    private final int maxRetained;
+
+    private final BlockingQueue<IngestItem> ingestQueue;
+    private final BlockingQueue<OverlayItem> overlayQueue;
+    // 발행은 가볍고 앞 단계를 막으면 안 되므로 크기 제한 없음 (앞 두 큐가 전체 건수를 이미 제한)
+    private final BlockingQueue<PublishItem> publishQueue = new LinkedBlockingQueue<>();
+
+    private final int extractWorkers;
+    private final int overlayWorkers;
+    private final AtomicInteger extractActive = new AtomicInteger();
+    private final AtomicInteger overlayActive = new AtomicInteger();
+    private final AtomicLong filesCompleted = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<>();
+    private final Map<String, InvoiceJob> jobs = new LinkedHashMap<>();
+
+    public InvoicePipeline(
+            InvoiceProcessingService processing,
+            InvoiceTemplateRegistry templateRegistry,
+            ChatWebSocketHandler webSocketHandler,
+            @Value("${invoices.pipeline.extract-threads:0}") int extractThreads,
+            @Value("${invoices.pipeline.overlay-threads:0}") int overlayThreads,
+            @Value("${invoices.pipeline.ingest-capacity:200}") int ingestCapacity,
+            @Value("${invoices.pipeline.stage-capacity:16}") int stageCapacity,
+            @Value("${invoices.pipeline.max-retained:100}") int maxRetained
+    ) {
+        this.processing = processing;
+        this.templateRegistry = templateRegistry;
+        this.webSocketHandler = webSocketHandler;
+        this.maxRetained = maxRetained;
+        this.ingestQueue = new ArrayBlockingQueue<>(ingestCapacity);
+        this.overlayQueue = new ArrayBlockingQueue<>(stageCapacity);
+
+        // 합성이 추출보다 무거우므로 기본값은 추출 = 코어/2, 합성 = 코어
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.extractWorkers = extractThreads > 0 ? extractThreads : Math.max(1, cores / 2);
+        this.overlayWorkers = overlayThreads > 0 ? overlayThreads : cores;
+        startWorkers("invoice-extract-", extractWorkers, this::extractLoop);
+        startWorkers("invoice-overlay-", overlayWorkers, this::overlayLoop);
+        startWorkers("invoice-publish-", 1, this::publishLoop);
+    }
+
+    /**
+     * 1) 작업 접수: 파일을 임시 파일로 옮겨 접수 큐에 넣고 바로 반환
+     * @throws IllegalArgumentException   처리할 파일이 없는 경우
+     * @throws RejectedExecutionException 접수 큐에 배치 전체가 들어갈 자리가 없는 경우
+     */
+    public InvoiceJob submit(MultipartFile[] files, String vendor, String template, String userId) {
+        int total = 0;
+        for (MultipartFile file : files) {
+            if (!file.isEmpty()) total++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("업로드할 파일이 없습니다.");
+        }
+        if (ingestQueue.remainingCapacity() < total) {
+            throw new RejectedExecutionException("invoice ingest queue is full");
+        }
+
+        InvoiceTemplate invoiceTemplate = templateRegistry.resolve(vendor, template);
+        InvoiceJob job = new InvoiceJob(UUID.randomUUID().toString(), userId, files.length, total);
+        register(job);
+
+        long batchMillis = System.currentTimeMillis();
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            if (file.isEmpty()) continue;
+            Staged staged = null;
+            try {
+                staged = processing.stage(i, file);
+                String suffix = "_" + batchMillis + "_" + (i + 1);
+                // 검사 이후 다른 요청이 자리를 채운 경우에는 이 파일만 실패로 기록
+                if (!ingestQueue.offer(new IngestItem(job, invoiceTemplate, suffix, staged))) {
+                    publish(job, staged, InvoiceResult.failed(i, file.getOriginalFilename(),
+                            "처리 대기열이 가득 찼습니다."));
+                }
+            } catch (Exception e) {
+                logFailure("stage", job, file.getOriginalFilename(), e);
+                publish(job, staged, InvoiceResult.failed(i, file.getOriginalFilename(),
+                        InvoiceProcessingService.errorMessage(e)));
+            }
+        }
+        return job;
+    }
+
+    /**
+     * 2) 작업 조회 (본인 작업만)
+     */
+    public synchronized Optional<InvoiceJob> find(String id, String userId) {
+        InvoiceJob job = jobs.get(id);
+        if (job == null || !Objects.equals(job.getUserId(), userId)) return Optional.empty();
+        return Optional.of(job);
+    }
+
+    /**
+     * 3) 큐 깊이 / 워커 사용량
+     */
+    public Stats stats() {
+        int running;
+        synchronized (this) {
+            running = (int) jobs.values().stream().filter(job -> !job.isFinished()).count();
+        }
+        return new Stats(
+                ingestQueue.size(), ingestQueue.size() + ingestQueue.remainingCapacity(),
+                overlayQueue.size(), overlayQueue.size() + overlayQueue.remainingCapacity(),
+                publishQueue.size(),
+                extractWorkers, extractActive.get(),
+                overlayWorkers, overlayActive.get(),
+                running, filesCompleted.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threads.forEach(Thread::interrupt);
+    }
+
+    // ======================= 단계별 워커 =======================
+    private void extractLoop() throws InterruptedException {
+        IngestItem item = ingestQueue.take();
+        Staged staged = item.staged();
+        extractActive.incrementAndGet();
+        InvoiceDocument doc = null;
+        try {
+            // 같은 내용 + 양식의 결과가 캐시에 있으면 파싱/합성 없이 바로 발행
+            Optional<InvoiceResult> hit = processing.cached(staged.sha256(), item.template(),
+                    staged.index(), staged.originalName());
+            if (hit.isPresent()) {
+                publish(item.job(), staged, hit.get());
+                return;
+            }
+            // 임시 파일은 여기서 한 번 읽고 지운다 (이후 단계는 파싱된 문서만 사용)
+            doc = processing.open(staged);
+            Extracted extracted = processing.extract(doc, item.suffix());
+            // 합성 큐가 가득 차면 여기서 기다린다
+            overlayQueue.put(new OverlayItem(item.job(), item.template(), extracted));
+            doc = null;
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            logFailure("extract", item.job(), staged.originalName(), e);
+            publish(item.job(), staged, InvoiceResult.failed(staged.index(), staged.originalName(),
+                    InvoiceProcessingService.errorMessage(e)));
+        } finally {
+            closeQuietly(doc);
+            extractActive.decrementAndGet();
+        }
+    }
+
+    private void overlayLoop() throws InterruptedException {
+        OverlayItem item = overlayQueue.take();
+        InvoiceDocument doc = item.extracted().document();
+        overlayActive.incrementAndGet();
+        try {
+            publish(item.job(), null, processing.overlay(item.extracted(), item.template()));
+        } catch (Exception e) {
+            logFailure("overlay", item.job(), doc.originalName(), e);
+            publish(item.job(), null, InvoiceResult.failed(doc.index(), doc.originalName(),
+                    InvoiceProcessingService.errorMessage(e)));
+        } finally {
+            closeQuietly(doc);
+            overlayActive.decrementAndGet();
+        }
+    }
+
+    // (접수 단계에서 실패한 파일의) 임시 파일 정리 → 결과 기록 → 업로드한 사용자에게 이벤트 전송
+    private void publishLoop() throws InterruptedException {
+        PublishItem item = publishQueue.take();
+        if (item.staged() != null) {
+            processing.discard(item.staged());
+        }
+        InvoiceJob job = item.job();
+        boolean finished = job.complete(item.result());
+        filesCompleted.incrementAndGet();
+        try {
+            webSocketHandler.sendToUser(job.getUserId(), InvoiceJobEvent.file(job, item.result()));
+            if (finished) {
+                webSocketHandler.sendToUser(job.getUserId(), InvoiceJobEvent.finished(job));
+            }
+        } catch (RuntimeException e) {
+            // 연결이 끊긴 경우 등: 결과는 작업 조회로 확인할 수 있으므로 경고만 남긴다
+            log.warn("invoice job {}: event for {} not delivered: {}",
+                    job.getId(), item.result().originalName(), e.toString());
+        }
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    @FunctionalInterface
+    private interface WorkerStep {
+        void run() throws InterruptedException;
+    }
+
+    private void startWorkers(String prefix, int count, WorkerStep step) {
+        for (int i = 1; i <= count; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        step.run();
+                    }
+                } catch (InterruptedException ignored) {
+                    // 종료
+                }
+            }, prefix + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+    }
+
+    // 문서를 닫아 메모리 예산 반환
+    private static void closeQuietly(InvoiceDocument doc) {
+        if (doc == null) return;
+        try {
+            doc.close();
+        } catch (IOException e) {
+            log.warn("invoice {}: close failed: {}", doc.originalName(), e.toString());
+        }
+    }
+
+    // 손상된 PDF / 디스크 오류 같은 입출력 실패는 결과에 사유가 남으므로 한 줄만, 그 밖의 예외는 스택까지 남긴다
+    private static void logFailure(String stage, InvoiceJob job, String fileName, Exception e) {
+        if (e instanceof IOException) {
+            log.warn("invoice job {}: {} failed for {}: {}", job.getId(), stage, fileName, e.toString());
+        } else {
+            log.error("invoice job {}: {} failed for {}", job.getId(), stage, fileName, e);
+        }
+    }
+
+    // 발행 큐는 크기 제한이 없으므로 add 가 막히지 않는다
+    private void publish(InvoiceJob job, Staged staged, InvoiceResult result) {
+        publishQueue.add(new PublishItem(job, staged, result));
+    }
+
+    private synchronized void register(InvoiceJob job) {
+        jobs.put(job.getId(), job);
+        Iterator<InvoiceJob> it = jobs.values().iterator();
+        while (jobs.size() > maxRetained && it.hasNext()) {
+            if (it.next().isFinished()) {
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import com.onliner.medicine_server.util.PdfUtil;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 거래명세서 PDF 처리 (복사 → 텍스트 추출 → 병원명/주문일 추출 → 양식 합성)
+ * - 같은 내용(SHA-256)을 같은 양식으로 다시 올리면 InvoiceCache 의 결과를 그대로 돌려준다.
+ *   (업로드를 임시 파일로 복사하면서 해시를 한 번 계산해 캐시를 확인하고, 적중하면 메모리 예산/파싱 없이 끝난다)
+ * - 업로드마다 PDDocument 를 한 번만 파싱해 텍스트 추출과 양식 합성에 같이 쓴다.
+ * - 단계별 메서드(open / extract / overlay)는 비동기 파이프라인(InvoicePipeline)에서도 그대로 쓴다.
+ * - 다중 업로드는 파일별 작업을 크기가 고정된 스레드 풀에 나눠 실행하고, 결과는 업로드 순서대로 돌려준다.
+ * - 동시에 처리 중인 파일의 예상 메모리 합이 memory-budget-mb 를 넘지 않도록 세마포어(MB 단위)로 제한한다.
+ * - 대기열이 가득 차면 요청 스레드가 직접 처리하므로(CallerRuns) 큰 배치도 거절 없이 속도만 조절된다.
+ * - 한 파일이 실패해도 나머지는 계속 처리하고, 실패 사유는 결과에 남긴다.
+ */
+@Service
+public class InvoiceProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceProcessingService.class);
+
+    // 파싱/합성에 드는 메모리 추정치: 고정 MB + 파일 크기 배수
+    private static final int BASE_MB = 16;
+    private static final int SIZE_FACTOR = 6;
+    private static final long MB = 1024L * 1024L;
+
+    private final InvoiceTemplateRegistry templateRegistry;
+    private final InvoiceCache invoiceCache;
+    private final Path uploadDir;
+    private final Path exportsPath;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore memoryBudget;
+    private final int budgetMb;
+    private final long maxMainMemoryBytes;
+    private final long maxStorageBytes;
+    private final AtomicLong singleUploadSeq = new AtomicLong();
+
+    public InvoiceProcessingService(
+            InvoiceTemplateRegistry templateRegistry,
+            InvoiceCache invoiceCache,
+            @Value("${spring.servlet.multipart.location}") String uploadDir,
+            @Value("${invoices.processing.threads:0}") int threads,
+            @Value("${invoices.processing.queue-capacity:100}") int queueCapacity,
+            @Value("${invoices.processing.memory-budget-mb:512}") int budgetMb,
+            @Value("${invoices.processing.max-main-memory-mb:32}") int maxMainMemoryMb,
+            @Value("${invoices.processing.max-storage-mb:256}") int maxStorageMb
+    ) {
+        this.templateRegistry = templateRegistry;
+        this.invoiceCache = invoiceCache;
+        this.uploadDir = Paths.get(uploadDir);
+        this.exportsPath = invoiceCache.getExportsPath();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "invoice-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.budgetMb = Math.max(BASE_MB, budgetMb);
+        this.memoryBudget = new Semaphore(this.budgetMb, true);
+        this.maxMainMemoryBytes = Math.max(1, maxMainMemoryMb) * MB;
+        this.maxStorageBytes = Math.max(maxMainMemoryMb, maxStorageMb) * MB;
+    }
+
+    public Path getExportsPath() {
+        return exportsPath;
+    }
+
+    /**
+     * 1) 단건 처리 (요청 스레드에서 실행, 실패는 예외로)
+     */
+    public InvoiceResult processOne(MultipartFile file, String vendor, String template) throws IOException {
+        // 같은 병원/날짜 명세서를 연달아 올려도 앞의 결과를 덮어쓰지 않도록 업로드마다 다른 접미사를 붙인다
+        String suffix = "_" + System.currentTimeMillis() + "_" + singleUploadSeq.incrementAndGet();
+        return process(0, file, suffix, templateRegistry.resolve(vendor, template));
+    }
+
+    /**
+     * 2) 다중 처리: 병렬 실행 후 업로드 순서대로 결과 반환 (빈 파일은 건너뜀)
+     */
+    public List<InvoiceResult> processAll(MultipartFile[] files, String vendor, String template) {
+        InvoiceTemplate invoiceTemplate = templateRegistry.resolve(vendor, template);
+        long batchMillis = System.currentTimeMillis();
+
+        List<Future<InvoiceResult>> futures = new ArrayList<>(files.length);
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            if (file.isEmpty()) continue;
+            int index = i;
+            // 같은 병원/날짜가 같은 배치에 여러 번 나와도 파일명이 겹치지 않도록 순번을 붙인다
+            String suffix = "_" + batchMillis + "_" + (index + 1);
+            futures.add(executor.submit(() -> {
+                try {
+                    return process(index, file, suffix, invoiceTemplate);
+                } catch (IOException e) {
+                    // 손상된 PDF 등: 사유는 결과에 남으므로 스택은 찍지 않는다
+                    log.warn("invoice {} (#{}) failed: {}", file.getOriginalFilename(), index, e.toString());
+                    return InvoiceResult.failed(index, file.getOriginalFilename(), errorMessage(e));
+                } catch (Exception e) {
+                    log.error("invoice {} (#{}) failed", file.getOriginalFilename(), index, e);
+                    return InvoiceResult.failed(index, file.getOriginalFilename(), errorMessage(e));
+                }
+            }));
+        }
+
+        List<InvoiceResult> results = new ArrayList<>(futures.size());
+        for (Future<InvoiceResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("거래명세서 처리가 중단되었습니다.", e);
+            } catch (ExecutionException e) {
+                // 작업 안에서 모든 예외를 결과로 바꾸므로 여기까지 오지 않는다
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ======================= 단계별 처리 (InvoicePipeline 도 같이 사용) =======================
+    // 업로드 파일을 임시 파일로 옮긴 상태 (복사하면서 계산한 SHA-256 을 캐시 조회와 결과 저장에 같이 쓴다)
+    public record Staged(int index, String originalName, Path tempFile, long size, String sha256) {
+    }
+
+    // 텍스트 / 병원명 / 주문일까지 뽑은 상태 (문서는 합성 단계에서 그대로 다시 쓴다)
+    public record Extracted(InvoiceDocument document, String parsedText, String hospitalName, String orderDate,
+                            String finalFilename) {
+    }
+
+    /**
+     * 한 번만 파싱한 업로드 문서: 텍스트 추출과 양식 합성이 같은 PDDocument 를 쓴다.
+     * close 하면 문서를 닫고 잡아 둔 메모리 예산을 돌려준다.
+     */
+    public static final class InvoiceDocument implements Closeable {
+        private final int index;
+        private final String originalName;
+        private final String sha256;
+        private final PDDocument document;
+        private final Runnable release;
+
+        private InvoiceDocument(int index, String originalName, String sha256, PDDocument document, Runnable release) {
+            this.index = index;
+            this.originalName = originalName;
+            this.sha256 = sha256;
+            this.document = document;
+            this.release = release;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String originalName() {
+            return originalName;
+        }
+
+        // 업로드 내용 SHA-256 (stage 에서 복사하면서 계산)
+        public String sha256() {
+            return sha256;
+        }
+
+        public PDDocument document() {
+            return document;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                document.close();
+            } finally {
+                release.run();
+            }
+        }
+    }
+
+    /**
+     * 0단계) 임시 파일로 복사 (파이프라인은 요청이 끝나면 MultipartFile 을 읽을 수 없으므로 요청 스레드에서 호출)
+     */
+    public Staged stage(int index, MultipartFile file) throws IOException {
+        String originalName = Objects.requireNonNull(file.getOriginalFilename());
+        if (Files.notExists(uploadDir)) {
+            Files.createDirectories(uploadDir);
+        }
+        Path tempFilePath = uploadDir.resolve(UUID.randomUUID() + "_" + originalName);
+        // 복사하면서 SHA-256 도 같이 계산 (캐시 조회용, 추가 읽기 없음)
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), sha256Digest())) {
+            Files.copy(in, tempFilePath, StandardCopyOption.REPLACE_EXISTING);
+            return new Staged(index, originalName, tempFilePath, file.getSize(),
+                    HexFormat.of().formatHex(in.getMessageDigest().digest()));
+        }
+    }
+
+    /**
+     * 캐시 조회: 같은 내용 + 같은 양식으로 이미 만든 결과가 있으면 바로 반환
+     */
+    public Optional<InvoiceResult> cached(String sha256, InvoiceTemplate template, int index, String originalName) {
+        return invoiceCache.lookup(InvoiceCache.key(sha256, template), index, originalName);
+    }
+
+    /**
+     * 1단계) 임시 파일을 한 번 읽어 파싱한 뒤 바로 지운다 (해시는 stage 에서 이미 계산)
+     */
+    public InvoiceDocument open(Staged staged) throws IOException {
+        try {
+            return parse(staged);
+        } finally {
+            discard(staged);
+        }
+    }
+
+    /**
+     * 2단계) 텍스트 추출 → 병원명 / 주문일 → 저장할 파일명
+     */
+    public Extracted extract(InvoiceDocument doc, String suffix) throws IOException {
+        String parsedText = PdfUtil.parseAndDedupeText(doc.document());
+        String hospitalName = PdfUtil.extractHospitalName(parsedText, doc.originalName());
+        String orderDate = PdfUtil.extractOrderDate(parsedText);
+
+        String safeHosp = hospitalName.replaceAll("[^가-힣a-zA-Z0-9_-]", "");
+        return new Extracted(doc, parsedText, hospitalName, orderDate, safeHosp + "_" + orderDate + suffix + ".pdf");
+    }
+
+    /**
+     * 3단계) 양식 합성 후 exports 에 저장 (문서는 호출한 쪽에서 닫는다)
+     */
+    public InvoiceResult overlay(Extracted extracted, InvoiceTemplate template) throws IOException {
+        InvoiceDocument doc = extracted.document();
+        if (Files.notExists(exportsPath)) {
+            Files.createDirectories(exportsPath);
+        }
+        Path finalPdfPath = exportsPath.resolve(extracted.finalFilename());
+        PdfUtil.overlayTemplate(template, doc.document(), finalPdfPath.toString());
+        InvoiceResult result = new InvoiceResult(doc.index(), doc.originalName(), extracted.finalFilename(),
+                extracted.parsedText(), null);
+        invoiceCache.store(InvoiceCache.key(doc.sha256(), template), result,
+                extracted.hospitalName(), extracted.orderDate());
+        return result;
+    }
+
+    // 임시 파일 정리
+    public void discard(Staged staged) {
+        try {
+            Files.deleteIfExists(staged.tempFile());
+        } catch (IOException ignored) {}
+    }
+
+    // 업로드는 임시 파일로 복사하면서 해시를 한 번만 계산해 캐시를 확인하고,
+    // 적중하면 메모리 예산을 잡거나 파싱하지 않는다 (놓치면 임시 파일을 파싱, 해시는 다시 계산하지 않음)
+    private InvoiceResult process(int index, MultipartFile file, String suffix, InvoiceTemplate template) throws IOException {
+        Staged staged = stage(index, file);
+        Optional<InvoiceResult> hit = cached(staged.sha256(), template, index, staged.originalName());
+        if (hit.isPresent()) {
+            discard(staged);
+            return hit.get();
+        }
+        try (InvoiceDocument doc = open(staged)) {
+            return overlay(extract(doc, suffix), template);
+        }
+    }
+
+    // 예상 메모리만큼 예산을 잡고 파싱, 예산은 문서를 닫을 때 돌려준다
+    // 문서 버퍼는 max-main-memory-mb 까지만 힙에 두고 넘는 부분은 uploadDir 의 스크래치 파일로 내린다 (합계 max-storage-mb 까지)
+    private InvoiceDocument parse(Staged staged) throws IOException {
+        int permits = estimateMb(staged.size());
+        try {
+            memoryBudget.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("거래명세서 처리가 중단되었습니다.", e);
+        }
+        try (InputStream in = Files.newInputStream(staged.tempFile())) {
+            if (Files.notExists(uploadDir)) {
+                Files.createDirectories(uploadDir);
+            }
+            MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(maxMainMemoryBytes, maxStorageBytes)
+                    .setTempDir(uploadDir.toFile());
+            PDDocument document = PDDocument.load(in, memory);
+            return new InvoiceDocument(staged.index(), staged.originalName(), staged.sha256(), document,
+                    () -> memoryBudget.release(permits));
+        } catch (IOException | RuntimeException e) {
+            memoryBudget.release(permits);
+            throw e;
+        }
+    }
+
+    // 예산보다 큰 파일도 예산 전체를 잡고 단독으로는 처리되게 한다
+    private int estimateMb(long bytes) {
+        long mb = BASE_MB + (bytes * SIZE_FACTOR + MB - 1) / MB;
+        return (int) Math.min(budgetMb, mb);
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String errorMessage(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,38 @@
+package com.onliner.medicine_server.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 거래명세서 한 건 처리 결과 (실패 시 error 만 채워짐)
+ * @param index 업로드 순서 (0부터)
+ */
+public record InvoiceResult(int index, String originalName, String pdfFileName, String parsedText, String error) {
+
+    public static InvoiceResult failed(int index, String originalName, String error) {
+        return new InvoiceResult(index, originalName, null, null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+
+    public String pdfUrl() {
+        return pdfFileName == null ? null : "/exports/" + pdfFileName;
+    }
+
+    // 기존 응답 형식 (files[] 항목 / failed[] 항목)
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("originalName", originalName);
+        if (succeeded()) {
+            map.put("pdfUrl", pdfUrl());
+            map.put("parsedText", parsedText);
+            map.put("pdfFileName", pdfFileName);
+        } else {
+            map.put("index", index);
+            map.put("error", error);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,182 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 거래명세서 양식 레지스트리
+ * - 양식은 기동 시 한 번 읽어 파싱해 두고, 요청 처리 중에는 파일을 읽지 않는다.
+ * - 업체별 양식은 {invoices.templates.dir}/{업체코드}/{양식이름}.pdf 에 두고, 디렉터리 바로 아래 파일은 공통(default) 양식이다.
+ * - reload-interval 마다 수정 시각/크기만 비교해 바뀐 파일만 다시 파싱한다.
+ *   디렉터리를 읽지 못한 업체는 이번 회차에서 건드리지 않고 기존 양식을 그대로 둔다.
+ * - 교체/삭제된 양식은 닫지 않고 참조만 놓는다. 큐에 남은 작업이 끝날 때까지 그대로 쓸 수 있고,
+ *   양식은 메모리에만 올라가 있어(파일 핸들 / 스크래치 파일 없음) 마지막 참조가 사라지면 GC 가 회수한다.
+ * - 찾는 순서: 업체/이름 → 업체/default → 공통/이름 → 공통/default → 클래스패스 기본 양식
+ */
+@Component
+public class InvoiceTemplateRegistry {
+
+    public static final String DEFAULT = "default";
+    private static final String CLASSPATH_TEMPLATE = "templates/거래명세서_양식.pdf";
+    private static final Logger log = LoggerFactory.getLogger(InvoiceTemplateRegistry.class);
+
+    private final Path baseDir;
+    private final InvoiceTemplate classpathTemplate;
+
+    // "업체/이름" → 파싱된 양식
+    private final Map<String, Loaded> templates = new ConcurrentHashMap<>();
+
+    public InvoiceTemplateRegistry(@Value("${invoices.templates.dir:invoice-templates}") String dir) throws IOException {
+        this.baseDir = Paths.get(dir);
+        try (InputStream in = new ClassPathResource(CLASSPATH_TEMPLATE).getInputStream()) {
+            this.classpathTemplate = InvoiceTemplate.load("classpath:" + CLASSPATH_TEMPLATE, in.readAllBytes());
+        }
+    }
+
+    // 기동 시 첫 로드 (생성자에서 재정의 가능한 reload 를 부르지 않도록 빈 초기화 이후에 실행)
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * 1) 업체 코드 / 양식 이름으로 양식 찾기 (둘 다 생략 가능)
+     */
+    public InvoiceTemplate resolve(String vendor, String name) {
+        String v = normalize(vendor);
+        String n = normalize(name);
+        for (String key : new String[]{key(v, n), key(v, DEFAULT), key(DEFAULT, n), key(DEFAULT, DEFAULT)}) {
+            Loaded loaded = templates.get(key);
+            if (loaded != null) return loaded.template;
+        }
+        return classpathTemplate;
+    }
+
+    /**
+     * 2) 등록된 양식 목록 (업체 → 양식 이름들)
+     */
+    public Map<String, List<String>> list() {
+        Map<String, List<String>> result = new TreeMap<>();
+        for (String key : templates.keySet()) {
+            int slash = key.indexOf('/');
+            result.computeIfAbsent(key.substring(0, slash), k -> new ArrayList<>()).add(key.substring(slash + 1));
+        }
+        result.values().forEach(names -> names.sort(null));
+        return result;
+    }
+
+    /**
+     * 3) 디렉터리를 다시 훑어 바뀐 양식만 교체 (hot reload)
+     */
+    @Scheduled(fixedDelayString = "${invoices.templates.reload-interval-ms:10000}",
+            initialDelayString = "${invoices.templates.reload-interval-ms:10000}")
+    public synchronized void reload() {
+        Map<String, Path> found = new HashMap<>();
+        // 목록을 읽지 못한 업체 (해당 업체의 기존 양식은 지우지 않음)
+        Set<String> unreadable = new HashSet<>();
+        if (Files.isDirectory(baseDir)) {
+            scan(baseDir, DEFAULT, found, unreadable);
+            try (Stream<Path> vendors = listDir(baseDir)) {
+                vendors.filter(Files::isDirectory)
+                        .forEach(dir -> scan(dir, normalize(dir.getFileName().toString()), found, unreadable));
+            } catch (IOException | UncheckedIOException e) {
+                // 업체 목록을 못 읽으면 이번 회차는 건너뛰고 기존 양식을 모두 유지
+                log.warn("invoice templates {}: scan failed, keeping previous: {}", baseDir, e.toString());
+                return;
+            }
+        }
+
+        for (Map.Entry<String, Path> e : found.entrySet()) {
+            Loaded current = templates.get(e.getKey());
+            try {
+                long modified = Files.getLastModifiedTime(e.getValue()).toMillis();
+                long size = Files.size(e.getValue());
+                if (current != null && current.modified == modified && current.size == size) continue;
+
+                InvoiceTemplate template = InvoiceTemplate.load(e.getValue().toFile());
+                templates.put(e.getKey(), new Loaded(template, modified, size));
+            } catch (IOException ex) {
+                // 저장 중인 파일 등 파싱 실패 시 기존 양식을 그대로 쓴다
+                log.warn("invoice template {} not loaded, keeping previous: {}", e.getValue(), ex.toString());
+            }
+        }
+
+        templates.keySet().removeIf(key -> !found.containsKey(key) && !unreadable.contains(vendorOf(key)));
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Loaded loaded : templates.values()) {
+            close(loaded.template);
+        }
+        templates.clear();
+        close(classpathTemplate);
+    }
+
+    // 디렉터리 목록 (테스트에서 읽기 실패를 흉내 낼 수 있도록 분리)
+    Stream<Path> listDir(Path dir) throws IOException {
+        return Files.list(dir);
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private void scan(Path dir, String vendor, Map<String, Path> found, Set<String> unreadable) {
+        try (Stream<Path> files = listDir(dir)) {
+            files.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pdf"))
+                    .forEach(p -> {
+                        String file = p.getFileName().toString();
+                        found.put(key(vendor, normalize(file.substring(0, file.length() - 4))), p);
+                    });
+        } catch (IOException | UncheckedIOException e) {
+            unreadable.add(vendor);
+            log.warn("invoice templates {}: scan failed, keeping previous: {}", dir, e.toString());
+        }
+    }
+
+    private static void close(InvoiceTemplate template) {
+        try {
+            template.close();
+        } catch (IOException e) {
+            log.warn("invoice template {}: close failed: {}", template.getSource(), e.toString());
+        }
+    }
+
+    private static String normalize(String s) {
+        return s == null || s.isBlank() ? DEFAULT : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String vendor, String name) {
+        return vendor + "/" + name;
+    }
+
+    private static String vendorOf(String key) {
+        return key.substring(0, key.indexOf('/'));
+    }
+
+    private record Loaded(InvoiceTemplate template, long modified, long size) {
+    }
+}
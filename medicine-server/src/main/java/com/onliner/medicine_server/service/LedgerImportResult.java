@@ -0,0 +1,12 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 거래장 업로드 결과 (교체된 기존 건수 / 저장 건수 / 기간 밖이라 건너뛴 건수)
+ */
+public record LedgerImportResult(int replaced, int inserted, int outOfRange) {
+
+    public String toMessage() {
+        return "거래장 엑셀 업로드 및 저장 완료 (" + inserted + "건 저장, 기존 " + replaced + "건 교체"
+                + (outOfRange > 0 ? ", 기간 밖 " + outOfRange + "건 제외" : "") + ")";
+    }
+}
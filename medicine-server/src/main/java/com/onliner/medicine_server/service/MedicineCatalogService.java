@@ -0,0 +1,141 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.repository.MedicineFilter;
+import com.onliner.medicine_server.repository.MedicineRepository;
+import com.onliner.medicine_server.repository.MedicineSummary;
+import com.onliner.medicine_server.util.CursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 약품 목록 조회 (필터 + 키셋 페이지네이션)
+ * - 전체 엔티티 / 요약(MedicineSummary) / 선택 필드 세 가지 응답이 같은 정렬·커서 규칙을 쓴다.
+ */
+@Service
+@Profile("!render-nodb")
+public class MedicineCatalogService {
+
+    private final MedicineRepository medicineRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final double lowStockThreshold;
+
+    public MedicineCatalogService(
+            MedicineRepository medicineRepository,
+            @Value("${medicines.page.default-size:100}") int defaultPageSize,
+            @Value("${medicines.page.max-size:1000}") int maxPageSize,
+            @Value("${medicines.low-stock-threshold:10}") double lowStockThreshold
+    ) {
+        this.medicineRepository = medicineRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * 1) 키셋 페이지 조회
+     * @param sort   "id"(기본) 또는 "code"
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @throws IllegalArgumentException 잘못된 정렬/커서
+     */
+    public MedicinePage<Medicine> findPage(MedicineFilter filter, String sort, String cursor, Integer size) {
+        return page(sort, cursor, size,
+                (byCode, after, limit) -> byCode
+                        ? medicineRepository.findPageByCode(filter, (String) after, limit)
+                        : medicineRepository.findPageById(filter, (Long) after, limit),
+                Medicine::getId, Medicine::getCode);
+    }
+
+    /**
+     * 1-1) 요약 필드만 (?view=summary)
+     */
+    public MedicinePage<MedicineSummary> findSummaryPage(MedicineFilter filter, String sort, String cursor, Integer size) {
+        return page(sort, cursor, size,
+                (byCode, after, limit) -> medicineRepository.findSummaries(filter, byCode, after, limit),
+                MedicineSummary::id, MedicineSummary::code);
+    }
+
+    /**
+     * 1-2) 선택한 필드만 (?fields=, 코드순 정렬이면 커서용으로 code 도 함께 조회)
+     */
+    public MedicinePage<Map<String, Object>> findFieldsPage(MedicineFilter filter, List<String> fields,
+                                                            String sort, String cursor, Integer size) {
+        List<String> selected = fields;
+        if ("code".equalsIgnoreCase(sort) && !fields.contains("code")) {
+            selected = new ArrayList<>(fields);
+            selected.add("code");
+        }
+        List<String> columns = selected;
+        return page(sort, cursor, size,
+                (byCode, after, limit) -> medicineRepository.findFields(filter, columns, byCode, after, limit),
+                row -> (Long) row.get("id"), row -> (String) row.get("code"));
+    }
+
+    /**
+     * 2) 요청 파라미터 → 조회 조건 (lowStock=true 이면 설정된 저재고 기준 적용)
+     */
+    public MedicineFilter toFilter(String name, String supplier, String manufacturer,
+                                   String location, Boolean lowStock, Double maxStock) {
+        Double stockLimit = maxStock;
+        if (stockLimit == null && Boolean.TRUE.equals(lowStock)) {
+            stockLimit = lowStockThreshold;
+        }
+        return new MedicineFilter(name, supplier, manufacturer, location, stockLimit);
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    @FunctionalInterface
+    private interface PageLoader<R> {
+        List<R> load(boolean byCode, Object after, int limit);
+    }
+
+    private <R> MedicinePage<R> page(String sort, String cursor, Integer size, PageLoader<R> loader,
+                                     Function<R, Long> idOf, Function<R, String> codeOf) {
+        int limit = resolvePageSize(size);
+        boolean byCode = "code".equalsIgnoreCase(sort);
+        if (!byCode && sort != null && !"id".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("지원하지 않는 정렬입니다: " + sort);
+        }
+        Object after = null;
+        if (cursor != null) {
+            after = byCode
+                    ? CursorCodec.decode(cursor, "code", 1)[0]
+                    : parseId(CursorCodec.decode(cursor, "id", 1)[0]);
+        }
+        // 한 건 더 읽어서 다음 페이지가 있는지 판단
+        List<R> rows = loader.load(byCode, after, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            R last = rows.get(limit - 1);
+            nextCursor = byCode
+                    ? CursorCodec.encode("code", codeOf.apply(last))
+                    : CursorCodec.encode("id", String.valueOf(idOf.apply(last)));
+        }
+        return new MedicinePage<>(rows, rows.size(), nextCursor);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) return defaultPageSize;
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다.");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static Long parseId(String raw) {
+        try {
+            return Long.parseLong(raw);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+}
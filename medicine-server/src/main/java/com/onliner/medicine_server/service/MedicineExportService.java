@@ -0,0 +1,173 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 약품 전체 내보내기 (NDJSON / Excel)
+ * - forward-only 커서로 한 행씩 읽어 바로 출력 스트림에 쓰므로 카탈로그 크기와 관계없이 메모리가 일정하다.
+ * - Excel 은 SXSSFWorkbook 으로 ROW_WINDOW 행만 메모리에 두고 나머지는 임시 파일로 내린다.
+ * - 컬럼 순서는 업로드 양식(0~22)과 같아서 내보낸 파일을 그대로 다시 업로드할 수 있다.
+ */
+@Service
+@Profile("!render-nodb")
+public class MedicineExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int ROW_WINDOW = 100;
+    private static final int FLUSH_EVERY = 500;
+
+    // { DB 컬럼, JSON 필드, 엑셀 헤더, 숫자 여부 }
+    private static final String[][] COLUMNS = {
+            {"no", "no", "No", "int"},
+            {"supplier", "supplier", "입고처", ""},
+            {"manufacturer", "manufacturer", "제조사", ""},
+            {"code", "code", "코드", ""},
+            {"name", "name", "제품명", ""},
+            {"spec", "spec", "규격", ""},
+            {"base_price", "basePrice", "기준가", "num"},
+            {"location", "location", "재고위치", ""},
+            {"prev_stock", "prevStock", "전일재고", "num"},
+            {"prev_amount", "prevAmount", "전일금액", "num"},
+            {"in_qty", "inQty", "입고수량", "num"},
+            {"in_amount", "inAmount", "입고금액", "num"},
+            {"out_qty", "outQty", "출고수량", "num"},
+            {"out_amount", "outAmount", "출고금액", "num"},
+            {"stock_qty", "stockQty", "재고수량", "num"},
+            {"purchased_qty", "purchasedQty", "매입처집계수량", "num"},
+            {"unit_price", "unitPrice", "단가", "num"},
+            {"base_price_percent", "basePricePercent", "기준가%", "num"},
+            {"stock_amount", "stockAmount", "재고금액", "num"},
+            {"base_price_code", "basePriceCode", "기준가코드", ""},
+            {"remarks", "remarks", "비고", ""},
+            {"standard_code", "standardCode", "표준코드", ""},
+            {"product_location", "productLocation", "제품위치", ""}
+    };
+
+    private static final String SELECT_SQL = buildSelectSql();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public MedicineExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 1) NDJSON: 한 줄에 약품 하나 ({"id":..,"no":..,...})
+     */
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            // 줄 구분은 아래에서 '\n' 으로 직접 쓰므로 최상위 값 사이 기본 구분자(공백)는 끈다
+            gen.setRootValueSeparator(null);
+            int[] count = {0};
+            streamRows(rs -> {
+                try {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", rs.getLong("id"));
+                    for (String[] col : COLUMNS) {
+                        gen.writeFieldName(col[1]);
+                        writeJsonValue(gen, rs, col);
+                    }
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                    // 첫 행은 바로, 이후에는 FLUSH_EVERY 행마다 내보낸다
+                    if (++count[0] == 1 || count[0] % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 2) Excel(.xlsx): 업로드 양식과 같은 헤더/컬럼 순서
+     */
+    public void writeXlsx(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("재고");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                header.createCell(c).setCellValue(COLUMNS[c][2]);
+            }
+
+            int[] rowIdx = {1};
+            streamRows(rs -> {
+                Row row = sheet.createRow(rowIdx[0]++);
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    writeCell(row.createCell(c), rs, COLUMNS[c]);
+                }
+            });
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    // MariaDB 드라이버는 fetchSize > 0 이면 결과를 한꺼번에 받지 않고 스트리밍한다
+    private void streamRows(RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+
+    private static void writeJsonValue(JsonGenerator gen, ResultSet rs, String[] col) throws SQLException, IOException {
+        switch (col[3]) {
+            case "int" -> {
+                int v = rs.getInt(col[0]);
+                if (rs.wasNull()) gen.writeNull(); else gen.writeNumber(v);
+            }
+            case "num" -> {
+                double v = rs.getDouble(col[0]);
+                if (rs.wasNull()) gen.writeNull(); else gen.writeNumber(v);
+            }
+            default -> {
+                String v = rs.getString(col[0]);
+                if (v == null) gen.writeNull(); else gen.writeString(v);
+            }
+        }
+    }
+
+    private static void writeCell(Cell cell, ResultSet rs, String[] col) throws SQLException {
+        if (col[3].isEmpty()) {
+            String v = rs.getString(col[0]);
+            if (v != null) cell.setCellValue(v);
+            return;
+        }
+        double v = rs.getDouble(col[0]);
+        if (!rs.wasNull()) cell.setCellValue(v);
+    }
+
+    private static String buildSelectSql() {
+        StringBuilder sb = new StringBuilder("SELECT id");
+        for (String[] col : COLUMNS) {
+            sb.append(", ").append(col[0].equals("no") ? "`no`" : col[0]);
+        }
+        return sb.append(" FROM medicines ORDER BY id").toString();
+    }
+}
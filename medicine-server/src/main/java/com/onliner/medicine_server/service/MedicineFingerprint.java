@@ -0,0 +1,62 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 약품 행 지문 (No/코드를 제외한 21개 필드의 정규화 값 SHA-256)
+ * - 엑셀 업로드 시 저장된 지문과 같으면 엔티티를 읽지도, UPDATE 하지도 않는다.
+ * - 엑셀 행과 PUT 수정 모두 Medicine 필드 기준으로 계산하므로 어느 경로로 바뀌어도 비교가 맞는다.
+ */
+public class MedicineFingerprint {
+
+    private static final char SEPARATOR = '\u001F';
+
+    public static String of(Medicine m) {
+        StringBuilder sb = new StringBuilder(256);
+        append(sb, m.getSupplier());
+        append(sb, m.getManufacturer());
+        append(sb, m.getName());
+        append(sb, m.getSpec());
+        append(sb, m.getBasePrice());
+        append(sb, m.getLocation());
+        append(sb, m.getPrevStock());
+        append(sb, m.getPrevAmount());
+        append(sb, m.getInQty());
+        append(sb, m.getInAmount());
+        append(sb, m.getOutQty());
+        append(sb, m.getOutAmount());
+        append(sb, m.getStockQty());
+        append(sb, m.getPurchasedQty());
+        append(sb, m.getUnitPrice());
+        append(sb, m.getBasePricePercent());
+        append(sb, m.getStockAmount());
+        append(sb, m.getBasePriceCode());
+        append(sb, m.getRemarks());
+        append(sb, m.getStandardCode());
+        append(sb, m.getProductLocation());
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 문자열은 앞뒤 공백 제거, null 과 빈 문자열은 같은 값으로 본다
+    private static void append(StringBuilder sb, String value) {
+        if (value != null) sb.append(value.trim());
+        sb.append(SEPARATOR);
+    }
+
+    // 숫자는 -0.0 / 0.0 차이를 없애고 null 은 빈 값
+    private static void append(StringBuilder sb, Double value) {
+        if (value != null) sb.append(value == 0.0 ? 0.0 : value);
+        sb.append(SEPARATOR);
+    }
+}
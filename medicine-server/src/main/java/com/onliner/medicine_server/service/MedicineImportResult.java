@@ -0,0 +1,30 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 약품 엑셀 업로드 결과 (신규 / 수정 / 변경없음 건수)
+ */
+public record MedicineImportResult(int inserted, int updated, int unchanged) {
+
+    public static final MedicineImportResult EMPTY = new MedicineImportResult(0, 0, 0);
+
+    // 실제로 DB 에 쓴 건수 (신규 + 수정)
+    public int changed() {
+        return inserted + updated;
+    }
+
+    public int processed() {
+        return inserted + updated + unchanged;
+    }
+
+    public MedicineImportResult plus(MedicineImportResult other) {
+        return new MedicineImportResult(
+                inserted + other.inserted,
+                updated + other.updated,
+                unchanged + other.unchanged);
+    }
+
+    public String toMessage() {
+        return "엑셀 업로드 및 저장/업데이트 성공 (" + processed() + "건 처리됨: 변경 " + changed()
+                + " (신규 " + inserted + ", 수정 " + updated + "), 변경없음 " + unchanged + ")";
+    }
+}
@@ -0,0 +1,194 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.entity.StockMovement;
+import com.onliner.medicine_server.repository.MedicineBulkRepository;
+import com.onliner.medicine_server.repository.MedicineBulkRepository.MedicineKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 약품 재고 엑셀 업로드
+ * - MedicineSheet.SCHEMA(헤더 기준 컬럼 매핑)로 한 행씩 읽어 CHUNK_SIZE 단위로 저장하므로
+ *   파일 크기와 관계없이 힙 사용량이 일정하게 유지된다.
+ * - 청크마다 기존 코드/No 와 행 지문만 한 번에 조회해 해시맵으로 매칭하고, JDBC 배치로 INSERT/UPDATE 한다.
+ * - 지문(MedicineFingerprint)이 같은 행은 엔티티 로드도 UPDATE 도 하지 않으므로
+ *   같은 시트를 다시 올리면 DB 쓰기가 거의 없다.
+ * - 재고수량/재고금액이 바뀐 행은 직전 값과의 차이를 재고 이동 원장(IMPORT)에 함께 기록한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class MedicineImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final MedicineBulkRepository medicineBulkRepository;
+    private final MedicineSearchIndex medicineSearchIndex;
+    private final CatalogCache catalogCache;
+    private final StockLedgerService stockLedgerService;
+    private final StockAlertService stockAlertService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 1) 업로드 파일 → 청크 단위 저장
+     * @param workbook true 면 .xlsx 도 워크북(DOM)으로 읽음 (기본은 SAX 스트리밍, .xls 는 항상 워크북)
+     */
+    public MedicineImportResult importFile(File file, boolean workbook, ImportProgress progress) throws Exception {
+        List<MedicineSheetRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        MedicineImportResult[] total = {MedicineImportResult.EMPTY};
+
+        MedicineSheet.SCHEMA.forEachRow(file, workbook, (row, rowIndex) -> {
+            // “No” 칼럼이 숫자가 아니면 건너뛰기
+            if (row.getNo() == null) return;
+
+            chunk.add(new MedicineSheetRow(row));
+            if (chunk.size() >= CHUNK_SIZE) {
+                total[0] = total[0].plus(upsertChunk(chunk));
+                progress.rowsProcessed(chunk.size());
+                chunk.clear();
+            }
+        });
+
+        if (!chunk.isEmpty()) {
+            total[0] = total[0].plus(upsertChunk(chunk));
+            progress.rowsProcessed(chunk.size());
+        }
+        return total[0];
+    }
+
+    // 청크 하나 = 키/지문 조회 1회 + 배치 UPDATE 1회 + 배치 INSERT 1회 (한 트랜잭션)
+    private MedicineImportResult upsertChunk(List<MedicineSheetRow> rows) {
+        // 같은 청크 안에서 코드나 No 가 중복되면 마지막 행 기준 (둘 다 medicines 의 유니크 키)
+        Map<String, MedicineSheetRow> byCode = new LinkedHashMap<>();
+        Map<Integer, String> codeByNo = new HashMap<>();
+        for (MedicineSheetRow row : rows) {
+            MedicineSheetRow sameCode = byCode.remove(row.code());
+            if (sameCode != null) codeByNo.remove(sameCode.no());
+            String sameNo = codeByNo.remove(row.no());
+            if (sameNo != null) byCode.remove(sameNo);
+            byCode.put(row.code(), row);
+            codeByNo.put(row.no(), row.code());
+        }
+        List<Integer> nos = byCode.values().stream().map(MedicineSheetRow::no).toList();
+        List<String> changedCodes = new ArrayList<>();
+        Set<Long> stockChangedIds = new HashSet<>();
+
+        MedicineImportResult result = transactionTemplate.execute(status -> {
+            // (1) 기존 행의 id/No/코드/지문/재고만 한 번에 조회(잠금) → 해시맵 (엔티티는 읽지 않음)
+            Map<String, MedicineKey> existingByCode = new HashMap<>();
+            Map<Integer, MedicineKey> existingByNo = new HashMap<>();
+            for (MedicineKey key : medicineBulkRepository.lockKeys(byCode.keySet(), nos)) {
+                existingByCode.put(key.code(), key);
+                existingByNo.put(key.no(), key);
+            }
+
+            // (2) 코드 → No 순으로 매칭하고, 지문이 같으면 변경없음으로 건너뜀
+            List<Medicine> inserts = new ArrayList<>();
+            List<Medicine> updates = new ArrayList<>();
+            List<StockMovement> movements = new ArrayList<>();
+            int unchanged = 0;
+            for (MedicineSheetRow row : byCode.values()) {
+                Medicine incoming = row.toMedicine();
+                incoming.setRowFingerprint(MedicineFingerprint.of(incoming));
+
+                MedicineKey exist = existingByCode.get(row.code());
+                if (exist == null) {
+                    exist = existingByNo.get(row.no());
+                }
+                if (exist == null) {
+                    inserts.add(incoming);
+                    continue;
+                }
+                if (incoming.getRowFingerprint().equals(exist.rowFingerprint())) {
+                    unchanged++;
+                    continue;
+                }
+                // No/코드는 갱신하지 않으므로 기존 값 유지
+                incoming.setId(exist.id());
+                incoming.setNo(exist.no());
+                incoming.setCode(exist.code());
+                updates.add(incoming);
+                addImportMovement(movements, exist.id(), exist.stockQty(), exist.stockAmount(),
+                        incoming.getStockQty(), incoming.getStockAmount());
+            }
+
+            // (3) 바뀐 행만 JDBC 배치 쓰기
+            medicineBulkRepository.batchUpdate(updates);
+            medicineBulkRepository.batchUpsert(inserts);
+
+            // (4) 재고 차이를 원장에 기록
+            //     신규 행은 실제로 쓰인 행을 다시 읽어 그 스냅샷과 원장 합계의 차이를 기록한다.
+            //     (동시에 같은 No/코드가 먼저 들어와 ON DUPLICATE KEY UPDATE 로 덮어쓴 경우에도 중복 기록하지 않음)
+            if (!inserts.isEmpty()) {
+                addWrittenMovements(movements, inserts);
+            }
+            stockLedgerService.journal(movements);
+            stockChangedIds.addAll(StockLedgerService.medicineIds(movements));
+            for (Medicine m : updates) changedCodes.add(m.getCode());
+            for (Medicine m : inserts) changedCodes.add(m.getCode());
+            return new MedicineImportResult(inserts.size(), updates.size(), unchanged);
+        });
+        // 커밋된 뒤 바뀐 품목만 검색 인덱스에 반영하고 목록 캐시 무효화
+        if (!changedCodes.isEmpty()) {
+            medicineSearchIndex.refreshCodes(changedCodes);
+            catalogCache.invalidate(CatalogCache.Catalog.MEDICINES);
+        }
+        stockAlertService.onStockChanged(stockChangedIds);
+        return result == null ? MedicineImportResult.EMPTY : result;
+    }
+
+    private void addWrittenMovements(List<StockMovement> movements, List<Medicine> inserts) {
+        Set<String> codes = new HashSet<>();
+        Set<Integer> nos = new HashSet<>();
+        for (Medicine m : inserts) {
+            codes.add(m.getCode());
+            nos.add(m.getNo());
+        }
+        Map<String, MedicineKey> writtenByCode = new HashMap<>();
+        Map<Integer, MedicineKey> writtenByNo = new HashMap<>();
+        for (MedicineKey key : medicineBulkRepository.lockKeys(codes, nos)) {
+            writtenByCode.put(key.code(), key);
+            writtenByNo.put(key.no(), key);
+        }
+        // 코드 → No 순으로 실제 행을 찾고, 여러 입력이 한 행에 쓰였으면 한 번만 기록
+        Map<Long, MedicineKey> written = new LinkedHashMap<>();
+        for (Medicine m : inserts) {
+            MedicineKey key = writtenByCode.get(m.getCode());
+            if (key == null) key = writtenByNo.get(m.getNo());
+            if (key != null) written.putIfAbsent(key.id(), key);
+        }
+        Map<Long, Double[]> journaled = stockLedgerService.journalTotals(written.keySet());
+        for (MedicineKey key : written.values()) {
+            Double[] base = journaled.get(key.id());
+            addImportMovement(movements, key.id(), base == null ? null : base[0], base == null ? null : base[1],
+                    key.stockQty(), key.stockAmount());
+        }
+    }
+
+    // 엑셀 값은 재고 실사 값이므로 직전 스냅샷과의 차이를 IMPORT 이동으로 남긴다
+    private static void addImportMovement(List<StockMovement> movements, Long medicineId,
+                                          Double fromQty, Double fromAmount, Double toQty, Double toAmount) {
+        double qtyDelta = StockLedgerService.nz(toQty) - StockLedgerService.nz(fromQty);
+        double amountDelta = StockLedgerService.nz(toAmount) - StockLedgerService.nz(fromAmount);
+        if (qtyDelta == 0.0 && amountDelta == 0.0) return;
+        movements.add(StockMovement.builder()
+                .medicineId(medicineId)
+                .type(StockMovement.Type.IMPORT)
+                .qtyDelta(qtyDelta)
+                .amountDelta(amountDelta)
+                .reason("재고 엑셀 업로드")
+                .build());
+    }
+}
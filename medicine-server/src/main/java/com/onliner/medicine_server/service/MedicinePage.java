@@ -0,0 +1,10 @@
+package com.onliner.medicine_server.service;
+
+import java.util.List;
+
+/**
+ * 키셋 페이지 응답
+ * - nextCursor 를 다음 요청의 ?cursor= 로 넘기면 이어서 조회, null 이면 마지막 페이지
+ */
+public record MedicinePage<T>(List<T> items, int size, String nextCursor) {
+}
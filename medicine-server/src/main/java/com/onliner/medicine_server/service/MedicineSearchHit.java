@@ -0,0 +1,14 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 자동완성 검색 결과 1건
+ */
+public record MedicineSearchHit(
+        Long id,
+        String code,
+        String name,
+        String manufacturer,
+        String standardCode,
+        String spec
+) {
+}
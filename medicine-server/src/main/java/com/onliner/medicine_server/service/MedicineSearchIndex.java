@@ -0,0 +1,374 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.util.SearchText;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 약품 자동완성 검색 인덱스 (메모리)
+ * - 제품명 / 코드 / 제조사 / 표준코드를 SearchText.normalize 로 정규화해 1~3-gram 포스팅 리스트로 색인
+ *   (질의가 3자 이상이면 3-gram 으로 교집합해 후보를 좁힌다)
+ * - 제품명 / 제조사는 초성 문자열도 함께 색인해 "ㅌㅇㄹㄴ" 같은 초성 검색을 지원
+ * - 검색은 질의의 n-gram 포스팅을 교집합한 뒤 원문 포함 여부로 검증하고 점수순으로 자른다.
+ * - 수정/업로드 시에는 바뀐 품목만 쓰기 락 안에서 다시 읽어 색인한다. 겹친 반영이 서로의 조회 결과를
+ *   덮어쓰지 않도록 마지막에 적용되는 값이 항상 가장 나중에 읽은 값이 된다. 삭제 표시가 쌓이면 통째로 압축한다.
+ * - 전체 색인 중(DB 를 읽는 동안) 들어온 개별 반영은 따로 모아 두었다가 새 색인 위에 다시 적용한다.
+ *   (전체 조회 결과가 그보다 오래된 값일 수 있으므로)
+ */
+@Component
+@Profile("!render-nodb")
+public class MedicineSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+
+    private static final String SELECT_SQL =
+            "SELECT id, code, name, manufacturer, standard_code, spec FROM medicines";
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ',
+            'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // docId → 문서 (삭제/갱신된 문서는 null)
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<Long, Integer> docIdByMedicineId = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private int deadDocs;
+    // 전체 색인 중에만 non-null: 그동안 반영된 문서 (medicineId → 마지막 문서)
+    private Map<Long, Doc> rebuildLog;
+
+    public MedicineSearchIndex(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // 서버 기동 후 전체 색인 (동시에 두 번 돌지 않도록 synchronized)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildLog = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Doc> loaded = null;
+        try {
+            loaded = jdbc.query(SELECT_SQL, (rs, i) -> new Doc(
+                    rs.getLong("id"), rs.getString("code"), rs.getString("name"),
+                    rs.getString("manufacturer"), rs.getString("standard_code"), rs.getString("spec")));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    reset();
+                    for (Doc doc : loaded) {
+                        add(doc);
+                    }
+                    // 조회 도중 반영된 문서가 조회 결과보다 새 값이다
+                    for (Doc doc : rebuildLog.values()) {
+                        remove(doc.id);
+                        add(doc);
+                    }
+                    compactIfNeeded();
+                }
+                rebuildLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 1) 개별 수정(PUT) 반영: 커밋된 행을 id 로 다시 읽어 색인
+     */
+    public void upsert(Medicine m) {
+        reload("id IN (:keys)", List.of(m.getId()));
+    }
+
+    /**
+     * 2) 엑셀 업로드 청크 반영: 바뀐 코드들만 한 번에 다시 읽어 색인
+     */
+    public void refreshCodes(Collection<String> codes) {
+        if (codes.isEmpty()) return;
+        reload("code IN (:keys)", codes);
+    }
+
+    /**
+     * 3) 자동완성 검색
+     */
+    public List<MedicineSearchHit> search(String query, int limit) {
+        String q = SearchText.normalize(query);
+        if (q.isEmpty() || limit < 1) return List.of();
+        boolean chosungMode = containsJamo(q);
+        if (chosungMode) {
+            q = toChosung(q);
+        }
+
+        lock.readLock().lock();
+        try {
+            IntList[] lists = postingsFor(q);
+            if (lists == null) return List.of();
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            // 가장 짧은 포스팅을 기준으로 나머지에 모두 있는 문서만 후보로
+            List<Scored> scored = new ArrayList<>();
+            IntList smallest = lists[0];
+            outer:
+            for (int i = 0; i < smallest.size; i++) {
+                int docId = smallest.values[i];
+                for (int k = 1; k < lists.length; k++) {
+                    if (!lists[k].contains(docId)) continue outer;
+                }
+                Doc doc = docs.get(docId);
+                if (doc == null) continue;
+                int score = chosungMode ? doc.chosungScore(q) : doc.score(q);
+                if (score > 0) {
+                    scored.add(new Scored(doc, score));
+                }
+            }
+
+            scored.sort((a, b) -> {
+                if (a.score != b.score) return Integer.compare(b.score, a.score);
+                if (a.doc.nameKey.length() != b.doc.nameKey.length()) {
+                    return Integer.compare(a.doc.nameKey.length(), b.doc.nameKey.length());
+                }
+                return a.doc.nameKey.compareTo(b.doc.nameKey);
+            });
+            List<MedicineSearchHit> hits = new ArrayList<>(Math.min(limit, scored.size()));
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                hits.add(scored.get(i).doc.toHit());
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdByMedicineId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 조회와 반영을 같은 쓰기 락 안에서 처리 (락 밖에서 읽으면 먼저 읽은 값이 나중에 적용될 수 있음)
+    // 바뀐 품목 몇 개만 유니크 키로 읽으므로 그동안 검색이 기다리는 시간은 짧다
+    private void reload(String where, Collection<?> keys) {
+        lock.writeLock().lock();
+        try {
+            List<Doc> loaded = jdbc.query(SELECT_SQL + " WHERE " + where,
+                    new MapSqlParameterSource("keys", keys),
+                    (rs, i) -> new Doc(
+                            rs.getLong("id"), rs.getString("code"), rs.getString("name"),
+                            rs.getString("manufacturer"), rs.getString("standard_code"), rs.getString("spec")));
+            for (Doc doc : loaded) {
+                apply(doc);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ======================= 색인 내부 (쓰기 락 안에서 호출) =======================
+    private void reset() {
+        docs.clear();
+        docIdByMedicineId.clear();
+        postings.clear();
+        deadDocs = 0;
+    }
+
+    // 개별 반영: 기존 문서를 지우고 새로 추가, 전체 색인 중이면 다시 적용할 수 있게 기록
+    private void apply(Doc doc) {
+        remove(doc.id);
+        add(doc);
+        if (rebuildLog != null) {
+            rebuildLog.put(doc.id, doc);
+        }
+    }
+
+    private void add(Doc doc) {
+        int docId = docs.size();
+        docs.add(doc);
+        docIdByMedicineId.put(doc.id, docId);
+        Set<String> grams = new HashSet<>();
+        collectGrams(doc.nameKey, grams);
+        collectGrams(doc.codeKey, grams);
+        collectGrams(doc.manufacturerKey, grams);
+        collectGrams(doc.standardCodeKey, grams);
+        collectGrams(doc.nameChosung, grams);
+        collectGrams(doc.manufacturerChosung, grams);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(docId);
+        }
+    }
+
+    private void remove(Long medicineId) {
+        Integer docId = docIdByMedicineId.remove(medicineId);
+        if (docId != null) {
+            docs.set(docId, null);
+            deadDocs++;
+        }
+    }
+
+    // 삭제 표시가 살아 있는 문서 수를 넘으면 포스팅을 다시 만든다
+    private void compactIfNeeded() {
+        if (deadDocs < 1000 || deadDocs < docIdByMedicineId.size()) return;
+        List<Doc> live = new ArrayList<>(docIdByMedicineId.size());
+        for (Doc doc : docs) {
+            if (doc != null) live.add(doc);
+        }
+        reset();
+        for (Doc doc : live) {
+            add(doc);
+        }
+    }
+
+    private IntList[] postingsFor(String q) {
+        List<IntList> lists = new ArrayList<>();
+        if (q.length() == 1) {
+            IntList list = postings.get(q);
+            if (list == null) return null;
+            lists.add(list);
+        } else {
+            // 2자 질의는 2-gram, 3자 이상은 3-gram (더 긴 gram 일수록 포스팅이 짧다)
+            int n = Math.min(q.length(), MAX_GRAM);
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i + n <= q.length(); i++) {
+                String gram = q.substring(i, i + n);
+                if (!seen.add(gram)) continue;
+                IntList list = postings.get(gram);
+                if (list == null) return null;
+                lists.add(list);
+            }
+        }
+        return lists.toArray(new IntList[0]);
+    }
+
+    private static void collectGrams(String text, Set<String> grams) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int n = 1; n <= MAX_GRAM && i + n <= text.length(); n++) {
+                grams.add(text.substring(i, i + n));
+            }
+        }
+    }
+
+    // ======================= 정규화 / 초성 =======================
+    // 완성형 한글은 초성으로 바꾸고 나머지 문자는 그대로
+    static String toChosung(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0xAC00 && c <= 0xD7A3) {
+                sb.append(CHOSUNG[(c - 0xAC00) / 588]);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // 호환용 자음(ㄱ~ㅎ)이 하나라도 있으면 초성 검색으로 본다
+    private static boolean containsJamo(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x3131 && c <= 0x314E) return true;
+        }
+        return false;
+    }
+
+    // ======================= 내부 자료구조 =======================
+    private static final class Doc {
+        final Long id;
+        final String code;
+        final String name;
+        final String manufacturer;
+        final String standardCode;
+        final String spec;
+        final String nameKey;
+        final String codeKey;
+        final String manufacturerKey;
+        final String standardCodeKey;
+        final String nameChosung;
+        final String manufacturerChosung;
+
+        Doc(Long id, String code, String name, String manufacturer, String standardCode, String spec) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.manufacturer = manufacturer;
+            this.standardCode = standardCode;
+            this.spec = spec;
+            this.nameKey = SearchText.normalize(name);
+            this.codeKey = SearchText.normalize(code);
+            this.manufacturerKey = SearchText.normalize(manufacturer);
+            this.standardCodeKey = SearchText.normalize(standardCode);
+            this.nameChosung = toChosung(nameKey);
+            this.manufacturerChosung = toChosung(manufacturerKey);
+        }
+
+        // 코드 일치 > 코드/제품명 접두 > 제품명 포함 > 제조사/표준코드 포함 (0 이면 불일치)
+        int score(String q) {
+            if (codeKey.equals(q)) return 100;
+            if (codeKey.startsWith(q)) return 90;
+            if (nameKey.startsWith(q)) return 80;
+            if (nameKey.contains(q)) return 60;
+            if (codeKey.contains(q)) return 50;
+            if (standardCodeKey.startsWith(q)) return 45;
+            if (manufacturerKey.contains(q) || standardCodeKey.contains(q)) return 40;
+            return 0;
+        }
+
+        int chosungScore(String q) {
+            if (nameChosung.startsWith(q)) return 70;
+            if (nameChosung.contains(q)) return 50;
+            if (manufacturerChosung.contains(q)) return 30;
+            return 0;
+        }
+
+        MedicineSearchHit toHit() {
+            return new MedicineSearchHit(id, code, name, manufacturer, standardCode, spec);
+        }
+    }
+
+    private record Scored(Doc doc, int score) {
+    }
+
+    // docId 오름차순 정수 배열 (문서는 항상 더 큰 docId 로 추가되므로 정렬이 유지된다)
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size > 0 && values[size - 1] == v) return;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+
+        boolean contains(int v) {
+            return Arrays.binarySearch(values, 0, size, v) >= 0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.util.SheetSchema;
+
+import static com.onliner.medicine_server.util.CellConverters.DOUBLE_OR_ZERO;
+import static com.onliner.medicine_server.util.CellConverters.NUMERIC_INT_OR_NULL;
+import static com.onliner.medicine_server.util.CellConverters.TEXT;
+
+/**
+ * 약품 재고 엑셀 양식 (컬럼 0~22, 헤더는 내보내기(MedicineExportService)와 동일)
+ * - No 가 숫자가 아닌 행은 getNo() == null 로 나오므로 호출 측에서 건너뛴다.
+ */
+public final class MedicineSheet {
+
+    public static final SheetSchema<Medicine> SCHEMA = SheetSchema.of(Medicine::new)
+            .column(0, "No", NUMERIC_INT_OR_NULL, Medicine::setNo)
+            .column(1, "입고처", TEXT, Medicine::setSupplier)
+            .column(2, "제조사", TEXT, Medicine::setManufacturer)
+            .column(3, "코드", TEXT, Medicine::setCode)
+            .column(4, "제품명", TEXT, Medicine::setName)
+            .column(5, "규격", TEXT, Medicine::setSpec)
+            .column(6, "기준가", DOUBLE_OR_ZERO, Medicine::setBasePrice)
+            .column(7, "재고위치", TEXT, Medicine::setLocation)
+            .column(8, "전일재고", DOUBLE_OR_ZERO, Medicine::setPrevStock)
+            .column(9, "전일금액", DOUBLE_OR_ZERO, Medicine::setPrevAmount)
+            .column(10, "입고수량", DOUBLE_OR_ZERO, Medicine::setInQty)
+            .column(11, "입고금액", DOUBLE_OR_ZERO, Medicine::setInAmount)
+            .column(12, "출고수량", DOUBLE_OR_ZERO, Medicine::setOutQty)
+            .column(13, "출고금액", DOUBLE_OR_ZERO, Medicine::setOutAmount)
+            .column(14, "재고수량", DOUBLE_OR_ZERO, Medicine::setStockQty)
+            .column(15, "매입처집계수량", DOUBLE_OR_ZERO, Medicine::setPurchasedQty)
+            .column(16, "단가", DOUBLE_OR_ZERO, Medicine::setUnitPrice)
+            .column(17, "기준가%", DOUBLE_OR_ZERO, Medicine::setBasePricePercent)
+            .column(18, "재고금액", DOUBLE_OR_ZERO, Medicine::setStockAmount)
+            .column(19, "기준가코드", TEXT, Medicine::setBasePriceCode)
+            .column(20, "비고", TEXT, Medicine::setRemarks)
+            .column(21, "표준코드", TEXT, Medicine::setStandardCode)
+            .column(22, "제품위치", TEXT, Medicine::setProductLocation)
+            .build();
+
+    private MedicineSheet() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+
+/**
+ * 약품 재고 엑셀의 한 행 (컬럼 0~22)
+ * - 셀 값은 MedicineSheet.SCHEMA 가 읽는 즉시 새 Medicine(id 없음)의 필드로 옮겨 두고,
+ *   매칭 키(No / 코드)는 그 값에서 꺼낸다.
+ */
+public record MedicineSheetRow(Medicine values) {
+
+    public Integer no() {
+        return values.getNo();
+    }
+
+    public String code() {
+        return values.getCode();
+    }
+
+    // 새 엔티티(id 없음)로 사용 (행은 청크 하나에서 한 번만 쓰이므로 복사하지 않음)
+    public Medicine toMedicine() {
+        return values;
+    }
+}
@@ -0,0 +1,7 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 재고 조정 요청 한 건 (POST /api/medicines/stock-adjustments 본문 배열 원소)
+ */
+public record StockAdjustment(String code, Double delta, String reason) {
+}
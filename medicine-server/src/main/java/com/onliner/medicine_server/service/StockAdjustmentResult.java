@@ -0,0 +1,13 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 재고 조정 결과 한 건 (요청 순서와 같음)
+ * - applied=false 이면 error 에 사유, 재고 값은 null
+ */
+public record StockAdjustmentResult(String code, Double delta, boolean applied,
+                                    Double stockQty, Double stockAmount, String error) {
+
+    static StockAdjustmentResult failed(StockAdjustment req, String error) {
+        return new StockAdjustmentResult(req.code(), req.delta(), false, null, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.onliner.medicine_server.service;
+
+/**
+ * 재고 알림 이벤트 (WebSocket 으로 그대로 직렬화)
+ * - level: OUT_OF_STOCK / LOW_STOCK / RECOVERED / EXPIRING
+ * - expiryDate 는 yyyy-MM-dd 문자열 (유효기간 알림일 때만)
+ */
+public record StockAlert(String level, Long medicineId, String code, String name,
+                         Double stockQty, Double threshold, String expiryDate, String occurredAt) {
+}
@@ -0,0 +1,192 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.websocket.ChatWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 저재고 / 품절 / 유효기간 임박 알림
+ * - 재고가 바뀐 품목(업로드, PUT, 재고 조정)만 다시 읽어 판정하므로 카탈로그 전체를 훑지 않는다.
+ * - 상태가 바뀔 때만 알림(엣지 트리거)을 보내고, 같은 품목의 같은 단계 알림은 coalesce 시간 안에 한 번만 보낸다.
+ * - 잠금은 메모리 상태를 판정/갱신할 때만 잡고, DB 조회와 WebSocket 전송은 잠금 밖에서 한다.
+ * - 알림은 ChatWebSocketHandler 의 "vendor:{companyCode}:alerts" 방으로 발행된다.
+ */
+@Service
+@Profile("!render-nodb")
+public class StockAlertService {
+
+    public static final String LEVEL_OUT = "OUT_OF_STOCK";
+    public static final String LEVEL_LOW = "LOW_STOCK";
+    public static final String LEVEL_RECOVERED = "RECOVERED";
+    public static final String LEVEL_EXPIRING = "EXPIRING";
+
+    private static final String SELECT_SQL =
+            "SELECT id, code, name, stock_qty, safety_stock, expiry_date FROM medicines";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ChatWebSocketHandler webSocketHandler;
+    private final String alertRoom;
+    private final double defaultThreshold;
+    private final Duration coalesceWindow;
+    private final int expiryDays;
+
+    // 품목 id → 마지막 판정 상태 (정상 품목은 coalesce 시간이 지나면 지운다, synchronized 블록 안에서만 접근)
+    private final Map<Long, AlertState> states = new HashMap<>();
+    private final Map<Long, Instant> expirySentAt = new ConcurrentHashMap<>();
+
+    public StockAlertService(
+            NamedParameterJdbcTemplate jdbc,
+            ChatWebSocketHandler webSocketHandler,
+            @Value("${medicines.alerts.company-code:dh-pharm}") String companyCode,
+            @Value("${medicines.low-stock-threshold:10}") double defaultThreshold,
+            @Value("${medicines.alerts.coalesce-window-seconds:600}") long coalesceWindowSeconds,
+            @Value("${medicines.alerts.expiry-days:30}") int expiryDays
+    ) {
+        this.jdbc = jdbc;
+        this.webSocketHandler = webSocketHandler;
+        this.alertRoom = ChatWebSocketHandler.vendorRoom(companyCode, "alerts");
+        this.defaultThreshold = defaultThreshold;
+        this.coalesceWindow = Duration.ofSeconds(coalesceWindowSeconds);
+        this.expiryDays = expiryDays;
+    }
+
+    /**
+     * 1) 재고가 바뀐 품목만 다시 판정 (커밋 이후 호출)
+     * - DB 조회와 알림 전송은 잠금 밖에서 하고, 상태 판정(엣지 / coalesce)만 잠금 안에서 한다.
+     * - 재고 수량이 비어 있는(NULL) 품목은 판정하지 않는다. (품절로 잘못 알리지 않도록)
+     */
+    public void onStockChanged(Collection<Long> medicineIds) {
+        if (medicineIds.isEmpty()) return;
+        List<StockRow> rows = jdbc.query(SELECT_SQL + " WHERE id IN (:ids) AND stock_qty IS NOT NULL",
+                new MapSqlParameterSource("ids", medicineIds), (rs, rowNum) -> {
+                    double safety = rs.getDouble("safety_stock");
+                    double threshold = rs.wasNull() ? defaultThreshold : safety;
+                    return new StockRow(rs.getLong("id"), rs.getString("code"), rs.getString("name"),
+                            rs.getDouble("stock_qty"), threshold);
+                });
+        if (rows.isEmpty()) return;
+
+        Instant now = Instant.now();
+        List<StockAlert> alerts = new ArrayList<>();
+        synchronized (this) {
+            for (StockRow row : rows) {
+                StockAlert alert = evaluate(row.id(), row.code(), row.name(), row.stock(), row.threshold(), now);
+                if (alert != null) alerts.add(alert);
+            }
+        }
+        publish(alerts);
+    }
+
+    /**
+     * 2) 유효기간 임박 품목 (매일 한 번, expiry_date 인덱스 범위 조회)
+     */
+    @Scheduled(cron = "${medicines.alerts.expiry-cron:0 0 7 * * *}")
+    public void scanExpiring() {
+        Instant now = Instant.now();
+        LocalDate until = LocalDate.now().plusDays(expiryDays);
+        List<StockAlert> alerts = new ArrayList<>();
+        jdbc.query(SELECT_SQL + " WHERE expiry_date IS NOT NULL AND expiry_date <= :until AND stock_qty > 0",
+                new MapSqlParameterSource("until", until), rs -> {
+                    long id = rs.getLong("id");
+                    Instant last = expirySentAt.get(id);
+                    if (last != null && last.plus(Duration.ofHours(20)).isAfter(now)) return;
+                    expirySentAt.put(id, now);
+                    alerts.add(new StockAlert(LEVEL_EXPIRING, id, rs.getString("code"), rs.getString("name"),
+                            rs.getDouble("stock_qty"), null,
+                            rs.getDate("expiry_date").toLocalDate().toString(), now.toString()));
+                });
+        expirySentAt.entrySet().removeIf(e -> e.getValue().plus(Duration.ofDays(2)).isBefore(now));
+        publish(alerts);
+    }
+
+    /**
+     * 3) coalesce 시간 동안 보류된 마지막 상태 전송 (시간 안에 원래 상태로 돌아왔으면 보내지 않음)
+     */
+    @Scheduled(fixedDelayString = "${medicines.alerts.flush-interval-ms:30000}")
+    public void flushPending() {
+        Instant now = Instant.now();
+        List<StockAlert> alerts = new ArrayList<>();
+        synchronized (this) {
+            for (AlertState state : states.values()) {
+                if (state.pending != null && !state.sentAt.plus(coalesceWindow).isAfter(now)) {
+                    alerts.add(state.pending);
+                    state.markSent(state.pending, now);
+                }
+            }
+            // 정상으로 돌아온 뒤 coalesce 시간이 지난 품목은 상태를 지운다
+            states.values().removeIf(st -> st.level == null && st.pending == null
+                    && st.sentAt.plus(coalesceWindow).isBefore(now));
+        }
+        publish(alerts);
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    // 상태가 바뀐 경우에만 알림 생성
+    // - 마지막 전송 후 coalesce 시간이 지났으면 바로 전송, 아니면 마지막 상태만 보류 (flushPending 에서 전송)
+    // - 품절로 악화된 경우는 기다리지 않고 바로 전송
+    private StockAlert evaluate(long id, String code, String name, double stock, double threshold, Instant now) {
+        String level = stock <= 0 ? LEVEL_OUT : stock <= threshold ? LEVEL_LOW : null;
+        AlertState state = states.get(id);
+        if (state == null) {
+            if (level == null) return null;
+            state = new AlertState();
+            states.put(id, state);
+        } else if (Objects.equals(level, state.level)) {
+            return null;
+        }
+        state.level = level;
+
+        StockAlert alert = new StockAlert(level == null ? LEVEL_RECOVERED : level,
+                id, code, name, stock, threshold, null, now.toString());
+        boolean windowOpen = state.sentAt == null || !state.sentAt.plus(coalesceWindow).isAfter(now);
+        boolean escalated = LEVEL_OUT.equals(level) && !LEVEL_OUT.equals(state.sentLevel);
+        if (windowOpen || escalated) {
+            state.markSent(alert, now);
+            return alert;
+        }
+        // 보류: 이미 알린 단계로 돌아왔으면 보낼 필요 없음
+        state.pending = alert.level().equals(state.sentLevel) ? null : alert;
+        return null;
+    }
+
+    private void publish(List<StockAlert> alerts) {
+        if (alerts.isEmpty()) return;
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "stock-alerts");
+        event.put("alerts", alerts);
+        webSocketHandler.publish(alertRoom, event);
+    }
+
+    private record StockRow(long id, String code, String name, double stock, double threshold) {
+    }
+
+    // level: 현재 단계 (null = 정상) / sentLevel, sentAt: 마지막으로 보낸 알림 / pending: 보류 중인 알림
+    private static final class AlertState {
+        String level;
+        String sentLevel;
+        Instant sentAt;
+        StockAlert pending;
+
+        void markSent(StockAlert alert, Instant at) {
+            sentLevel = alert.level();
+            sentAt = at;
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.entity.StockMovement;
+import com.onliner.medicine_server.repository.MedicineRepository;
+import com.onliner.medicine_server.repository.StockMovementRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 재고 이동 원장 서비스
+ * - 모든 재고 변경은 원장(stock_movements)에 한 줄씩 쌓이고, medicines 의 재고수량/재고금액은
+ *   그 합계를 원자적 증감으로 반영한 스냅샷이다. 동시에 수정해도 서로의 증감을 덮어쓰지 않는다.
+ * - 쓰기 비용은 카탈로그 크기가 아니라 이동 건수에 비례한다.
+ * - 커밋 후 재고가 바뀐 품목만 StockAlertService 로 넘겨 알림을 판정한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class StockLedgerService {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final MedicineRepository medicineRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final StockAlertService stockAlertService;
+
+    // 원장 도입 전 데이터는 현재 스냅샷을 기초 재고로 한 번 기록
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOpeningBalances() {
+        transactionTemplate.executeWithoutResult(status -> stockMovementRepository.insertOpeningBalances());
+    }
+
+    /**
+     * 1) 원장만 기록 (스냅샷은 호출 측에서 이미 같은 트랜잭션 안에서 바꾼 경우: 엑셀 업로드)
+     */
+    public void journal(List<StockMovement> movements) {
+        stockMovementRepository.batchAppend(movements);
+    }
+
+    /**
+     * 2) 원장 기록 + 스냅샷 원자적 증감 (호출 측 트랜잭션에 참여, 없으면 새로 시작)
+     *    반환: 품목별 적용 행 수 (0 이면 해당 id 없음)
+     */
+    public int[] apply(List<StockMovement> movements) {
+        if (movements.isEmpty()) return new int[0];
+        int[] applied = transactionTemplate.execute(status -> {
+            stockMovementRepository.batchAppend(movements);
+            return stockMovementRepository.batchIncrement(movements);
+        });
+        catalogCache.invalidate(CatalogCache.Catalog.MEDICINES);
+        stockAlertService.onStockChanged(medicineIds(movements));
+        return applied;
+    }
+
+    /**
+     * 3) 개별 수정(PUT): 품목 저장과 재고 반영을 한 트랜잭션으로 처리
+     *    들어온 재고 값은 이전 값과의 차이로 바꿔 원장에 쌓는다.
+     *    반환: 반영 후 {재고수량, 재고금액} (재고 변경 없으면 null)
+     */
+    public Double[] saveManualEdit(Medicine medicine, Double fromQty, Double toQty,
+                                   Double fromAmount, Double toAmount, String reason) {
+        Long medicineId = medicine.getId();
+        boolean qtyChanged = toQty != null && !Objects.equals(fromQty, toQty);
+        boolean amountChanged = toAmount != null && !Objects.equals(fromAmount, toAmount);
+
+        Double[] stock = transactionTemplate.execute(status -> {
+            medicineRepository.save(medicine);
+            if (!qtyChanged && !amountChanged) return null;
+
+            List<StockMovement> movements = List.of(StockMovement.builder()
+                    .medicineId(medicineId)
+                    .type(StockMovement.Type.ADJUSTMENT)
+                    .qtyDelta(qtyChanged ? toQty - nz(fromQty) : 0.0)
+                    // 금액을 직접 바꾼 경우에만 금액 차이를 쓰고, 아니면 수량 × 단가
+                    .amountDelta(amountChanged ? toAmount - nz(fromAmount) : null)
+                    .reason(reason)
+                    .build());
+            stockMovementRepository.batchAppend(movements);
+            stockMovementRepository.batchIncrement(movements);
+            return stockMovementRepository.findStock(List.of(medicineId)).get(medicineId);
+        });
+        catalogCache.invalidate(CatalogCache.Catalog.MEDICINES);
+        // 안전재고/유효기간만 바뀐 경우에도 커밋 후 한 번 알림 판정
+        stockAlertService.onStockChanged(List.of(medicineId));
+        return stock;
+    }
+
+    /**
+     * 4) 코드 기준 일괄 재고 조정: 코드 조회 1회 + 원장 배치 1회 + 증감 배치 1회 + 결과 조회 1회 (한 트랜잭션)
+     *    없는 코드나 delta 누락 건은 해당 항목만 실패로 돌려준다.
+     */
+    public List<StockAdjustmentResult> adjustByCode(List<StockAdjustment> requests) {
+        Set<Long> changedIds = new HashSet<>();
+        List<StockAdjustmentResult> results = transactionTemplate.execute(status -> {
+            Set<String> codes = new HashSet<>();
+            for (StockAdjustment req : requests) {
+                if (req.code() != null) codes.add(req.code().trim());
+            }
+            Map<String, Long> idByCode = stockMovementRepository.findIdsByCode(codes);
+
+            List<StockMovement> movements = new ArrayList<>();
+            for (StockAdjustment req : requests) {
+                Long medicineId = req.code() == null ? null : idByCode.get(req.code().trim());
+                if (medicineId == null || req.delta() == null || req.delta() == 0.0) continue;
+                movements.add(StockMovement.builder()
+                        .medicineId(medicineId)
+                        .type(StockMovement.Type.ADJUSTMENT)
+                        .qtyDelta(req.delta())
+                        .reason(req.reason())
+                        .build());
+            }
+            stockMovementRepository.batchAppend(movements);
+            stockMovementRepository.batchIncrement(movements);
+            changedIds.addAll(medicineIds(movements));
+            Map<Long, Double[]> stock = stockMovementRepository.findStock(idByCode.values());
+
+            List<StockAdjustmentResult> out = new ArrayList<>(requests.size());
+            for (StockAdjustment req : requests) {
+                if (req.code() == null || req.code().isBlank()) {
+                    out.add(StockAdjustmentResult.failed(req, "code 가 비어 있습니다."));
+                    continue;
+                }
+                Long medicineId = idByCode.get(req.code().trim());
+                if (medicineId == null) {
+                    out.add(StockAdjustmentResult.failed(req, "해당 코드의 약품을 찾을 수 없습니다."));
+                } else if (req.delta() == null) {
+                    out.add(StockAdjustmentResult.failed(req, "delta 가 비어 있습니다."));
+                } else {
+                    Double[] s = stock.get(medicineId);
+                    out.add(new StockAdjustmentResult(req.code(), req.delta(), true,
+                            s == null ? null : s[0], s == null ? null : s[1], null));
+                }
+            }
+            return out;
+        });
+        catalogCache.invalidate(CatalogCache.Catalog.MEDICINES);
+        stockAlertService.onStockChanged(changedIds);
+        return results;
+    }
+
+    /**
+     * 5) 원장 합계로 스냅샷 재계산 (바로잡힌 품목 수 반환)
+     */
+    public int rebuildFromJournal() {
+        Integer fixed = transactionTemplate.execute(status -> stockMovementRepository.rebuildSnapshot());
+        catalogCache.invalidate(CatalogCache.Catalog.MEDICINES);
+        return fixed == null ? 0 : fixed;
+    }
+
+    public List<StockMovement> history(Long medicineId, int limit) {
+        return stockMovementRepository.findRecent(medicineId, Math.max(1, Math.min(limit, 1000)));
+    }
+
+    public Map<Long, Double[]> currentStock(Collection<Long> medicineIds) {
+        return stockMovementRepository.findStock(medicineIds);
+    }
+
+    // 원장 합계 (id → {수량, 금액}): 스냅샷을 직접 쓴 뒤 원장과의 차이를 구할 때 기준값
+    public Map<Long, Double[]> journalTotals(Collection<Long> medicineIds) {
+        return stockMovementRepository.sumByMedicine(medicineIds);
+    }
+
+    static Set<Long> medicineIds(List<StockMovement> movements) {
+        Set<Long> ids = new HashSet<>();
+        for (StockMovement mv : movements) ids.add(mv.getMedicineId());
+        return ids;
+    }
+
+    static double nz(Double v) {
+        return v == null ? 0.0 : v;
+    }
+}
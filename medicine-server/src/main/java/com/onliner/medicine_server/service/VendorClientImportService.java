@@ -0,0 +1,95 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import com.onliner.medicine_server.repository.VendorClientBulkRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 거래처 엑셀 업로드 → 파싱 → DB 저장
+ * - 컬럼 매핑은 VendorClientSheet.SCHEMA (헤더 이름 기준, 없으면 기본 위치)
+ * - 기존 거래처의 코드 → id 맵을 업로드 시작 시 한 번만 읽고, 행마다 코드 정확 일치로 신규/수정을 나눈다.
+ * - BATCH_SIZE 행마다 한 트랜잭션에서 INSERT 배치 1회 + UPDATE 배치 1회 + 검색 색인 갱신으로 끝낸다
+ *   (배치당 쿼리 수가 일정하므로 2만 건 거래처 파일도 한 번에 처리).
+ */
+@Service
+@RequiredArgsConstructor
+@Profile("!render-nodb")
+public class VendorClientImportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final VendorClientBulkRepository clientBulkRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final VendorClientSearchService clientSearchService;
+
+    /**
+     * 1) 엑셀 업로드 (.xlsx 는 SAX 스트리밍, .xls 는 워크북으로 자동 감지)
+     * @return 저장된 거래처 수
+     */
+    public int importExcel(File file, ImportProgress progress) throws Exception {
+        int[] saved = {0};
+        Map<String, Long> idsByCode = clientBulkRepo.loadIdsByCode();
+        // 같은 배치 안에서 코드가 중복되면 마지막 행 기준
+        Map<String, VendorClient> batch = new LinkedHashMap<>();
+
+        // 신규/수정 판단은 saveBatch 에서 코드 맵으로 하므로 행을 읽을 때는 DB 를 조회하지 않는다
+        VendorClientSheet.SCHEMA.forEachRow(file, false, (client, rowIndex) -> {
+            // “코드”가 비어 있으면 건너뜀
+            if (client.getCode().isEmpty()) return;
+            batch.put(VendorClientBulkRepository.codeKey(client.getCode()), client);
+            if (batch.size() >= BATCH_SIZE) {
+                saved[0] += saveBatch(batch, idsByCode, progress);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            saved[0] += saveBatch(batch, idsByCode, progress);
+        }
+        return saved[0];
+    }
+
+    // 배치 하나 = INSERT 배치 + UPDATE 배치 + 신규 id 조회 1회 + 검색 색인 (한 트랜잭션)
+    private int saveBatch(Map<String, VendorClient> batch, Map<String, Long> idsByCode, ImportProgress progress) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<VendorClient> inserts = new ArrayList<>();
+            List<VendorClient> updates = new ArrayList<>();
+            for (Map.Entry<String, VendorClient> e : batch.entrySet()) {
+                VendorClient client = e.getValue();
+                client.updateSearchKeys();
+                Long id = idsByCode.get(e.getKey());
+                if (id == null) {
+                    inserts.add(client);
+                } else {
+                    client.setId(id);
+                    updates.add(client);
+                }
+            }
+            clientBulkRepo.batchInsert(inserts);
+            clientBulkRepo.batchUpdate(updates);
+
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (VendorClient c : updates) ids.add(c.getId());
+            if (!inserts.isEmpty()) {
+                // 새로 생긴 id 를 맵에 넣어 두면 뒤쪽 배치의 같은 코드는 수정으로 처리된다
+                Map<String, Long> inserted = clientBulkRepo.findIdsByCode(
+                        inserts.stream().map(VendorClient::getCode).toList());
+                idsByCode.putAll(inserted);
+                ids.addAll(inserted.values());
+            }
+            clientSearchService.reindex(ids);
+        });
+        catalogCache.invalidate(CatalogCache.Catalog.VENDOR_CLIENTS);
+        progress.rowsProcessed(batch.size());
+        return batch.size();
+    }
+}
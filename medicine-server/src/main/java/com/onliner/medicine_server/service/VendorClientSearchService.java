@@ -0,0 +1,210 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import com.onliner.medicine_server.repository.VendorClientRepository;
+import com.onliner.medicine_server.repository.VendorClientSummary;
+import com.onliner.medicine_server.util.SearchText;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 거래처 검색 (?q=)
+ * - 사업자원어명/상호내부명/코드/사업자번호(숫자만)를 정규화해 vendor_client_search_grams 에 2-gram 으로 색인
+ * - 2글자 이상: 질의 2-gram 을 모두 가진 거래처만 추린 뒤 search_text 포함 여부로 확인
+ * - 1글자: 이름/코드/사업자번호 접두 검색 (각 컬럼 인덱스 사용)
+ * - 순위(코드 일치 > 사업자번호 일치 > 코드 접두 > 이름 접두 > 포함)와 개수 제한은 모두 한 SQL 안에서 처리
+ */
+@Service
+@Profile("!render-nodb")
+public class VendorClientSearchService {
+
+    private static final int BACKFILL_PAGE = 1000;
+
+    private static final String SCORE_SELECT =
+            "SELECT c.id, CASE "
+                    + "WHEN c.code = :raw THEN 100 "
+                    + "WHEN c.business_number_digits = :key THEN 95 "
+                    + "WHEN c.code LIKE :prefix THEN 90 "
+                    + "WHEN c.search_name LIKE :prefix THEN 80 "
+                    + "WHEN c.business_number_digits LIKE :prefix THEN 70 "
+                    + "WHEN c.search_name LIKE :contains THEN 60 "
+                    + "ELSE 40 END AS score ";
+
+    private static final String ORDER_LIMIT =
+            " ORDER BY score DESC, CHAR_LENGTH(c.search_name), c.search_name, c.id LIMIT :limit";
+
+    private static final String GRAM_SEARCH_SQL = SCORE_SELECT
+            + "FROM (SELECT client_id FROM vendor_client_search_grams WHERE gram IN (:grams) "
+            + "      GROUP BY client_id HAVING COUNT(*) = :gramCount) g "
+            + "JOIN vendor_clients c ON c.id = g.client_id "
+            + "WHERE c.search_text LIKE :contains"
+            + ORDER_LIMIT;
+
+    private static final String PREFIX_SEARCH_SQL = SCORE_SELECT
+            + "FROM vendor_clients c "
+            + "WHERE c.search_name LIKE :prefix OR c.code LIKE :prefix OR c.business_number_digits LIKE :prefix"
+            + ORDER_LIMIT;
+
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final JdbcTemplate jdbc;
+    private final VendorClientRepository clientRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public VendorClientSearchService(NamedParameterJdbcTemplate namedJdbc, JdbcTemplate jdbc,
+                                     VendorClientRepository clientRepo, TransactionTemplate transactionTemplate) {
+        this.namedJdbc = namedJdbc;
+        this.jdbc = jdbc;
+        this.clientRepo = clientRepo;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 1) 검색: 순위순 거래처 목록 (최대 limit 건)
+     */
+    public List<VendorClient> search(String q, int limit) {
+        List<Long> ids = searchIds(q, limit);
+        return inRankOrder(ids, clientRepo.findAllById(ids), VendorClient::getId);
+    }
+
+    /**
+     * 1-1) 검색 결과를 요약 필드만 (?view=summary)
+     */
+    public List<VendorClientSummary> searchSummaries(String q, int limit) {
+        List<Long> ids = searchIds(q, limit);
+        return inRankOrder(ids, clientRepo.findSummaries(ids), VendorClientSummary::id);
+    }
+
+    /**
+     * 1-2) 검색 결과를 선택한 필드만 (?fields=)
+     */
+    public List<Map<String, Object>> searchFields(String q, int limit, List<String> fields) {
+        List<Long> ids = searchIds(q, limit);
+        return inRankOrder(ids, clientRepo.findFields(fields, ids), row -> (Long) row.get("id"));
+    }
+
+    // 순위순 id 목록 (질의 1회)
+    private List<Long> searchIds(String q, int limit) {
+        String raw = q == null ? "" : q.trim();
+        // 사업자번호 형태("123-45")면 숫자만으로 검색
+        String key = SearchText.isNumberLike(raw) ? SearchText.digits(raw) : SearchText.normalize(raw);
+        if (key.isEmpty() || limit < 1) return List.of();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("raw", raw)
+                .addValue("key", key)
+                .addValue("prefix", SearchText.escapeLike(key) + "%")
+                .addValue("contains", "%" + SearchText.escapeLike(key) + "%")
+                .addValue("limit", limit);
+
+        String sql;
+        if (key.length() == 1) {
+            sql = PREFIX_SEARCH_SQL;
+        } else {
+            Set<String> grams = SearchText.bigrams(key);
+            params.addValue("grams", grams).addValue("gramCount", grams.size());
+            sql = GRAM_SEARCH_SQL;
+        }
+        return namedJdbc.query(sql, params, (rs, i) -> rs.getLong("id"));
+    }
+
+    // 순위 순서 유지
+    private static <R> List<R> inRankOrder(List<Long> ids, Iterable<R> rows, Function<R, Long> idOf) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, R> byId = new HashMap<>();
+        for (R row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<R> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            R row = byId.get(id);
+            if (row != null) result.add(row);
+        }
+        return result;
+    }
+
+    /**
+     * 2) 저장/수정된 거래처의 2-gram 다시 색인 (호출 측 트랜잭션에 참여)
+     */
+    public void reindex(Collection<Long> clientIds) {
+        if (clientIds.isEmpty()) return;
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", clientIds);
+        namedJdbc.update("DELETE FROM vendor_client_search_grams WHERE client_id IN (:ids)", ids);
+
+        List<Object[]> rows = new ArrayList<>();
+        namedJdbc.query("SELECT id, search_text FROM vendor_clients WHERE id IN (:ids)", ids, rs -> {
+            long id = rs.getLong("id");
+            for (String gram : gramsOf(rs.getString("search_text"))) {
+                rows.add(new Object[]{gram, id});
+            }
+        });
+        // 대소문자 무시 콜레이션에서 같은 값으로 보는 gram 이 있을 수 있어 IGNORE
+        jdbc.batchUpdate("INSERT IGNORE INTO vendor_client_search_grams (gram, client_id) VALUES (?, ?)", rows);
+    }
+
+    /**
+     * 2-1) 거래처 저장 + 색인을 한 트랜잭션으로 (색인에 실패하면 저장도 되돌린다)
+     * - 색인은 DB 의 search_text 를 읽으므로 JPA 변경을 먼저 flush 한다.
+     */
+    public VendorClient save(VendorClient client) {
+        return transactionTemplate.execute(status -> {
+            VendorClient saved = clientRepo.saveAndFlush(client);
+            reindex(List.of(saved.getId()));
+            return saved;
+        });
+    }
+
+    /**
+     * 3) 서버 기동 시: 검색 값이 없는 기존 거래처(색인 도입 전 데이터)를 채우고 색인
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        while (true) {
+            Integer done = transactionTemplate.execute(status -> {
+                List<Object[]> updates = new ArrayList<>();
+                List<Long> ids = new ArrayList<>();
+                jdbc.query("SELECT id, name_original, name_internal, code, business_number FROM vendor_clients "
+                        + "WHERE search_text IS NULL LIMIT " + BACKFILL_PAGE, rs -> {
+                    String nameOriginal = rs.getString("name_original");
+                    String businessNumber = rs.getString("business_number");
+                    updates.add(new Object[]{
+                            SearchText.normalize(nameOriginal),
+                            SearchText.digits(businessNumber),
+                            VendorClient.buildSearchText(nameOriginal, rs.getString("name_internal"),
+                                    rs.getString("code"), businessNumber),
+                            rs.getLong("id")});
+                    ids.add(rs.getLong("id"));
+                });
+                jdbc.batchUpdate("UPDATE vendor_clients SET search_name = ?, business_number_digits = ?, "
+                        + "search_text = ? WHERE id = ?", updates);
+                reindex(ids);
+                return ids.size();
+            });
+            if (done == null || done < BACKFILL_PAGE) break;
+        }
+    }
+
+    // search_text 의 구간(|)별로 2-gram 생성 (구간 경계를 넘는 gram 은 만들지 않음)
+    static Set<String> gramsOf(String searchText) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (searchText == null) return grams;
+        for (String part : searchText.split("\\|")) {
+            SearchText.addBigrams(part, grams);
+        }
+        return grams;
+    }
+}
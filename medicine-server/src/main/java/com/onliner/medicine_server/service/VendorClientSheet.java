@@ -0,0 +1,65 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import com.onliner.medicine_server.util.SheetSchema;
+
+import static com.onliner.medicine_server.util.CellConverters.DATE;
+import static com.onliner.medicine_server.util.CellConverters.DOUBLE_OR_ZERO;
+import static com.onliner.medicine_server.util.CellConverters.TRIMMED_TEXT;
+import static com.onliner.medicine_server.util.CellConverters.TRUE_TEXT;
+
+/**
+ * 거래처 엑셀 양식 (컬럼 0~41, 42번 이후(입력자, 입력일자 등)는 사용하지 않으므로 읽지 않음)
+ * - 코드가 빈 행은 getCode() 가 "" 로 나오므로 호출 측에서 건너뛴다.
+ */
+public final class VendorClientSheet {
+
+    public static final SheetSchema<VendorClient> SCHEMA = SheetSchema.of(VendorClient::new)
+            .column(0, "거래처구분|구분", TRIMMED_TEXT, VendorClient::setClassification)
+            .column(1, "코드", TRIMMED_TEXT, VendorClient::setCode)
+            .column(2, "상호내부명", TRIMMED_TEXT, VendorClient::setNameInternal)
+            .column(3, "사업자원어명", TRIMMED_TEXT, VendorClient::setNameOriginal)
+            .column(4, "대표자", TRIMMED_TEXT, VendorClient::setRepresentative)
+            .column(5, "생년월일", DATE, VendorClient::setDob)
+            .column(6, "사업자번호", TRIMMED_TEXT, VendorClient::setBusinessNumber)
+            .column(7, "전화번호", TRIMMED_TEXT, VendorClient::setPhone)
+            .column(8, "팩스번호", TRIMMED_TEXT, VendorClient::setFax)
+            .column(9, "우편번호", TRIMMED_TEXT, VendorClient::setZip)
+            .column(10, "사업장주소", TRIMMED_TEXT, VendorClient::setAddress)
+            .column(11, "영업담당", TRIMMED_TEXT, VendorClient::setSalesRep)
+            .column(12, "부서장", TRIMMED_TEXT, VendorClient::setDeptHead)
+            .column(13, "단가적용처", TRIMMED_TEXT, VendorClient::setPriceApply)
+            .column(14, "재고적용처", TRIMMED_TEXT, VendorClient::setStockApply)
+            .column(15, "계산서발행", TRUE_TEXT, VendorClient::setInvoiceIssue)
+            .column(16, "업태", TRIMMED_TEXT, VendorClient::setBusinessType)
+            .column(17, "종목", TRIMMED_TEXT, VendorClient::setItem)
+            .column(18, "거래처종류", TRIMMED_TEXT, VendorClient::setClientType)
+            .column(19, "거래처그룹", TRIMMED_TEXT, VendorClient::setClientGroup)
+            .column(20, "계약구분", TRIMMED_TEXT, VendorClient::setContractType)
+            .column(21, "배송구분", TRIMMED_TEXT, VendorClient::setDeliveryType)
+            .column(22, "약사성함", TRIMMED_TEXT, VendorClient::setPharmacist)
+            .column(23, "면허번호", TRIMMED_TEXT, VendorClient::setLicenseNo)
+            .column(24, "요양기관번호", TRIMMED_TEXT, VendorClient::setCareNo)
+            .column(25, "마약류취급자식별번호", TRIMMED_TEXT, VendorClient::setNarcoticsId)
+            .column(26, "의료기기거래처코드", TRIMMED_TEXT, VendorClient::setDeviceClient)
+            .column(27, "거래처담당자", TRIMMED_TEXT, VendorClient::setContact)
+            .column(28, "이메일", TRIMMED_TEXT, VendorClient::setEmail)
+            .column(29, "계산서담당자", TRIMMED_TEXT, VendorClient::setInvoiceManager)
+            .column(30, "담당자핸드폰", TRIMMED_TEXT, VendorClient::setManagerPhone)
+            .column(31, "여신한도", DOUBLE_OR_ZERO, VendorClient::setCreditLimit)
+            // 최대회전일, 월결재예상일은 숫자로 읽어 소수점 버림
+            .column(32, "최대회전일", DOUBLE_OR_ZERO, (c, v) -> c.setMaxTurnDays(v.intValue()))
+            .column(33, "월결재예상일", DOUBLE_OR_ZERO, (c, v) -> c.setMonthlyEstimate(v.intValue()))
+            .column(34, "거래개시일", DATE, VendorClient::setStartDate)
+            .column(35, "비고1", TRIMMED_TEXT, VendorClient::setNote1)
+            .column(36, "비고2", TRIMMED_TEXT, VendorClient::setNote2)
+            .column(37, "거래여부", TRUE_TEXT, VendorClient::setActive)
+            .column(38, "전자거래명세서", TRUE_TEXT, VendorClient::setEInvoice)
+            .column(39, "명세서전송시스템", TRIMMED_TEXT, VendorClient::setInvoiceSystem)
+            .column(40, "외부연동제외", TRUE_TEXT, VendorClient::setExternalExclude)
+            .column(41, "선결제유무", TRUE_TEXT, VendorClient::setPrePayment)
+            .build();
+
+    private VendorClientSheet() {
+    }
+}
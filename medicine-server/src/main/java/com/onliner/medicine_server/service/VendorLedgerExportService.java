@@ -0,0 +1,137 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+/**
+ * 병원 거래장 기간 내보내기 (NDJSON / CSV)
+ * - 키셋 페이지와 같은 (hospital_id, entry_date, id) 인덱스 순서로 forward-only 커서에서 읽어 바로 쓰므로
+ *   몇 년 치 거래장이어도 메모리가 일정하다.
+ */
+@Service
+@Profile("!render-nodb")
+public class VendorLedgerExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 500;
+
+    private static final String SELECT_SQL =
+            "SELECT id, entry_date, order_id, qty, unit_price, amount, remarks FROM vendor_ledger_entries "
+                    + "WHERE hospital_id = ? AND entry_date BETWEEN ? AND ? ORDER BY entry_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public VendorLedgerExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 1) NDJSON: 한 줄에 거래내역 하나 (필드 이름은 GET /ledger 응답과 같음)
+     */
+    public void writeNdjson(String hospitalId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            int[] count = {0};
+            streamRows(hospitalId, from, to, rs -> {
+                try {
+                    gen.writeStartObject();
+                    gen.writeNumberField("id", rs.getLong("id"));
+                    gen.writeStringField("date", rs.getDate("entry_date").toLocalDate().toString());
+                    gen.writeStringField("orderId", rs.getString("order_id"));
+                    gen.writeNumberField("qty", rs.getInt("qty"));
+                    gen.writeNumberField("unitPrice", rs.getBigDecimal("unit_price"));
+                    gen.writeNumberField("amount", rs.getBigDecimal("amount"));
+                    gen.writeStringField("remarks", rs.getString("remarks"));
+                    gen.writeStringField("hospitalId", hospitalId);
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                    // 첫 행은 바로, 이후에는 FLUSH_EVERY 행마다 내보낸다
+                    if (++count[0] == 1 || count[0] % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 2) CSV (UTF-8 BOM 포함: 엑셀에서 바로 열어도 한글이 깨지지 않음)
+     */
+    public void writeCsv(String hospitalId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('\uFEFF');
+        writer.write("일자,주문번호,수량,단가,금액,비고\r\n");
+        try {
+            streamRows(hospitalId, from, to, rs -> {
+                try {
+                    writer.write(rs.getDate("entry_date").toLocalDate().toString());
+                    writer.write(',');
+                    writer.write(csv(rs.getString("order_id")));
+                    writer.write(',');
+                    writer.write(Integer.toString(rs.getInt("qty")));
+                    writer.write(',');
+                    writer.write(plain(rs.getBigDecimal("unit_price")));
+                    writer.write(',');
+                    writer.write(plain(rs.getBigDecimal("amount")));
+                    writer.write(',');
+                    writer.write(csv(rs.getString("remarks")));
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    // MariaDB 드라이버는 fetchSize > 0 이면 결과를 한꺼번에 받지 않고 스트리밍한다
+    private void streamRows(String hospitalId, LocalDate from, LocalDate to, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setString(1, hospitalId);
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        }, handler);
+    }
+
+    private static String plain(BigDecimal v) {
+        return v == null ? "" : v.toPlainString();
+    }
+
+    // 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+    private static String csv(String v) {
+        if (v == null || v.isEmpty()) return "";
+        boolean quote = false;
+        for (int i = 0; i < v.length() && !quote; i++) {
+            char c = v.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? "\"" + v.replace("\"", "\"\"") + "\"" : v;
+    }
+}
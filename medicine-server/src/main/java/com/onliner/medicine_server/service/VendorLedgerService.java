@@ -2,19 +2,27 @@
 package com.onliner.medicine_server.service;
 
 import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import com.onliner.medicine_server.repository.LedgerRollupRepository;
+import com.onliner.medicine_server.repository.LedgerTotal;
+import com.onliner.medicine_server.repository.VendorLedgerBulkRepository;
 import com.onliner.medicine_server.repository.VendorLedgerEntryRepository;
-import jakarta.transaction.Transactional;
+import com.onliner.medicine_server.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
+import java.io.File;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.context.annotation.Profile;
@@ -24,11 +32,18 @@ import org.springframework.context.annotation.Profile;
 @Profile("!render-nodb")
 public class VendorLedgerService {
 
+    private static final int CHUNK_SIZE = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final VendorLedgerEntryRepository ledgerRepo;
+    private final VendorLedgerBulkRepository ledgerBulkRepo;
+    private final LedgerRollupRepository ledgerRollupRepo;
+    private final CreditExposureService creditExposureService;
+    private final TransactionTemplate transactionTemplate;
 
-    // “yyyy-MM-dd” 와 “yyyy/MM/dd” 둘 다 파싱하려고 포맷 두 개 준비
-    private final DateTimeFormatter FORMAT_HYPHEN = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private final DateTimeFormatter FORMAT_SLASH  = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    // 조회/업로드 기간 파라미터 형식
+    private static final DateTimeFormatter FORMAT_HYPHEN = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
      * 1) 거래내역 조회
@@ -44,127 +59,176 @@ public class VendorLedgerService {
     }
 
     /**
-     * 2) 엑셀 업로드 → 파싱 → DB 저장
+     * 1-1) 거래내역 키셋 페이지 (일자, id 순)
+     * - 커서에는 병원/기간도 같이 넣어, 다른 병원이나 기간의 요청에 쓰면 거절한다.
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @throws IllegalArgumentException 잘못된 기간/커서/크기, 또는 커서가 요청한 병원/기간과 다름
      */
-    
-@Transactional
-public void uploadAndSaveExcel(
-        MultipartFile file,
-        String hospitalId,
-        String fromDate,
-        String toDate
-) throws Exception {
-    // ✅ 파일명 안전하게 받아오기 (null 체크 포함)
-    String filename = file.getOriginalFilename();
-    if (filename == null) {
-        throw new IllegalArgumentException("파일 이름이 null입니다.");
+    public MedicinePage<VendorLedgerEntry> getLedgerPage(
+            String hospitalId,
+            String fromDateStr,
+            String toDateStr,
+            String cursor,
+            Integer size
+    ) {
+        LocalDate from = parsePeriod(fromDateStr);
+        LocalDate to = parsePeriod(toDateStr);
+        int limit = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (limit < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다.");
+        }
+        limit = Math.min(limit, MAX_PAGE_SIZE);
+
+        LocalDate afterDate = from;
+        long afterId = 0L;
+        if (cursor != null) {
+            // {병원, from, to, 마지막 일자, 마지막 id}
+            String[] keys = CursorCodec.decode(cursor, "ledger", 5);
+            if (!keys[0].equals(hospitalId) || !keys[1].equals(from.toString()) || !keys[2].equals(to.toString())) {
+                throw new IllegalArgumentException("커서가 요청한 병원/기간과 맞지 않습니다.");
+            }
+            try {
+                afterDate = LocalDate.parse(keys[3]);
+                afterId = Long.parseLong(keys[4]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            // 기간 밖 위치에서 이어 읽지 않도록
+            if (afterDate.isBefore(from) || afterDate.isAfter(to)) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+        // 한 건 더 읽어서 다음 페이지가 있는지 판단
+        List<VendorLedgerEntry> rows = ledgerRepo.findPageAfter(
+                hospitalId, afterDate, afterId, to, Limit.of(limit + 1));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            VendorLedgerEntry last = rows.get(limit - 1);
+            nextCursor = CursorCodec.encode("ledger", hospitalId, from.toString(), to.toString(),
+                    last.getDate().toString(), String.valueOf(last.getId()));
+        }
+        return new MedicinePage<>(rows, rows.size(), nextCursor);
     }
 
-    try (
-            InputStream is = file.getInputStream();
-            Workbook workbook = filename.endsWith(".xls")
-                    ? WorkbookFactory.create(is)      // .xls
-                    : new XSSFWorkbook(is)            // .xlsx
-    ) {
-        Sheet sheet = workbook.getSheetAt(0);
-        if (sheet == null) {
-            throw new IllegalStateException("업로드된 엑셀 파일에 시트가 없습니다.");
+    /**
+     * 2) 엑셀 업로드 → 파싱 → DB 저장 (임시 파일로 받은 뒤 한 행씩 읽음)
+     */
+    public LedgerImportResult uploadAndSaveExcel(
+            MultipartFile file,
+            String hospitalId,
+            String fromDate,
+            String toDate
+    ) throws Exception {
+        Path tempFile = Files.createTempFile("ledger-upload-", ".tmp");
+        try {
+            file.transferTo(tempFile);
+            return importExcel(tempFile.toFile(), hospitalId, fromDate, toDate, ImportProgress.NONE);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
+    }
 
-        List<VendorLedgerEntry> entries = new ArrayList<>();
-        DataFormatter formatter = new DataFormatter();
-        int rowCount = sheet.getPhysicalNumberOfRows();
-
-        for (int i = 1; i < rowCount; i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) continue;
-
-            Cell dateCell = row.getCell(1);
-            if (dateCell == null) continue;
-
-            LocalDate localDate;
-            if (dateCell.getCellType() == CellType.NUMERIC) {
-                if (DateUtil.isCellDateFormatted(dateCell)) {
-                    localDate = dateCell.getLocalDateTimeCellValue().toLocalDate();
-                } else {
-                    java.util.Date javaDate = DateUtil.getJavaDate(dateCell.getNumericCellValue());
-                    localDate = javaDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-                }
-            } else {
-                String dateString = formatter.formatCellValue(dateCell).trim();
-                if (dateString.isEmpty() || dateString.equalsIgnoreCase("소계") || dateString.equalsIgnoreCase("이월잔액")) {
-                    continue;
-                }
-                localDate = dateString.contains("/")
-                        ? LocalDate.parse(dateString, FORMAT_SLASH)
-                        : LocalDate.parse(dateString, FORMAT_HYPHEN);
-            }
+    /**
+     * 3) 엑셀 파싱 → 병원의 [from, to] 구간 교체 (비동기 작업에서도 사용)
+     * - 한 트랜잭션 안에서 구간을 한 번에 지운 뒤 CHUNK_SIZE 행마다 배치 INSERT 하므로
+     *   같은 파일을 다시 올려도 중복이 쌓이지 않고, 실패하면 기존 구간이 그대로 남는다.
+     * - .xlsx 는 SAX 스트리밍, .xls 는 워크북으로 자동 감지 (파일명이 아니라 내용으로 판별)
+     * - 일자를 읽을 수 없는 행(소계, 이월잔액, 빈 행 등)은 건너뛰고, 기간 밖 일자는 세어서 제외
+     * @throws IllegalArgumentException 기간 형식이 잘못되었거나 from 이 to 보다 늦음
+     */
+    public LedgerImportResult importExcel(
+            File file,
+            String hospitalId,
+            String fromDate,
+            String toDate,
+            ImportProgress progress
+    ) throws Exception {
+        LocalDate from = parsePeriod(fromDate);
+        LocalDate to = parsePeriod(toDate);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("기간이 올바르지 않습니다: " + fromDate + " ~ " + toDate);
+        }
 
-            Cell orderIdCell = row.getCell(2);
-            String orderId = (orderIdCell != null) ? formatter.formatCellValue(orderIdCell).trim() : "";
-
-            Cell qtyCell = row.getCell(5);
-            int qty = 0;
-            if (qtyCell != null) {
-                if (qtyCell.getCellType() == CellType.NUMERIC) {
-                    qty = (int) qtyCell.getNumericCellValue();
-                } else {
-                    String tmp = formatter.formatCellValue(qtyCell).trim();
-                    if (!tmp.isEmpty()) {
-                        try {
-                            qty = Integer.parseInt(tmp);
-                        } catch (NumberFormatException ignored) {}
+        return transactionTemplate.execute(status -> {
+            BigDecimal replacedAmount = ledgerBulkRepo.sumAmount(hospitalId, from, to);
+            int replaced = ledgerBulkRepo.deleteRange(hospitalId, from, to);
+            List<VendorLedgerEntry> entries = new ArrayList<>(CHUNK_SIZE);
+            int[] counts = {0, 0}; // 저장, 기간 밖
+            BigDecimal[] insertedAmount = {BigDecimal.ZERO};
+            try {
+                VendorLedgerSheet.SCHEMA.forEachRow(file, false, (entry, rowIndex) -> {
+                    if (entry.getDate() == null) return;
+                    if (entry.getDate().isBefore(from) || entry.getDate().isAfter(to)) {
+                        counts[1]++;
+                        return;
                     }
-                }
-            }
-
-            Cell unitPriceCell = row.getCell(7);
-            BigDecimal unitPrice = BigDecimal.ZERO;
-            if (unitPriceCell != null) {
-                if (unitPriceCell.getCellType() == CellType.NUMERIC) {
-                    unitPrice = BigDecimal.valueOf(unitPriceCell.getNumericCellValue());
-                } else {
-                    String tmp = formatter.formatCellValue(unitPriceCell).trim().replaceAll(",", "");
-                    if (!tmp.isEmpty()) {
-                        try {
-                            unitPrice = new BigDecimal(tmp);
-                        } catch (NumberFormatException ignored) {}
+                    entry.setHospitalId(hospitalId);
+                    insertedAmount[0] = insertedAmount[0].add(entry.getAmount());
+                    entries.add(entry);
+                    if (entries.size() >= CHUNK_SIZE) {
+                        counts[0] += insertChunk(entries, progress);
                     }
-                }
+                });
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("엑셀 파싱 실패: " + e.getMessage(), e);
             }
+            counts[0] += insertChunk(entries, progress);
+            // 같은 트랜잭션에서 교체한 구간의 일별/월별 집계를 다시 계산
+            ledgerRollupRepo.refresh(hospitalId, from, to);
+            // 미수 잔액은 교체 전후 금액 차이만큼만 증감
+            creditExposureService.applyLedgerDelta(hospitalId, insertedAmount[0].subtract(replacedAmount));
+            return new LedgerImportResult(replaced, counts[0], counts[1]);
+        });
+    }
 
-            Cell amountCell = row.getCell(8);
-            BigDecimal amount = BigDecimal.ZERO;
-            if (amountCell != null) {
-                if (amountCell.getCellType() == CellType.NUMERIC) {
-                    amount = BigDecimal.valueOf(amountCell.getNumericCellValue());
-                } else {
-                    String tmp = formatter.formatCellValue(amountCell).trim().replaceAll(",", "");
-                    if (!tmp.isEmpty()) {
-                        try {
-                            amount = new BigDecimal(tmp);
-                        } catch (NumberFormatException ignored) {}
-                    }
-                }
-            }
+    /**
+     * 4) 일별 집계 (from, to: yyyy-MM-dd) — 원본 행이 아니라 ledger_daily_totals 만 읽음
+     */
+    public List<LedgerTotal> getDailySummary(String hospitalId, String fromDate, String toDate) {
+        return ledgerRollupRepo.findDaily(hospitalId, parsePeriod(fromDate), parsePeriod(toDate));
+    }
 
-            Cell remarksCell = row.getCell(13);
-            String remarks = (remarksCell != null) ? formatter.formatCellValue(remarksCell).trim() : "";
-
-            VendorLedgerEntry entry = VendorLedgerEntry.builder()
-                    .hospitalId(hospitalId)
-                    .date(localDate)
-                    .orderId(orderId)
-                    .qty(qty)
-                    .unitPrice(unitPrice)
-                    .amount(amount)
-                    .remarks(remarks)
-                    .build();
-            entries.add(entry);
-        }
+    /**
+     * 5) 월별 집계 (from, to: yyyy-MM) — ledger_monthly_totals 만 읽음
+     */
+    public List<LedgerTotal> getMonthlySummary(String hospitalId, String fromMonth, String toMonth) {
+        return ledgerRollupRepo.findMonthly(hospitalId,
+                parseMonth(fromMonth).atDay(1), parseMonth(toMonth).atDay(1));
+    }
 
-        ledgerRepo.saveAll(entries);
+    // 집계 테이블이 새로 생겼으면 기존 거래장으로 한 번 채움
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRollups() {
+        if (!ledgerRollupRepo.needsBackfill()) return;
+        transactionTemplate.executeWithoutResult(status -> ledgerRollupRepo.rebuildAll());
+    }
+
+    private int insertChunk(List<VendorLedgerEntry> entries, ImportProgress progress) {
+        int size = entries.size();
+        ledgerBulkRepo.batchInsert(entries);
+        entries.clear();
+        progress.rowsProcessed(size);
+        return size;
     }
-}
 
+    private static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("월은 yyyy-MM 형식이어야 합니다: " + value);
+        }
+    }
+
+    // 기간 파라미터 (yyyy-MM-dd) — 내보내기에서도 같은 규칙 사용
+    public static LocalDate parsePeriod(String value) {
+        try {
+            return LocalDate.parse(value, FORMAT_HYPHEN);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new IllegalArgumentException("기간은 yyyy-MM-dd 형식이어야 합니다: " + value);
+        }
+    }
 }
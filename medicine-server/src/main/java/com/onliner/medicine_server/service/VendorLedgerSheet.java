@@ -0,0 +1,29 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import com.onliner.medicine_server.util.SheetSchema;
+
+import static com.onliner.medicine_server.util.CellConverters.DECIMAL_OR_ZERO;
+import static com.onliner.medicine_server.util.CellConverters.DISPLAY_TEXT;
+import static com.onliner.medicine_server.util.CellConverters.INT_OR_ZERO;
+import static com.onliner.medicine_server.util.CellConverters.SERIAL_OR_TEXT_DATE;
+
+/**
+ * 거래장 엑셀 양식 (일자 1, 주문번호 2, 수량 5, 단가 7, 금액 8, 비고 13)
+ * - 일자가 날짜가 아닌 행(소계, 이월잔액 등)은 getDate() == null 로 나오므로 호출 측에서 건너뛴다.
+ * - hospitalId 는 엑셀에 없으므로 호출 측에서 채운다.
+ */
+public final class VendorLedgerSheet {
+
+    public static final SheetSchema<VendorLedgerEntry> SCHEMA = SheetSchema.of(VendorLedgerEntry::new)
+            .column(1, "일자|거래일자", SERIAL_OR_TEXT_DATE, VendorLedgerEntry::setDate)
+            .column(2, "주문번호", DISPLAY_TEXT, VendorLedgerEntry::setOrderId)
+            .column(5, "수량", INT_OR_ZERO, VendorLedgerEntry::setQty)
+            .column(7, "단가", DECIMAL_OR_ZERO, VendorLedgerEntry::setUnitPrice)
+            .column(8, "금액", DECIMAL_OR_ZERO, VendorLedgerEntry::setAmount)
+            .column(13, "비고", DISPLAY_TEXT, VendorLedgerEntry::setRemarks)
+            .build();
+
+    private VendorLedgerSheet() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+
+/**
+ * 셀 하나 → 필드 값 변환 (col 이 -1 이면 빈 셀로 취급)
+ */
+@FunctionalInterface
+public interface CellConverter<V> {
+    V convert(RowCells row, int col);
+}
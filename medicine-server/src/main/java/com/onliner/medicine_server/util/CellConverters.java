@@ -0,0 +1,211 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 엑셀 업로드 공통 셀 변환기 (SheetSchema 에서 사용)
+ * - 모두 상태 없는 상수라 스키마 컴파일 시 한 번만 연결되고, 행마다 새로 만들지 않는다.
+ * - 숫자 문자열의 쉼표 제거는 정규식 없이 문자 단위로 처리한다.
+ */
+public final class CellConverters {
+
+    private static final DateTimeFormatter YYMMDD = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final DateTimeFormatter SLASHED = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private CellConverters() {
+    }
+
+    /**
+     * 문자열 그대로 (숫자 셀은 String.valueOf(double), 그 외는 "") — 약품 업로드 기존 규칙
+     */
+    public static final CellConverter<String> TEXT = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return "";
+        return switch (row.getKind(col)) {
+            case STRING -> raw;
+            case NUMERIC, DATE -> String.valueOf(Double.parseDouble(raw));
+            default -> "";
+        };
+    };
+
+    /**
+     * 앞뒤 공백 제거 (숫자 셀은 정수 문자열 "123") — 거래처 업로드 기존 규칙
+     */
+    public static final CellConverter<String> TRIMMED_TEXT = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return "";
+        return switch (row.getKind(col)) {
+            case STRING -> raw.trim();
+            case NUMERIC, DATE -> String.valueOf((long) Double.parseDouble(raw));
+            default -> "";
+        };
+    };
+
+    /**
+     * 화면에 보이는 값에 가깝게 (정수는 "123", 소수는 "1.5", 불리언은 "TRUE"/"FALSE") — 거래장 업로드
+     */
+    public static final CellConverter<String> DISPLAY_TEXT = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return "";
+        return switch (row.getKind(col)) {
+            case STRING -> raw.trim();
+            case NUMERIC, DATE -> {
+                double v = Double.parseDouble(raw);
+                yield v == Math.rint(v) && Math.abs(v) < 1e15
+                        ? Long.toString((long) v)
+                        : BigDecimal.valueOf(v).toPlainString();
+            }
+            case BOOLEAN -> raw.toUpperCase();
+            default -> "";
+        };
+    };
+
+    /**
+     * 숫자 (문자열은 쉼표 제거 후 파싱, 빈 셀/실패 시 0.0)
+     */
+    public static final CellConverter<Double> DOUBLE_OR_ZERO = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return 0.0;
+        try {
+            return switch (row.getKind(col)) {
+                case NUMERIC, DATE -> Double.parseDouble(raw);
+                case STRING -> Double.parseDouble(stripCommas(raw));
+                default -> 0.0;
+            };
+        } catch (NumberFormatException ex) {
+            return 0.0;
+        }
+    };
+
+    /**
+     * 정수 (숫자 셀은 소수점 버림, 문자열은 정수 형식만, 그 외 0)
+     */
+    public static final CellConverter<Integer> INT_OR_ZERO = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return 0;
+        try {
+            return switch (row.getKind(col)) {
+                case NUMERIC, DATE -> (int) Double.parseDouble(raw);
+                case STRING -> Integer.parseInt(raw.trim());
+                default -> 0;
+            };
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    };
+
+    /**
+     * 숫자 셀만 정수로, 아니면 null (약품 "No" 처럼 숫자가 아니면 건너뛸 행 판별용)
+     */
+    public static final CellConverter<Integer> NUMERIC_INT_OR_NULL = (row, col) ->
+            row.isNumeric(col) ? (int) row.getNumber(col) : null;
+
+    /**
+     * 금액 (문자열은 쉼표 제거, 빈 셀/실패 시 0)
+     */
+    public static final CellConverter<BigDecimal> DECIMAL_OR_ZERO = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return BigDecimal.ZERO;
+        try {
+            return switch (row.getKind(col)) {
+                case NUMERIC, DATE -> BigDecimal.valueOf(Double.parseDouble(raw));
+                case STRING -> {
+                    String s = stripCommas(raw);
+                    yield s.isEmpty() ? BigDecimal.ZERO : new BigDecimal(s);
+                }
+                default -> BigDecimal.ZERO;
+            };
+        } catch (NumberFormatException ex) {
+            return BigDecimal.ZERO;
+        }
+    };
+
+    /**
+     * "true"(대소문자 무시) 또는 불리언 TRUE 셀이면 true
+     */
+    public static final CellConverter<Boolean> TRUE_TEXT = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return false;
+        return switch (row.getKind(col)) {
+            case STRING -> raw.trim().equalsIgnoreCase("true");
+            case BOOLEAN -> "true".equals(raw);
+            default -> false;
+        };
+    };
+
+    /**
+     * 날짜: 날짜 서식 셀, 또는 "YYYY-MM-DD" / "YYMMDD" / "YYYYMMDD" 문자열 (그 외 null)
+     */
+    public static final CellConverter<LocalDate> DATE = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return null;
+        return switch (row.getKind(col)) {
+            case DATE -> serialDate(raw);
+            case STRING -> parseDate(raw.trim());
+            default -> null;
+        };
+    };
+
+    /**
+     * 날짜: 숫자 셀은 서식과 관계없이 엑셀 일련번호로, 문자열은 "YYYY-MM-DD" / "YYYY/MM/DD" (그 외 null)
+     */
+    public static final CellConverter<LocalDate> SERIAL_OR_TEXT_DATE = (row, col) -> {
+        String raw = row.getRaw(col);
+        if (raw == null) return null;
+        return switch (row.getKind(col)) {
+            case NUMERIC, DATE -> serialDate(raw);
+            case STRING -> parseDate(raw.trim());
+            default -> null;
+        };
+    };
+
+    // ======================= 헬퍼 메서드들 =======================
+    static String stripCommas(String s) {
+        int comma = s.indexOf(',');
+        String t = s;
+        if (comma >= 0) {
+            StringBuilder sb = new StringBuilder(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c != ',') sb.append(c);
+            }
+            t = sb.toString();
+        }
+        return t.trim();
+    }
+
+    private static LocalDate serialDate(String raw) {
+        try {
+            return DateUtil.getLocalDateTime(Double.parseDouble(raw)).toLocalDate();
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    // 길이와 구분자로 형식을 골라 한 번만 파싱
+    private static LocalDate parseDate(String s) {
+        if (s.isEmpty()) return null;
+        try {
+            if (s.length() == 6 && allDigits(s)) return LocalDate.parse(s, YYMMDD);
+            if (s.length() == 8 && allDigits(s)) return LocalDate.parse(s, DateTimeFormatter.BASIC_ISO_DATE);
+            if (s.indexOf('/') >= 0) return LocalDate.parse(s, SLASHED);
+            return LocalDate.parse(s, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static boolean allDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.onliner.medicine_server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 키셋 페이지네이션용 커서(continuation token) 인코딩
+ * - 마지막 행의 정렬 키들을 구분자로 이어 붙이고, 뒤에 SHA-256 앞 8바이트를 붙여 URL-safe Base64 로 감싼다.
+ * - 첫 번째 값은 커서 종류(정렬 기준)로 써서 다른 정렬의 커서가 섞여 들어오면 거절한다.
+ * - 체크섬이 맞지 않으면(잘렸거나 손으로 고친 커서) 거절한다. 비밀키가 없는 체크섬이므로 서명은 아니며,
+ *   커서 값은 호출한 쪽에서 다시 검증해야 한다.
+ */
+public class CursorCodec {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final int CHECKSUM_BYTES = 8;
+
+    public static String encode(String kind, String... keys) {
+        StringBuilder sb = new StringBuilder(kind);
+        for (String key : keys) {
+            sb.append(SEPARATOR).append(key);
+        }
+        byte[] payload = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] token = Arrays.copyOf(payload, payload.length + CHECKSUM_BYTES);
+        System.arraycopy(checksum(payload), 0, token, payload.length, CHECKSUM_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * @return 정렬 키 배열 (kind 제외)
+     * @throws IllegalArgumentException 형식이 잘못됐거나, 체크섬이 맞지 않거나, 종류가 다른 커서
+     */
+    public static String[] decode(String token, String kind, int keyCount) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (bytes.length <= CHECKSUM_BYTES) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        byte[] payload = Arrays.copyOf(bytes, bytes.length - CHECKSUM_BYTES);
+        byte[] expected = Arrays.copyOfRange(checksum(payload), 0, CHECKSUM_BYTES);
+        byte[] actual = Arrays.copyOfRange(bytes, payload.length, bytes.length);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+
+        String raw = new String(payload, StandardCharsets.UTF_8);
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(kind)) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        String[] keys = new String[keyCount];
+        System.arraycopy(parts, 1, keys, 0, keyCount);
+        return keys;
+    }
+
+    private static byte[] checksum(byte[] payload) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(payload);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
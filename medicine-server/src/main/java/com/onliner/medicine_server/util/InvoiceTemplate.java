@@ -0,0 +1,96 @@
+package com.onliner.medicine_server.util;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.LayerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 한 번 파싱해 두고 여러 요청이 같이 쓰는 거래명세서 양식
+ * - 파일 내용을 메모리에 올린 뒤 파싱하므로 열린 파일 핸들이 남지 않는다. (close 하지 않고 버려도 GC 로 정리됨)
+ * - PDDocument 는 스레드 안전하지 않으므로 양식을 읽는 작업(폼 복제, 렌더링)은 이 객체 단위로 직렬화한다.
+ *   폼 복제는 밀리초 단위라 잠금 구간이 짧다.
+ */
+public class InvoiceTemplate implements Closeable {
+
+    private final String source;
+    private final String fingerprint;
+    private final PDDocument document;
+    private final int pageCount;
+    private PDFRenderer renderer;
+
+    private InvoiceTemplate(String source, String fingerprint, PDDocument document) {
+        this.source = source;
+        this.fingerprint = fingerprint;
+        this.document = document;
+        this.pageCount = document.getNumberOfPages();
+    }
+
+    public static InvoiceTemplate load(String source, byte[] pdfBytes) throws IOException {
+        PDDocument document = PDDocument.load(new ByteArrayInputStream(pdfBytes), "", MemoryUsageSetting.setupMainMemoryOnly());
+        if (document.getNumberOfPages() == 0) {
+            document.close();
+            throw new IOException("양식 PDF 에 페이지가 없습니다: " + source);
+        }
+        return new InvoiceTemplate(source, sha256(pdfBytes), document);
+    }
+
+    public static InvoiceTemplate load(File file) throws IOException {
+        return load(file.getPath(), Files.readAllBytes(file.toPath()));
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // 양식 파일 내용의 SHA-256 (합성 결과 캐시 키에 포함해 양식이 바뀌면 캐시가 자연히 갈리게 한다)
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    // 내용 페이지 번호에 맞는 양식 페이지 (양식보다 많으면 마지막 페이지를 반복)
+    public int pageIndexFor(int contentPageIndex) {
+        return Math.min(contentPageIndex, pageCount - 1);
+    }
+
+    // 1) 양식 페이지를 대상 문서(LayerUtility 의 문서)로 복제한 폼 XObject
+    public synchronized PDFormXObject importPage(LayerUtility layerUtility, int pageIndex) throws IOException {
+        return layerUtility.importPageAsForm(document, pageIndex);
+    }
+
+    // 2) 이미지 합성(대체 경로)용 렌더링
+    public synchronized BufferedImage render(int pageIndex, float dpi) throws IOException {
+        if (renderer == null) {
+            renderer = new PDFRenderer(document);
+        }
+        return renderer.renderImageWithDPI(pageIndex, dpi);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        document.close();
+    }
+}
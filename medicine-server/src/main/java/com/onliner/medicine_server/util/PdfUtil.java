@@ -1,38 +1,57 @@
 package com.onliner.medicine_server.util;
 
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.multipdf.LayerUtility;
+import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PdfUtil {
 
+    private static final Logger log = LoggerFactory.getLogger(PdfUtil.class);
+
     public static String parseAndDedupeText(File pdfFile) throws IOException {
         try (PDDocument document = PDDocument.load(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String rawText = stripper.getText(document);
-
-            String[] lines = rawText.split("\\r?\\n");
-            Set<String> seen = new LinkedHashSet<>();
-            for (String line : lines) {
-                String t = line.trim();
-                if (t.isEmpty() || seen.contains(t))
-                    continue;
-                seen.add(t);
-            }
-            return String.join("\n", seen);
+            return parseAndDedupeText(document);
+        }
+    }
+
+    // 이미 파싱된 문서에서 추출 (업로드 문서를 합성 단계와 같이 쓸 때)
+    public static String parseAndDedupeText(PDDocument document) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        String rawText = stripper.getText(document);
+
+        String[] lines = rawText.split("\\r?\\n");
+        Set<String> seen = new LinkedHashSet<>();
+        for (String line : lines) {
+            String t = line.trim();
+            if (t.isEmpty() || seen.contains(t))
+                continue;
+            seen.add(t);
         }
+        return String.join("\n", seen);
     }
 
     public static String extractHospitalName(String parsedText, String originalFilename) {
@@ -66,18 +85,116 @@ public class PdfUtil {
         return String.valueOf(System.currentTimeMillis());
     }
 
-    public static void overlayTemplate(String templatePath, String contentPath, String outputPath) throws IOException {
-        try (PDDocument templateDoc = PDDocument.load(new File(templatePath));
-                PDDocument contentDoc = PDDocument.load(new File(contentPath));
-                PDDocument outputDoc = new PDDocument()) {
+    /**
+     * 양식 PDF 위에 거래명세서 내용을 겹쳐 저장
+     * - 기본은 벡터 방식(overlayTemplateVector): 텍스트가 그대로 남아 파일이 작고 검색이 된다.
+     * - 벡터 방식이 실패한 문서만 300 DPI 이미지 합성(overlayTemplateRaster)으로 다시 만든다.
+     *   실패하면 벡터 방식이 바꾼 페이지를 원래대로 되돌리고, 쓰다 만 출력 파일을 지운 뒤 다시 만든다.
+     * - 양식은 InvoiceTemplateRegistry 가 미리 파싱해 둔 것을, 내용은 이미 파싱된 문서를 넘겨받는다.
+     *   (경로 버전은 매번 읽음)
+     */
+    public static void overlayTemplate(InvoiceTemplate template, PDDocument contentDoc, String outputPath) throws IOException {
+        try {
+            overlayTemplateVector(template, contentDoc, outputPath);
+        } catch (IOException | RuntimeException e) {
+            // 일부 PDF 는 벡터 합성이 안 되는 것이 정상 경로이므로 스택 없이 남긴다
+            log.info("vector overlay failed for {}, using raster: {}", outputPath, e.toString());
+            Files.deleteIfExists(Paths.get(outputPath));
+            overlayTemplateRaster(template, contentDoc, outputPath);
+        }
+    }
 
-            PDFRenderer templateRenderer = new PDFRenderer(templateDoc);
-            PDFRenderer contentRenderer = new PDFRenderer(contentDoc);
+    public static void overlayTemplate(InvoiceTemplate template, String contentPath, String outputPath) throws IOException {
+        try (PDDocument contentDoc = PDDocument.load(new File(contentPath))) {
+            overlayTemplate(template, contentDoc, outputPath);
+        }
+    }
 
-            int pageCount = Math.min(templateDoc.getNumberOfPages(), contentDoc.getNumberOfPages());
+    public static void overlayTemplate(String templatePath, String contentPath, String outputPath) throws IOException {
+        try (InvoiceTemplate template = InvoiceTemplate.load(new File(templatePath))) {
+            overlayTemplate(template, contentPath, outputPath);
+        }
+    }
 
+    // 양식 페이지를 폼 XObject 로 가져와 원본 내용 스트림 "아래"에 깔고 저장 (렌더링 없음, contentDoc 을 직접 수정)
+    // 내용 페이지가 양식보다 많으면 마지막 양식 페이지를 반복해서 쓴다
+    // 중간에 실패하면 모든 페이지의 내용 스트림 / 리소스를 원래 값으로 되돌린 뒤 예외를 다시 던진다
+    public static void overlayTemplateVector(InvoiceTemplate template, PDDocument contentDoc, String outputPath) throws IOException {
+        int pageCount = contentDoc.getNumberOfPages();
+        COSBase[] originalContents = new COSBase[pageCount];
+        COSBase[] originalResources = new COSBase[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            COSDictionary pageDict = contentDoc.getPage(i).getCOSObject();
+            originalContents[i] = pageDict.getItem(COSName.CONTENTS);
+            originalResources[i] = pageDict.getItem(COSName.RESOURCES);
+        }
+
+        try {
+            drawTemplateUnder(template, contentDoc);
+            contentDoc.save(outputPath);
+        } catch (IOException | RuntimeException e) {
             for (int i = 0; i < pageCount; i++) {
-                BufferedImage templateImage = templateRenderer.renderImageWithDPI(i, 300);
+                COSDictionary pageDict = contentDoc.getPage(i).getCOSObject();
+                pageDict.setItem(COSName.CONTENTS, originalContents[i]);
+                pageDict.setItem(COSName.RESOURCES, originalResources[i]);
+            }
+            throw e;
+        }
+    }
+
+    private static void drawTemplateUnder(InvoiceTemplate template, PDDocument contentDoc) throws IOException {
+        LayerUtility layerUtility = new LayerUtility(contentDoc);
+        Map<Integer, PDFormXObject> forms = new HashMap<>();
+
+        for (int i = 0; i < contentDoc.getNumberOfPages(); i++) {
+            int templateIndex = template.pageIndexFor(i);
+            PDFormXObject form = forms.get(templateIndex);
+            if (form == null) {
+                form = template.importPage(layerUtility, templateIndex);
+                forms.put(templateIndex, form);
+            }
+
+            PDPage page = contentDoc.getPage(i);
+            detachResources(page);
+            PDRectangle box = page.getMediaBox();
+            PDRectangle formBox = form.getBBox();
+            float sx = box.getWidth() / formBox.getWidth();
+            float sy = box.getHeight() / formBox.getHeight();
+
+            // PREPEND: 양식을 먼저 그리고 원래 내용이 그 위에 그려지게 한다
+            try (PDPageContentStream contentStream = new PDPageContentStream(contentDoc, page,
+                    AppendMode.PREPEND, true)) {
+                contentStream.saveGraphicsState();
+                contentStream.transform(new Matrix(sx, 0, 0, sy,
+                        box.getLowerLeftX() - formBox.getLowerLeftX() * sx,
+                        box.getLowerLeftY() - formBox.getLowerLeftY() * sy));
+                contentStream.drawForm(form);
+                contentStream.restoreGraphicsState();
+            }
+        }
+    }
+
+    // 여러 페이지가 같이 쓰는(상속된) 리소스에 폼이 추가되지 않도록 페이지 전용 사본으로 바꾼다
+    // 사본은 얕은 복사라 기존 폰트/이미지 스트림은 그대로 공유한다 (리소스가 없는 빈 페이지는 새로 만든다)
+    private static void detachResources(PDPage page) {
+        PDResources current = page.getResources();
+        COSDictionary resources = current == null ? new COSDictionary() : new COSDictionary(current.getCOSObject());
+        if (resources.getDictionaryObject(COSName.XOBJECT) instanceof COSDictionary xobjects) {
+            resources.setItem(COSName.XOBJECT, new COSDictionary(xobjects));
+        }
+        page.setResources(new PDResources(resources));
+    }
+
+    // 이전 방식: 두 문서를 300 DPI 이미지로 렌더링해 합성 (벡터 방식 실패 시 대체용)
+    // 합성 이미지는 임시 PNG 없이 바로 무손실(Flate) 이미지로 넣는다
+    public static void overlayTemplateRaster(InvoiceTemplate template, PDDocument contentDoc, String outputPath) throws IOException {
+        try (PDDocument outputDoc = new PDDocument()) {
+
+            PDFRenderer contentRenderer = new PDFRenderer(contentDoc);
+
+            // 내용 페이지는 모두 내보내고, 양식보다 많으면 벡터 방식처럼 마지막 양식 페이지를 반복한다
+            for (int i = 0; i < contentDoc.getNumberOfPages(); i++) {
+                BufferedImage templateImage = template.render(template.pageIndexFor(i), 300);
                 BufferedImage contentImage = contentRenderer.renderImageWithDPI(i, 300);
 
                 int width = Math.max(templateImage.getWidth(), contentImage.getWidth());
@@ -87,13 +204,10 @@ public class PdfUtil {
                 combined.getGraphics().drawImage(templateImage, 0, 0, null);
                 combined.getGraphics().drawImage(contentImage, 0, 0, null);
 
-                File tempImageFile = File.createTempFile("combined_" + i, ".png");
-                ImageIO.write(combined, "png", tempImageFile);
-
                 PDPage outputPage = new PDPage();
                 outputDoc.addPage(outputPage);
 
-                PDImageXObject image = PDImageXObject.createFromFileByContent(tempImageFile, outputDoc);
+                PDImageXObject image = LosslessFactory.createFromImage(outputDoc, combined);
 
                 try (PDPageContentStream contentStream = new PDPageContentStream(outputDoc, outputPage,
                         AppendMode.OVERWRITE, false)) {
@@ -101,8 +215,6 @@ public class PdfUtil {
                             outputPage.getMediaBox().getWidth(),
                             outputPage.getMediaBox().getHeight());
                 }
-
-                tempImageFile.delete();
             }
 
             outputDoc.save(outputPath);
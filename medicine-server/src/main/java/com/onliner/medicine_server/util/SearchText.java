@@ -0,0 +1,64 @@
+package com.onliner.medicine_server.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 검색용 문자열 정규화
+ * - normalize: 공백 제거 + 소문자
+ * - digits: 숫자만 (사업자번호 "123-45-67890" → "1234567890")
+ * - bigrams: 정규화된 문자열의 2-gram 집합
+ */
+public class SearchText {
+
+    public static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    public static String digits(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // 숫자, 하이픈, 공백만으로 된 질의 (사업자번호 검색)
+    public static boolean isNumberLike(String s) {
+        if (s == null || s.isBlank()) return false;
+        boolean hasDigit = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') hasDigit = true;
+            else if (c != '-' && !Character.isWhitespace(c)) return false;
+        }
+        return hasDigit;
+    }
+
+    public static Set<String> bigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        addBigrams(normalized, grams);
+        return grams;
+    }
+
+    public static void addBigrams(String normalized, Set<String> grams) {
+        for (int i = 0; i + 2 <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + 2));
+        }
+    }
+
+    // LIKE 패턴용 이스케이프 (\ % _)
+    public static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
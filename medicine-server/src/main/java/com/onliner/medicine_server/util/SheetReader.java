@@ -0,0 +1,69 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.util.XlsxStreamReader.CellKind;
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+import com.onliner.medicine_server.util.XlsxStreamReader.RowHandler;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+import java.io.File;
+
+/**
+ * 엑셀 파일을 한 행씩 RowCells 로 읽어 넘기는 공통 리더
+ * - .xlsx: XlsxStreamReader (SAX, 메모리 일정)
+ * - .xls : 워크북(DOM)으로 연 뒤 같은 RowCells 형식으로 변환
+ * 파일 형식은 확장자가 아니라 파일 앞부분(매직 넘버)으로 판단한다.
+ */
+public class SheetReader {
+
+    public static void read(File file, int maxColumns, RowHandler handler) throws Exception {
+        if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+            XlsxStreamReader.read(file, maxColumns, handler);
+        } else {
+            readWorkbook(file, maxColumns, handler);
+        }
+    }
+
+    /**
+     * 워크북(DOM) 방식으로 읽기: .xls 이거나 수식 셀 결과값이 필요한 경우
+     */
+    public static void readWorkbook(File file, int maxColumns, RowHandler handler) throws Exception {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                throw new IllegalStateException("업로드된 엑셀 파일에 시트가 없습니다.");
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            RowCells cells = new RowCells(maxColumns);
+            for (Row row : sheet) {
+                cells.reset(row.getRowNum());
+                int last = Math.min(row.getLastCellNum(), maxColumns);
+                for (int c = 0; c < last; c++) {
+                    copyCell(row.getCell(c), c, cells);
+                }
+                handler.handleRow(cells);
+            }
+        }
+    }
+
+    // ======================= 헬퍼 메서드들 =======================
+    private static void copyCell(Cell cell, int col, RowCells cells) {
+        if (cell == null) return;
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        switch (type) {
+            case STRING -> {
+                String v = cell.getStringCellValue();
+                if (!v.isEmpty()) cells.set(col, v, CellKind.STRING);
+            }
+            case NUMERIC -> cells.set(col, Double.toString(cell.getNumericCellValue()),
+                    DateUtil.isCellDateFormatted(cell) ? CellKind.DATE : CellKind.NUMERIC);
+            case BOOLEAN -> cells.set(col, cell.getBooleanCellValue() ? "true" : "false", CellKind.BOOLEAN);
+            default -> { } // BLANK, ERROR
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 엑셀 업로드 스키마: 컬럼(헤더 / 기본 위치) → 변환기 → 필드
+ * - compile(헤더 행) 에서 헤더 이름으로 실제 컬럼 위치를 한 번 찾아 (위치, 변환, setter) 를 묶은
+ *   바인딩 배열로 만든다. 헤더가 없거나 이름이 다르면 기본 위치를 쓴다.
+ * - 행 처리는 바인딩 배열을 한 번 도는 것뿐이라 대상 객체 외에는 거의 할당하지 않는다.
+ *
+ * 예) SheetSchema.of(Medicine::new)
+ *         .column(4, "제품명", CellConverters.TEXT, Medicine::setName)
+ *         .build();
+ */
+public final class SheetSchema<T> {
+
+    // 헤더에서 찾은 컬럼이 기본 위치보다 오른쪽에 있을 수 있으므로 여유 있게 읽는다
+    private static final int MIN_WIDTH = 64;
+
+    @FunctionalInterface
+    public interface Binding<T> {
+        void apply(T target, RowCells row);
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer<T> {
+        void accept(T item, int rowIndex) throws Exception;
+    }
+
+    private final Supplier<T> factory;
+    private final List<Column<T, ?>> columns;
+    private final int width;
+
+    private SheetSchema(Supplier<T> factory, List<Column<T, ?>> columns) {
+        this.factory = factory;
+        this.columns = List.copyOf(columns);
+        int maxIndex = 0;
+        for (Column<T, ?> c : columns) {
+            maxIndex = Math.max(maxIndex, c.defaultIndex);
+        }
+        this.width = Math.max(MIN_WIDTH, maxIndex + 1);
+    }
+
+    public static <T> Builder<T> of(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    // 리더에 넘길 최대 컬럼 수
+    public int width() {
+        return width;
+    }
+
+    /**
+     * 파일을 읽으며 0번 행(헤더)으로 스키마를 컴파일하고, 이후 행마다 변환된 객체를 넘긴다.
+     * @param workbook true 면 .xlsx 도 워크북(DOM)으로 읽음 (기본은 .xlsx 스트리밍 / .xls 워크북)
+     */
+    public void forEachRow(File file, boolean workbook, RowConsumer<T> consumer) throws Exception {
+        Object[] compiled = new Object[1];
+        XlsxStreamReader.RowHandler handler = row -> {
+            if (row.getRowIndex() < 1) {
+                if (row.getRowIndex() == 0) compiled[0] = compile(row);
+                return;
+            }
+            if (compiled[0] == null) compiled[0] = compile(null); // 헤더 행이 비어 있으면 기본 위치
+            @SuppressWarnings("unchecked")
+            Compiled<T> mapper = (Compiled<T>) compiled[0];
+            consumer.accept(mapper.map(row), row.getRowIndex());
+        };
+        if (workbook) {
+            SheetReader.readWorkbook(file, width, handler);
+        } else {
+            SheetReader.read(file, width, handler);
+        }
+    }
+
+    /**
+     * 헤더 행으로 컬럼 위치를 확정해 바인딩 배열 생성 (header 가 null 이면 기본 위치)
+     */
+    public Compiled<T> compile(RowCells header) {
+        Binding<T>[] bindings = newBindings(columns.size());
+        for (int i = 0; i < bindings.length; i++) {
+            Column<T, ?> column = columns.get(i);
+            bindings[i] = column.bind(resolve(column, header));
+        }
+        return new Compiled<>(factory, bindings);
+    }
+
+    // 제네릭 배열은 직접 만들 수 없으므로 와일드카드 배열을 만들어 캐스팅 (원소는 compile 에서만 채움)
+    @SuppressWarnings("unchecked")
+    private static <T> Binding<T>[] newBindings(int size) {
+        return (Binding<T>[]) new Binding<?>[size];
+    }
+
+    private int resolve(Column<T, ?> column, RowCells header) {
+        if (header != null && column.headers.length > 0) {
+            for (int c = 0; c < header.getWidth(); c++) {
+                String name = header.getRaw(c);
+                if (name == null) continue;
+                String key = normalizeHeader(name);
+                for (String h : column.headers) {
+                    if (h.equals(key)) return c;
+                }
+            }
+        }
+        return column.defaultIndex;
+    }
+
+    // 공백 제거 + 소문자 ("재고 수량" == "재고수량")
+    static String normalizeHeader(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (!Character.isWhitespace(ch)) sb.append(Character.toLowerCase(ch));
+        }
+        return sb.toString();
+    }
+
+    // ======================= 컴파일 결과 =======================
+    public static final class Compiled<T> {
+        private final Supplier<T> factory;
+        private final Binding<T>[] bindings;
+
+        private Compiled(Supplier<T> factory, Binding<T>[] bindings) {
+            this.factory = factory;
+            this.bindings = bindings;
+        }
+
+        public T map(RowCells row) {
+            T target = factory.get();
+            for (Binding<T> binding : bindings) {
+                binding.apply(target, row);
+            }
+            return target;
+        }
+    }
+
+    // ======================= 빌더 =======================
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * @param defaultIndex 헤더로 찾지 못했을 때 쓸 위치 (0부터)
+         * @param headers      헤더 이름 후보 (공백/대소문자 무시)
+         */
+        public <V> Builder<T> column(int defaultIndex, String headers, CellConverter<V> converter,
+                                     BiConsumer<T, V> setter) {
+            columns.add(new Column<>(defaultIndex, headers, converter, setter));
+            return this;
+        }
+
+        public SheetSchema<T> build() {
+            return new SheetSchema<>(factory, columns);
+        }
+    }
+
+    private static final class Column<T, V> {
+        final int defaultIndex;
+        final String[] headers;
+        final CellConverter<V> converter;
+        final BiConsumer<T, V> setter;
+
+        // headers: "|" 로 구분한 후보 목록 (빈 문자열이면 기본 위치만 사용)
+        Column(int defaultIndex, String headers, CellConverter<V> converter, BiConsumer<T, V> setter) {
+            this.defaultIndex = defaultIndex;
+            this.headers = headers == null || headers.isEmpty()
+                    ? new String[0]
+                    : splitHeaders(headers);
+            this.converter = converter;
+            this.setter = setter;
+        }
+
+        Binding<T> bind(int col) {
+            CellConverter<V> conv = converter;
+            BiConsumer<T, V> set = setter;
+            return (target, row) -> set.accept(target, conv.convert(row, col));
+        }
+
+        private static String[] splitHeaders(String headers) {
+            String[] parts = headers.split("\\|");
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = normalizeHeader(parts[i]);
+            }
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.onliner.medicine_server.util;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * XSSF 이벤트 모델(SAX) 기반 .xlsx 스트리밍 리더
+ * - 워크북 전체를 메모리에 올리지 않고 첫 번째 시트를 한 행씩 읽어 콜백으로 넘긴다.
+ * - 행 버퍼(RowCells)는 재사용되므로 콜백 밖으로 참조를 넘기지 말 것.
+ * - .xls 까지 받으려면 SheetReader 를 사용 (같은 RowCells 로 읽어 준다)
+ */
+public class XlsxStreamReader {
+
+    public enum CellKind { BLANK, STRING, NUMERIC, DATE, BOOLEAN }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void handleRow(RowCells row) throws Exception;
+    }
+
+    /**
+     * 첫 번째 시트를 읽으며 행마다 handler 호출 (0번 행 = 헤더)
+     * OPCPackage 를 File 로 열어야 zip 엔트리를 통째로 버퍼링하지 않는다.
+     */
+    public static void read(File xlsx, int maxColumns, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(xlsx, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            // false: 공유 문자열의 읽기 표시(<rPh>)는 값에 넣지 않음
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalStateException("업로드된 엑셀 파일에 시트가 없습니다.");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, styles, new RowCells(maxColumns), handler));
+                parser.parse(new InputSource(sheet));
+            } catch (SAXException e) {
+                // 콜백에서 던진 예외는 SAXException 으로 감싸져 올라오므로 원래 예외로 되돌린다
+                if (e.getException() != null) {
+                    throw e.getException();
+                }
+                throw e;
+            }
+        }
+    }
+
+    // ======================= 행 버퍼 =======================
+    public static final class RowCells {
+        private final String[] values;
+        private final CellKind[] kinds;
+        private int rowIndex;
+
+        RowCells(int width) {
+            this.values = new String[width];
+            this.kinds = new CellKind[width];
+            reset(-1);
+        }
+
+        void reset(int rowIndex) {
+            this.rowIndex = rowIndex;
+            Arrays.fill(values, null);
+            Arrays.fill(kinds, CellKind.BLANK);
+        }
+
+        void set(int col, String value, CellKind kind) {
+            if (col < 0 || col >= values.length) return;
+            values[col] = value;
+            kinds[col] = kind;
+        }
+
+        public int getRowIndex() {
+            return rowIndex;
+        }
+
+        public int getWidth() {
+            return values.length;
+        }
+
+        // 범위 밖(헤더에서 찾지 못한 컬럼 = -1 포함)은 빈 셀
+        public CellKind getKind(int col) {
+            return col >= 0 && col < kinds.length ? kinds[col] : CellKind.BLANK;
+        }
+
+        public boolean isNumeric(int col) {
+            CellKind kind = getKind(col);
+            return kind == CellKind.NUMERIC || kind == CellKind.DATE;
+        }
+
+        // 셀 원본 텍스트 (숫자 셀은 xml 에 기록된 값 그대로, 빈 셀은 null)
+        public String getRaw(int col) {
+            return col >= 0 && col < values.length ? values[col] : null;
+        }
+
+        // 숫자 셀(isNumeric)에서만 호출 (범위 밖은 getKind 가 BLANK 이므로 여기까지 오지 않음)
+        public double getNumber(int col) {
+            if (col < 0 || col >= values.length || values[col] == null) {
+                throw new IllegalArgumentException("숫자 셀이 아닙니다: " + col);
+            }
+            return Double.parseDouble(values[col]);
+        }
+    }
+
+    // ======================= SAX 핸들러 =======================
+    private static final class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final RowCells row;
+        private final RowHandler handler;
+        private final Map<Integer, Boolean> dateStyleCache = new HashMap<>();
+        private final StringBuilder text = new StringBuilder(64);
+
+        private int nextRowIndex;
+        private int col;
+        private String cellType;
+        private int styleIndex;
+        private boolean capturing;
+        private int phoneticDepth;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles,
+                     RowCells row, RowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.row = row;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attrs.getValue("r");
+                    row.reset(r != null ? Integer.parseInt(r) - 1 : nextRowIndex);
+                    col = -1;
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    col = ref != null ? columnIndex(ref) : col + 1;
+                    cellType = attrs.getValue("t");
+                    String s = attrs.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : -1;
+                    text.setLength(0);
+                    phoneticDepth = 0;
+                }
+                // 읽기 표시(<rPh>) 안의 <t> 는 셀 값이 아니므로 모으지 않는다 (<is> 또는 <r> 바로 아래만)
+                case "v" -> capturing = true;
+                case "t" -> capturing = phoneticDepth == 0;
+                case "rPh" -> phoneticDepth++;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "rPh" -> phoneticDepth--;
+                case "c" -> endCell();
+                case "row" -> {
+                    nextRowIndex = row.getRowIndex() + 1;
+                    try {
+                        handler.handleRow(row);
+                    } catch (Exception e) {
+                        throw new SAXException(e);
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        private void endCell() {
+            if (text.isEmpty()) return;
+            String raw = text.toString();
+            if (cellType == null || cellType.equals("n")) {
+                row.set(col, raw, isDateStyle(styleIndex) ? CellKind.DATE : CellKind.NUMERIC);
+                return;
+            }
+            switch (cellType) {
+                case "s" -> {
+                    // 빈 문자열 셀은 워크북 경로(SheetReader)와 같이 빈 셀로 본다
+                    String value = sharedStrings.getItemAt(Integer.parseInt(raw)).getString();
+                    if (!value.isEmpty()) row.set(col, value, CellKind.STRING);
+                }
+                case "inlineStr", "str" -> row.set(col, raw, CellKind.STRING);
+                case "b" -> row.set(col, "1".equals(raw) ? "true" : "false", CellKind.BOOLEAN);
+                default -> { } // "e"(오류) 등은 빈 셀 취급
+            }
+        }
+
+        private boolean isDateStyle(int idx) {
+            if (idx < 0 || styles == null) return false;
+            return dateStyleCache.computeIfAbsent(idx, key -> {
+                XSSFCellStyle style = styles.getStyleAt(key);
+                return style != null
+                        && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        // "AB12" → 27
+        private static int columnIndex(String ref) {
+            int idx = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') break;
+                idx = idx * 26 + (c - 'A' + 1);
+            }
+            return idx - 1;
+        }
+    }
+}
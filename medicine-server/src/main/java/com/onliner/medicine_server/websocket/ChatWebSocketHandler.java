@@ -47,8 +47,12 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             Claims claims = jwtService.parseToken(token);
             String subject = claims.getSubject();
             String role = claims.get("role", String.class);
+            String companyCode = claims.get("companyCode", String.class);
             session.getAttributes().put("userId", subject);
             session.getAttributes().put("role", role);
+            if (companyCode != null) {
+                session.getAttributes().put("companyCode", companyCode.trim().toLowerCase());
+            }
         } catch (JwtException ex) {
             session.close(CloseStatus.NOT_ACCEPTABLE.withReason("invalid token"));
             return;
@@ -77,6 +81,10 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         switch (type) {
             case "subscribe" -> {
                 if (!roomId.isBlank()) {
+                    if (isVendorRoom(roomId) && !canJoinVendorRoom(roomId, session)) {
+                        sendError(session, "forbidden room: " + roomId);
+                        return;
+                    }
                     joinRoom(roomId, session);
                 }
             }
@@ -93,7 +101,8 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
                 }
             }
             default -> {
-                if (!roomId.isBlank()) {
+                // 업체 알림 방은 서버만 발행
+                if (!roomId.isBlank() && !isVendorRoom(roomId)) {
                     data.putIfAbsent("senderId", session.getAttributes().get("userId"));
                     data.putIfAbsent("serverTimestamp", Instant.now().toString());
                     broadcastToRoom(roomId, objectMapper.writeValueAsString(data));
@@ -113,12 +122,82 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
+    /**
+     * 서버 이벤트 발행 (재고 알림 등): 방에 구독자가 없으면 아무것도 하지 않는다.
+     * 한 세션 전송 실패가 다른 구독자 전송을 막지 않도록 세션별로 처리한다.
+     */
+    public void publish(String roomId, Object event) {
+        Set<WebSocketSession> members = rooms.getOrDefault(roomId, Collections.emptySet());
+        if (members.isEmpty()) return;
+        TextMessage outgoing;
+        try {
+            outgoing = new TextMessage(objectMapper.writeValueAsString(event));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이벤트 직렬화 실패", e);
+        }
+        for (WebSocketSession session : members) {
+            try {
+                send(session, outgoing);
+            } catch (IOException ignored) {
+                // 끊어진 세션은 afterConnectionClosed 에서 정리된다
+            }
+        }
+    }
+
+    /**
+     * 특정 사용자(JWT subject)의 모든 연결에만 보내는 서버 이벤트 (거래명세서 처리 진행 등)
+     */
+    public void sendToUser(String userId, Object event) {
+        if (userId == null) return;
+        TextMessage outgoing = null;
+        for (WebSocketSession session : sessions) {
+            if (!userId.equals(session.getAttributes().get("userId"))) continue;
+            try {
+                if (outgoing == null) {
+                    outgoing = new TextMessage(objectMapper.writeValueAsString(event));
+                }
+                send(session, outgoing);
+            } catch (IOException ignored) {
+                // 끊어진 세션은 afterConnectionClosed 에서 정리된다
+            }
+        }
+    }
+
+    // "vendor:{companyCode}:..." 형식의 업체 전용 방
+    public static String vendorRoom(String companyCode, String topic) {
+        return "vendor:" + companyCode.trim().toLowerCase() + ":" + topic;
+    }
+
+    private boolean isVendorRoom(String roomId) {
+        return roomId.startsWith("vendor:");
+    }
+
+    private boolean canJoinVendorRoom(String roomId, WebSocketSession session) {
+        Object companyCode = session.getAttributes().get("companyCode");
+        if (companyCode == null) return false;
+        String[] parts = roomId.split(":", 3);
+        return parts.length >= 2 && parts[1].equalsIgnoreCase(String.valueOf(companyCode));
+    }
+
+    private void sendError(WebSocketSession session, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("type", "error");
+        error.put("message", message);
+        send(session, new TextMessage(objectMapper.writeValueAsString(error)));
+    }
+
     private void broadcastToRoom(String roomId, String payload) throws IOException {
         TextMessage outgoing = new TextMessage(payload == null ? "" : payload);
         for (WebSocketSession session : rooms.getOrDefault(roomId, Collections.emptySet())) {
-            if (session.isOpen()) {
-                session.sendMessage(outgoing);
-            }
+            send(session, outgoing);
+        }
+    }
+
+    // WebSocketSession.sendMessage 는 동시 호출에 안전하지 않으므로 세션 단위로 직렬화
+    private void send(WebSocketSession session, TextMessage message) throws IOException {
+        if (!session.isOpen()) return;
+        synchronized (session) {
+            session.sendMessage(message);
         }
     }
 
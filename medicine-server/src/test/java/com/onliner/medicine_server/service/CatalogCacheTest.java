@@ -0,0 +1,116 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onliner.medicine_server.service.CatalogCache.Catalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheTest {
+
+    private CatalogCache cache;
+    private final List<String> rows = new ArrayList<>(List.of("A001", "B002"));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<String>> loader = () -> {
+        loads.incrementAndGet();
+        return List.copyOf(rows);
+    };
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogCache(new ObjectMapper());
+    }
+
+    @Test
+    void servesCachedBodyUntilInvalidated() {
+        CatalogCache.Entry first = cache.get(Catalog.MEDICINES, loader);
+        CatalogCache.Entry second = cache.get(Catalog.MEDICINES, loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(new String(first.body(), StandardCharsets.UTF_8)).isEqualTo("[\"A001\",\"B002\"]");
+
+        rows.add("C003");
+        cache.invalidate(Catalog.MEDICINES);
+        CatalogCache.Entry reloaded = cache.get(Catalog.MEDICINES, loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(reloaded.etag()).isNotEqualTo(first.etag());
+    }
+
+    @Test
+    void etagDependsOnlyOnContent() {
+        String before = cache.get(Catalog.MEDICINES, loader).etag();
+        cache.invalidate(Catalog.MEDICINES);
+
+        // 내용이 같으면 다시 읽어도 같은 ETag (클라이언트 캐시가 그대로 유효)
+        assertThat(cache.get(Catalog.MEDICINES, loader).etag()).isEqualTo(before);
+        assertThat(before).matches("\"[0-9a-f]{32}\"");
+    }
+
+    @Test
+    void matchingIfNoneMatchReturns304WithoutBody() {
+        CatalogCache.Entry entry = cache.get(Catalog.MEDICINES, loader);
+
+        ResponseEntity<byte[]> notModified = cache.respond(entry, "\"other\", " + entry.etag());
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getBody()).isNull();
+        assertThat(notModified.getHeaders().getETag()).isEqualTo(entry.etag());
+
+        assertThat(cache.respond(entry, "*").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void staleOrMissingIfNoneMatchReturnsFullBody() {
+        CatalogCache.Entry entry = cache.get(Catalog.MEDICINES, loader);
+
+        for (String ifNoneMatch : new String[]{null, "", "\"stale\""}) {
+            ResponseEntity<byte[]> ok = cache.respond(entry, ifNoneMatch);
+            assertThat(ok.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(ok.getBody()).isEqualTo(entry.body());
+            assertThat(ok.getHeaders().getETag()).isEqualTo(entry.etag());
+            assertThat(ok.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        }
+    }
+
+    @Test
+    void invalidateDropsEveryViewOfOnlyThatCatalog() {
+        cache.get(Catalog.MEDICINES, loader);
+        cache.get(Catalog.MEDICINES, "summary", loader);
+        cache.get(Catalog.VENDOR_CLIENTS, loader);
+        assertThat(loads).hasValue(3);
+
+        cache.invalidate(Catalog.MEDICINES);
+        cache.get(Catalog.MEDICINES, loader);
+        cache.get(Catalog.MEDICINES, "summary", loader);
+        cache.get(Catalog.VENDOR_CLIENTS, loader);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void resultLoadedDuringInvalidationIsNotCached() {
+        // 읽는 도중 다른 요청이 수정한 경우
+        CatalogCache.Entry racing = cache.get(Catalog.MEDICINES, () -> {
+            List<String> snapshot = loader.get();
+            cache.invalidate(Catalog.MEDICINES);
+            return snapshot;
+        });
+        rows.add("C003");
+
+        CatalogCache.Entry next = cache.get(Catalog.MEDICINES, loader);
+
+        assertThat(loads).hasValue(2);
+        assertThat(next.etag()).isNotEqualTo(racing.etag());
+    }
+}
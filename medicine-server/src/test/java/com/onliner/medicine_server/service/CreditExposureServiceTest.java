@@ -0,0 +1,104 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.repository.CreditBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class CreditExposureServiceTest {
+
+    private FakeBalanceRepository repo;
+    private CreditExposureService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = new FakeBalanceRepository();
+        repo.clients.put("H001", 1_000_000.0);
+        service = new CreditExposureService(repo, new TransactionTemplate(mock(PlatformTransactionManager.class)), 1);
+    }
+
+    @Test
+    void ledgerUploadRaisesExposure() {
+        service.applyLedgerDelta("H001", new BigDecimal("800000"));
+
+        CreditExposure exposure = service.check("H001", null).orElseThrow();
+        assertThat(exposure.outstanding()).isEqualByComparingTo("800000");
+        assertThat(exposure.available()).isEqualByComparingTo("200000");
+    }
+
+    @Test
+    void paymentLowersExposure() {
+        service.applyLedgerDelta("H001", new BigDecimal("800000"));
+        assertThat(service.check("H001", new BigDecimal("300000")).orElseThrow().allowed()).isFalse();
+
+        CreditExposure afterPayment = service.recordPayment("H001", new BigDecimal("500000"),
+                LocalDate.of(2024, 3, 2), "3월 입금").orElseThrow();
+
+        assertThat(afterPayment.outstanding()).isEqualByComparingTo("300000");
+        assertThat(afterPayment.available()).isEqualByComparingTo("700000");
+        assertThat(service.check("H001", new BigDecimal("300000")).orElseThrow().allowed()).isTrue();
+        assertThat(repo.payments).containsExactly("H001:500000");
+    }
+
+    @Test
+    void overpaymentLeavesCreditBalance() {
+        service.applyLedgerDelta("H001", new BigDecimal("100000"));
+        service.recordPayment("H001", new BigDecimal("150000"), LocalDate.of(2024, 3, 2), null);
+
+        assertThat(service.check("H001", null).orElseThrow().outstanding()).isEqualByComparingTo("-50000");
+    }
+
+    @Test
+    void rejectsNonPositivePayment() {
+        assertThatThrownBy(() -> service.recordPayment("H001", BigDecimal.ZERO, LocalDate.now(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repo.payments).isEmpty();
+    }
+
+    @Test
+    void unknownClientRecordsNothing() {
+        assertThat(service.recordPayment("NOPE", BigDecimal.TEN, LocalDate.now(), null)).isEmpty();
+        assertThat(repo.payments).isEmpty();
+    }
+
+    // 거래처 한도 + 잔액을 메모리에 두는 저장소 (증감 / 입금 기록만 흉내)
+    private static final class FakeBalanceRepository extends CreditBalanceRepository {
+        final Map<String, Double> clients = new HashMap<>();
+        final Map<String, BigDecimal> balances = new HashMap<>();
+        final List<String> payments = new ArrayList<>();
+
+        FakeBalanceRepository() {
+            super(null, null);
+        }
+
+        @Override
+        public void increment(String hospitalId, BigDecimal delta) {
+            balances.merge(hospitalId, delta, BigDecimal::add);
+        }
+
+        @Override
+        public void insertPayment(String hospitalId, LocalDate paidOn, BigDecimal amount, String memo) {
+            payments.add(hospitalId + ":" + amount.toPlainString());
+        }
+
+        @Override
+        public ClientBalanceRow findByCode(String code) {
+            if (!clients.containsKey(code)) return null;
+            return new ClientBalanceRow(code, code, clients.get(code), 30, false,
+                    balances.getOrDefault(code, BigDecimal.ZERO), LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceCacheTest {
+
+    // 한도 1MB 에 항목 하나 400KB: 세 번째 항목을 넣으면 하나가 밀려난다
+    private static final int EXPORT_BYTES = 400 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private Path cacheDir;
+    private Path exportsDir;
+    private InvoiceCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheDir = tempDir.resolve("cache");
+        exportsDir = tempDir.resolve("exports");
+        Files.createDirectories(exportsDir);
+        cache = newCache(true);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFromDisk() throws IOException {
+        store("key-one-000000", "one.pdf");
+        store("key-two-000000", "two.pdf");
+        // one 을 다시 쓰면 가장 오래 안 쓰인 항목은 two
+        assertThat(cache.lookup("key-one-000000", 0, "one.pdf")).isPresent();
+
+        store("key-three-0000", "three.pdf");
+
+        assertThat(cache.lookup("key-two-000000", 0, "two.pdf")).isEmpty();
+        assertThat(cacheDir.resolve("key-two-000000.pdf")).doesNotExist();
+        assertThat(cacheDir.resolve("key-two-000000.json")).doesNotExist();
+        assertThat(cache.lookup("key-one-000000", 0, "one.pdf")).isPresent();
+        assertThat(cache.lookup("key-three-0000", 0, "three.pdf")).isPresent();
+        assertThat(cache.stats()).containsEntry("entries", 2);
+        assertThat((Long) cache.stats().get("totalBytes")).isLessThanOrEqualTo(1024L * 1024L);
+    }
+
+    @Test
+    void restartKeepsUsageOrderFromMetadataTimes() throws IOException {
+        store("key-old-000000", "old.pdf");
+        store("key-new-000000", "new.pdf");
+        // old 를 나중에 쓴 것으로 기록
+        Files.setLastModifiedTime(cacheDir.resolve("key-new-000000.json"), FileTime.fromMillis(1_000_000L));
+        Files.setLastModifiedTime(cacheDir.resolve("key-old-000000.json"), FileTime.fromMillis(2_000_000L));
+
+        cache = newCache(true);
+        store("key-third-0000", "third.pdf");
+
+        assertThat(cache.lookup("key-new-000000", 0, "new.pdf")).isEmpty();
+        assertThat(cache.lookup("key-old-000000", 0, "old.pdf")).isPresent();
+    }
+
+    @Test
+    void hitReturnsStoredResultForTheNewUpload() throws IOException {
+        store("key-one-000000", "one.pdf");
+
+        Optional<InvoiceResult> hit = cache.lookup("key-one-000000", 3, "again.pdf");
+
+        assertThat(hit).contains(new InvoiceResult(3, "again.pdf", "one.pdf", "text of one.pdf", null));
+    }
+
+    @Test
+    void missingExportIsRestoredUnderNewName() throws IOException {
+        store("key-one-000000", "one.pdf");
+        Files.delete(exportsDir.resolve("one.pdf"));
+
+        InvoiceResult hit = cache.lookup("key-one-000000", 0, "one.pdf").orElseThrow();
+
+        assertThat(hit.pdfFileName()).isEqualTo("one_key-one-0000.pdf");
+        assertThat(exportsDir.resolve(hit.pdfFileName())).hasSize(EXPORT_BYTES);
+        // 다음 조회는 복원한 파일을 그대로 쓴다
+        assertThat(cache.lookup("key-one-000000", 0, "one.pdf")).map(InvoiceResult::pdfFileName)
+                .contains("one_key-one-0000.pdf");
+    }
+
+    @Test
+    void disabledCacheNeitherStoresNorHits() throws IOException {
+        cache = newCache(false);
+
+        store("key-one-000000", "one.pdf");
+
+        assertThat(cache.lookup("key-one-000000", 0, "one.pdf")).isEmpty();
+        assertThat(cacheDir).doesNotExist();
+    }
+
+    // ======================= 헬퍼 =======================
+    private InvoiceCache newCache(boolean enabled) {
+        return new InvoiceCache(new ObjectMapper(), cacheDir.toString(), exportsDir.toString(), 1, enabled);
+    }
+
+    // exports 에 결과 파일을 만들고 캐시에 저장
+    private void store(String key, String pdfFileName) throws IOException {
+        Files.write(exportsDir.resolve(pdfFileName), new byte[EXPORT_BYTES]);
+        cache.store(key, new InvoiceResult(0, pdfFileName, pdfFileName, "text of " + pdfFileName, null),
+                "병원", "20240301");
+    }
+}
@@ -0,0 +1,175 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import com.onliner.medicine_server.websocket.ChatWebSocketHandler;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvoicePipelineTest {
+
+    private static final String USER = "user-1";
+
+    @TempDir
+    Path tempDir;
+
+    private ChatWebSocketHandler webSocket;
+    private InvoiceProcessingService processing;
+    private InvoiceTemplateRegistry registry;
+    private InvoicePipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        registry = mock(InvoiceTemplateRegistry.class);
+        when(registry.resolve(any(), any())).thenReturn(InvoiceTemplate.load("test", blankPdf(1)));
+        InvoiceCache cache = mock(InvoiceCache.class);
+        when(cache.getExportsPath()).thenReturn(tempDir.resolve("exports"));
+        processing = new InvoiceProcessingService(registry, cache, tempDir.resolve("upload").toString(),
+                4, 10, 512, 32, 256);
+        webSocket = mock(ChatWebSocketHandler.class);
+        pipeline = newPipeline(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+        processing.shutdown();
+    }
+
+    @Test
+    void resultsKeepUploadOrderAndJobEventComesLast() throws Exception {
+        MultipartFile[] files = {
+                pdf("a.pdf", 3),
+                new MockMultipartFile("files", "empty.pdf", "application/pdf", new byte[0]),
+                pdf("b.pdf", 1),
+                pdf("c.pdf", 2)
+        };
+
+        InvoiceJob job = pipeline.submit(files, null, null, USER);
+        List<InvoiceJobEvent> events = events(4);
+
+        assertThat(job.getTotal()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo(InvoiceJob.Status.SUCCEEDED);
+        // 완료 순서와 상관없이 결과는 업로드 순서
+        assertThat(job.getResults()).extracting(r -> r.get("originalName"))
+                .containsExactly("a.pdf", "b.pdf", "c.pdf");
+        assertThat(events).extracting(InvoiceJobEvent::type).containsExactly(
+                InvoiceJobEvent.TYPE_FILE, InvoiceJobEvent.TYPE_FILE, InvoiceJobEvent.TYPE_FILE,
+                InvoiceJobEvent.TYPE_JOB);
+        assertThat(events).extracting(InvoiceJobEvent::completed).containsExactly(1, 2, 3, 3);
+        assertThat(events.get(3).status()).isEqualTo(InvoiceJob.Status.SUCCEEDED);
+        assertThat(pipeline.find(job.getId(), USER)).contains(job);
+        assertThat(pipeline.find(job.getId(), "someone-else")).isEmpty();
+        assertNoStagedFilesLeft();
+    }
+
+    @Test
+    void brokenFileFailsAloneAndDoesNotBlockTheRest() throws Exception {
+        MultipartFile[] files = {
+                pdf("a.pdf", 1),
+                new MockMultipartFile("files", "broken.pdf", "application/pdf", "not a pdf".getBytes()),
+                pdf("c.pdf", 1)
+        };
+
+        InvoiceJob job = pipeline.submit(files, null, null, USER);
+        events(4);
+
+        assertThat(job.getStatus()).isEqualTo(InvoiceJob.Status.SUCCEEDED);
+        assertThat(job.getFailed()).isEqualTo(1);
+        List<Map<String, Object>> results = job.getResults();
+        assertThat(results.get(0)).containsKey("pdfFileName");
+        assertThat(results.get(1)).containsEntry("index", 1).containsKey("error");
+        assertThat(results.get(2)).containsKey("pdfFileName");
+        assertNoStagedFilesLeft();
+    }
+
+    @Test
+    void undeliverableEventDoesNotStopThePublisher() throws Exception {
+        doThrow(new IllegalStateException("socket closed"))
+                .doNothing()
+                .when(webSocket).sendToUser(eq(USER), any());
+
+        InvoiceJob first = pipeline.submit(new MultipartFile[]{pdf("a.pdf", 1)}, null, null, USER);
+        InvoiceJob second = pipeline.submit(new MultipartFile[]{pdf("b.pdf", 1)}, null, null, USER);
+        // 실패한 전송 1건(그 작업의 완료 이벤트는 건너뜀) + 다음 작업의 파일 / 완료 이벤트
+        events(3);
+
+        assertThat(first.isFinished()).isTrue();
+        assertThat(second.isFinished()).isTrue();
+        assertThat(pipeline.stats().filesCompleted()).isEqualTo(2);
+    }
+
+    @Test
+    void batchLargerThanFreeIngestCapacityIsRejectedUpFront() throws Exception {
+        pipeline.shutdown();
+        pipeline = newPipeline(1);
+
+        assertThatThrownBy(() -> pipeline.submit(new MultipartFile[]{pdf("a.pdf", 1), pdf("b.pdf", 1)},
+                null, null, USER))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> pipeline.submit(new MultipartFile[]{
+                new MockMultipartFile("files", "empty.pdf", "application/pdf", new byte[0])}, null, null, USER))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 거절된 배치는 파일을 받아 두지도 않는다
+        assertThat(tempDir.resolve("upload")).doesNotExist();
+        assertThat(pipeline.stats().jobsRunning()).isZero();
+    }
+
+    // ======================= 헬퍼 =======================
+    private InvoicePipeline newPipeline(int ingestCapacity) {
+        return new InvoicePipeline(processing, registry, webSocket, 2, 2, ingestCapacity, 2, 10);
+    }
+
+    // 발행 워커가 보낸 이벤트를 보낸 순서대로 (count 건이 올 때까지 기다림)
+    private List<InvoiceJobEvent> events(int count) {
+        ArgumentCaptor<InvoiceJobEvent> captor = ArgumentCaptor.forClass(InvoiceJobEvent.class);
+        verify(webSocket, timeout(10_000).times(count)).sendToUser(eq(USER), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private void assertNoStagedFilesLeft() throws IOException {
+        try (Stream<Path> left = Files.list(tempDir.resolve("upload"))) {
+            assertThat(left).isEmpty();
+        }
+    }
+
+    private static MockMultipartFile pdf(String name, int pages) throws IOException {
+        return new MockMultipartFile("files", name, "application/pdf", blankPdf(pages));
+    }
+
+    private static byte[] blankPdf(int pages) throws IOException {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                doc.addPage(new PDPage());
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvoiceProcessingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InvoiceCache cache;
+    private InvoiceTemplate template;
+    private InvoiceProcessingService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        InvoiceTemplateRegistry registry = mock(InvoiceTemplateRegistry.class);
+        template = InvoiceTemplate.load("test", blankPdf(1));
+        when(registry.resolve(any(), any())).thenReturn(template);
+        cache = mock(InvoiceCache.class);
+        when(cache.getExportsPath()).thenReturn(tempDir.resolve("exports"));
+        service = new InvoiceProcessingService(registry, cache, tempDir.resolve("upload").toString(),
+                4, 10, 512, 32, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void resultsFollowUploadOrderAndSkipEmptyFiles() throws IOException {
+        MultipartFile[] files = {
+                pdf("a.pdf", 3),
+                new MockMultipartFile("files", "empty.pdf", "application/pdf", new byte[0]),
+                pdf("b.pdf", 1),
+                pdf("c.pdf", 2),
+                pdf("d.pdf", 1)
+        };
+
+        List<InvoiceResult> results = service.processAll(files, null, null);
+
+        assertThat(results).extracting(InvoiceResult::index).containsExactly(0, 2, 3, 4);
+        assertThat(results).extracting(InvoiceResult::originalName)
+                .containsExactly("a.pdf", "b.pdf", "c.pdf", "d.pdf");
+        assertThat(results).allMatch(InvoiceResult::succeeded);
+        // 같은 배치 안에서 파일명이 겹치지 않는다
+        assertThat(results).extracting(InvoiceResult::pdfFileName).doesNotHaveDuplicates();
+        for (InvoiceResult result : results) {
+            assertThat(tempDir.resolve("exports").resolve(result.pdfFileName())).exists();
+        }
+    }
+
+    @Test
+    void oneBrokenFileDoesNotFailTheBatch() throws IOException {
+        MultipartFile[] files = {
+                pdf("a.pdf", 1),
+                new MockMultipartFile("files", "broken.pdf", "application/pdf", "not a pdf".getBytes()),
+                pdf("c.pdf", 1)
+        };
+
+        List<InvoiceResult> results = service.processAll(files, null, null);
+
+        assertThat(results).extracting(InvoiceResult::index).containsExactly(0, 1, 2);
+        assertThat(results.get(0).succeeded()).isTrue();
+        assertThat(results.get(1).succeeded()).isFalse();
+        assertThat(results.get(1).error()).isNotBlank();
+        assertThat(results.get(2).succeeded()).isTrue();
+        // 실패한 파일은 캐시에 저장하지 않는다
+        verify(cache, times(2)).store(anyString(), any(InvoiceResult.class), anyString(), anyString());
+    }
+
+    @Test
+    void cacheHitSkipsParsing() throws IOException {
+        InvoiceResult hit = new InvoiceResult(0, "a.pdf", "cached.pdf", "text", null);
+        when(cache.lookup(anyString(), anyInt(), anyString())).thenReturn(Optional.of(hit));
+
+        List<InvoiceResult> results = service.processAll(new MultipartFile[]{pdf("a.pdf", 1)}, null, null);
+
+        assertThat(results).containsExactly(hit);
+        assertThat(Files.exists(tempDir.resolve("exports"))).isFalse();
+    }
+
+    @Test
+    void cacheMissReadsUploadOnceAndKeysCacheByItsDigest() throws Exception {
+        byte[] bytes = blankPdf(2);
+        AtomicInteger reads = new AtomicInteger();
+        MultipartFile file = new MockMultipartFile("file", "a.pdf", "application/pdf", bytes) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                reads.incrementAndGet();
+                return super.getInputStream();
+            }
+        };
+
+        InvoiceResult result = service.processOne(file, null, null);
+
+        assertThat(result.succeeded()).isTrue();
+        assertThat(reads).hasValue(1);
+        String key = InvoiceCache.key(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)),
+                template);
+        verify(cache).lookup(key, 0, "a.pdf");
+        verify(cache).store(eq(key), eq(result), anyString(), anyString());
+        // 임시 파일은 남지 않는다
+        try (Stream<Path> left = Files.list(tempDir.resolve("upload"))) {
+            assertThat(left).isEmpty();
+        }
+    }
+
+    @Test
+    void singleUploadsOfSameInvoiceDoNotOverwriteEachOther() throws IOException {
+        InvoiceResult first = service.processOne(pdf("a.pdf", 1), null, null);
+        InvoiceResult second = service.processOne(pdf("a.pdf", 1), null, null);
+
+        assertThat(first.pdfFileName()).isNotEqualTo(second.pdfFileName());
+        assertThat(tempDir.resolve("exports").resolve(first.pdfFileName())).exists();
+        assertThat(tempDir.resolve("exports").resolve(second.pdfFileName())).exists();
+    }
+
+    @Test
+    void stagedUploadIsParsedOnceAndSharedByExtractAndOverlay() throws IOException {
+        InvoiceProcessingService.Staged staged = service.stage(0, pdf("a.pdf", 2));
+
+        try (InvoiceProcessingService.InvoiceDocument doc = service.open(staged)) {
+            // 파싱한 뒤에는 임시 파일을 다시 읽지 않으므로 바로 지워진다
+            assertThat(staged.tempFile()).doesNotExist();
+
+            InvoiceProcessingService.Extracted extracted = service.extract(doc, "_1");
+            assertThat(extracted.document()).isSameAs(doc);
+
+            InvoiceResult result = service.overlay(extracted, template);
+            assertThat(result.succeeded()).isTrue();
+            // 합성은 문서를 닫지 않는다 (닫는 것은 호출한 쪽)
+            assertThat(doc.document().getDocument().isClosed()).isFalse();
+        }
+    }
+
+    @Test
+    void singleUploadOpensTheDocumentOnce() throws IOException {
+        InvoiceProcessingService spy = spy(service);
+        List<InvoiceProcessingService.InvoiceDocument> opened = new ArrayList<>();
+        doAnswer(inv -> {
+            InvoiceProcessingService.InvoiceDocument doc = (InvoiceProcessingService.InvoiceDocument) inv.callRealMethod();
+            opened.add(doc);
+            return doc;
+        }).when(spy).open(any());
+
+        spy.processOne(pdf("a.pdf", 3), null, null);
+
+        assertThat(opened).hasSize(1);
+        verify(spy).extract(eq(opened.get(0)), anyString());
+        verify(spy).overlay(argThat(e -> e.document() == opened.get(0)), eq(template));
+        assertThat(opened.get(0).document().getDocument().isClosed()).isTrue();
+    }
+
+    @Test
+    void memoryBudgetIsReturnedAfterEachDocument() {
+        // 예산 0 → 최소 예산 하나: 문서 하나가 예산 전체를 잡으므로 반환하지 않으면 다음 파싱이 멈춘다
+        InvoiceProcessingService tight = new InvoiceProcessingService(mock(InvoiceTemplateRegistry.class), cache,
+                tempDir.resolve("upload").toString(), 1, 10, 0, 32, 256);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+                assertThatThrownBy(() -> tight.open(tight.stage(0, broken())))
+                        .isInstanceOf(IOException.class);
+                for (int i = 0; i < 3; i++) {
+                    tight.open(tight.stage(i, pdf("a.pdf", 1))).close();
+                }
+            });
+        } finally {
+            tight.shutdown();
+        }
+    }
+
+    private static MockMultipartFile pdf(String name, int pages) throws IOException {
+        return new MockMultipartFile("files", name, "application/pdf", blankPdf(pages));
+    }
+
+    private static MockMultipartFile broken() {
+        return new MockMultipartFile("files", "broken.pdf", "application/pdf", "not a pdf".getBytes());
+    }
+
+    private static byte[] blankPdf(int pages) throws IOException {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pages; i++) {
+                doc.addPage(new PDPage());
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.util.InvoiceTemplate;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceTemplateRegistryTest {
+
+    @TempDir
+    Path baseDir;
+
+    private FailingRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        writePdf(baseDir.resolve("default.pdf"), 1);
+        writePdf(baseDir.resolve("v001").resolve("default.pdf"), 1);
+        writePdf(baseDir.resolve("v001").resolve("monthly.pdf"), 2);
+        registry = new FailingRegistry(baseDir);
+        registry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void resolvesVendorTemplateThenVendorDefaultThenCommonDefault() {
+        assertThat(registry.resolve("V001", "Monthly").getPageCount()).isEqualTo(2);
+        assertThat(registry.resolve("v001", "weekly")).isSameAs(registry.resolve("v001", null));
+        assertThat(registry.resolve("v999", null)).isSameAs(registry.resolve(null, null));
+        assertThat(registry.list()).isEqualTo(Map.of(
+                "default", List.of("default"),
+                "v001", List.of("default", "monthly")));
+    }
+
+    @Test
+    void reloadReplacesChangedTemplatesAndDropsRemovedOnes() throws IOException {
+        InvoiceTemplate before = registry.resolve("v001", "monthly");
+        InvoiceTemplate untouched = registry.resolve("v001", null);
+
+        Path monthly = baseDir.resolve("v001").resolve("monthly.pdf");
+        writePdf(monthly, 3);
+        Files.setLastModifiedTime(monthly, FileTime.fromMillis(Files.getLastModifiedTime(monthly).toMillis() + 5000));
+        writePdf(baseDir.resolve("v002").resolve("default.pdf"), 4);
+        registry.reload();
+
+        InvoiceTemplate after = registry.resolve("v001", "monthly");
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.getPageCount()).isEqualTo(3);
+        // 바뀌지 않은 파일은 다시 파싱하지 않는다
+        assertThat(registry.resolve("v001", null)).isSameAs(untouched);
+        assertThat(registry.resolve("v002", null).getPageCount()).isEqualTo(4);
+
+        Files.delete(monthly);
+        registry.reload();
+
+        assertThat(registry.resolve("v001", "monthly")).isSameAs(untouched);
+    }
+
+    @Test
+    void unreadableVendorDirectoryKeepsPreviousTemplates() throws IOException {
+        InvoiceTemplate monthly = registry.resolve("v001", "monthly");
+        Files.delete(baseDir.resolve("default.pdf"));
+
+        registry.failing = baseDir.resolve("v001");
+        registry.reload();
+
+        assertThat(registry.resolve("v001", "monthly")).isSameAs(monthly);
+        assertThat(registry.list()).containsOnlyKeys("v001");
+    }
+
+    // ======================= 헬퍼 =======================
+    private static void writePdf(Path path, int pages) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (PDDocument doc = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                doc.addPage(new PDPage());
+            }
+            doc.save(path.toFile());
+        }
+    }
+
+    // 지정한 디렉터리만 목록 읽기에 실패하는 레지스트리
+    private static final class FailingRegistry extends InvoiceTemplateRegistry {
+        Path failing;
+
+        FailingRegistry(Path baseDir) throws IOException {
+            super(baseDir.toString());
+        }
+
+        @Override
+        Stream<Path> listDir(Path dir) throws IOException {
+            if (dir.equals(failing)) throw new IOException("permission denied");
+            return super.listDir(dir);
+        }
+    }
+}
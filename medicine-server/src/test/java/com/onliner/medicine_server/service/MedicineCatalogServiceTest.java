@@ -0,0 +1,128 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.repository.MedicineFilter;
+import com.onliner.medicine_server.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MedicineCatalogServiceTest {
+
+    private final List<Medicine> table = new ArrayList<>();
+    private final MedicineFilter filter = new MedicineFilter(null, null, null, null, null);
+    private MedicineCatalogService service;
+
+    @BeforeEach
+    void setUp() {
+        // id 순서와 코드 순서가 다르도록 넣는다
+        String[] codes = {"C3", "A1", "E5", "B2", "D4", "A10", "F6"};
+        for (int i = 0; i < codes.length; i++) {
+            table.add(medicine(i + 1L, codes[i]));
+        }
+
+        // 키셋 조건(id > after / code > after)과 LIMIT 만 흉내 낸다
+        MedicineRepository repo = mock(MedicineRepository.class);
+        when(repo.findPageById(any(), isNull(), anyInt()))
+                .thenAnswer(inv -> pageById(null, inv.getArgument(2)));
+        when(repo.findPageById(any(), anyLong(), anyInt()))
+                .thenAnswer(inv -> pageById(inv.getArgument(1), inv.getArgument(2)));
+        when(repo.findPageByCode(any(), isNull(), anyInt()))
+                .thenAnswer(inv -> pageByCode(null, inv.getArgument(2)));
+        when(repo.findPageByCode(any(), anyString(), anyInt()))
+                .thenAnswer(inv -> pageByCode(inv.getArgument(1), inv.getArgument(2)));
+        service = new MedicineCatalogService(repo, 100, 1000, 10);
+    }
+
+    @Test
+    void followingNextCursorVisitsEveryRowOnceById() {
+        assertThat(walk("id", 3)).extracting(Medicine::getId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void followingNextCursorVisitsEveryRowOnceByCode() {
+        assertThat(walk("code", 2)).extracting(Medicine::getCode)
+                .containsExactly("A1", "A10", "B2", "C3", "D4", "E5", "F6");
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        MedicinePage<Medicine> page = service.findPage(filter, null, null, 7);
+
+        assertThat(page.size()).isEqualTo(7);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsCursorFromOtherSortOrTamperedCursor() {
+        String idCursor = service.findPage(filter, "id", null, 2).nextCursor();
+
+        assertThatThrownBy(() -> service.findPage(filter, "code", idCursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] bytes = Base64.getUrlDecoder().decode(idCursor);
+        bytes[0] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        assertThatThrownBy(() -> service.findPage(filter, "id", tampered, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUnknownSortAndNonPositiveSize() {
+        assertThatThrownBy(() -> service.findPage(filter, "name", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findPage(filter, "id", null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ======================= 헬퍼 =======================
+    private List<Medicine> walk(String sort, int size) {
+        List<Medicine> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            MedicinePage<Medicine> page = service.findPage(filter, sort, cursor, size);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(size);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<Medicine> pageById(Long after, int limit) {
+        return table.stream()
+                .filter(m -> after == null || m.getId() > after)
+                .sorted(Comparator.comparing(Medicine::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    private List<Medicine> pageByCode(String after, int limit) {
+        return table.stream()
+                .filter(m -> after == null || m.getCode().compareTo(after) > 0)
+                .sorted(Comparator.comparing(Medicine::getCode))
+                .limit(limit)
+                .toList();
+    }
+
+    private static Medicine medicine(Long id, String code) {
+        Medicine m = new Medicine();
+        m.setId(id);
+        m.setCode(code);
+        return m;
+    }
+}
@@ -0,0 +1,126 @@
+package com.onliner.medicine_server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onliner.medicine_server.entity.Medicine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MedicineExportServiceTest {
+
+    @TempDir
+    File tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Map<String, Object>> rows = new ArrayList<>();
+    private MedicineExportService service;
+
+    @BeforeEach
+    void setUp() {
+        rows.add(row(1L, 1, "A001", "타이레놀", 10.0));
+        rows.add(row(2L, 2, "B002", "게보린", null));
+
+        // 커서 대신 메모리의 행을 하나씩 콜백에 넘김
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Map<String, Object> row : rows) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        service = new MedicineExportService(jdbcTemplate, objectMapper);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeNdjson(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        // 두 번째 줄부터 최상위 값 구분자(공백)가 붙지 않아야 줄 단위 파서가 그대로 읽는다
+        assertThat(lines).allSatisfy(line -> assertThat(line).startsWith("{\"id\":"));
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("no").asInt()).isEqualTo(1);
+        assertThat(first.get("code").asText()).isEqualTo("A001");
+        assertThat(first.get("stockQty").asDouble()).isEqualTo(10.0);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("id").asLong()).isEqualTo(2L);
+        assertThat(second.get("stockQty").isNull()).isTrue();
+        assertThat(second.get("remarks").isNull()).isTrue();
+    }
+
+    @Test
+    void xlsxUsesUploadLayoutAndReadsBackThroughSchema() throws Exception {
+        File file = new File(tempDir, "export.xlsx");
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            service.writeXlsx(out);
+        }
+
+        List<Medicine> readBack = new ArrayList<>();
+        MedicineSheet.SCHEMA.forEachRow(file, false, (m, rowIndex) -> readBack.add(m));
+
+        assertThat(readBack).extracting(Medicine::getNo).containsExactly(1, 2);
+        assertThat(readBack).extracting(Medicine::getCode).containsExactly("A001", "B002");
+        assertThat(readBack).extracting(Medicine::getName).containsExactly("타이레놀", "게보린");
+        assertThat(readBack).extracting(Medicine::getStockQty).containsExactly(10.0, 0.0);
+    }
+
+    // ======================= 헬퍼 =======================
+    private static Map<String, Object> row(Long id, int no, String code, String name, Double stockQty) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("no", no);
+        row.put("code", code);
+        row.put("name", name);
+        row.put("stock_qty", stockQty);
+        return row;
+    }
+
+    // 컬럼 이름으로 읽는 getXxx / wasNull 만 흉내 내는 ResultSet
+    private static ResultSet resultSet(Map<String, Object> row) {
+        boolean[] lastNull = {false};
+        return mock(ResultSet.class, inv -> {
+            String method = inv.getMethod().getName();
+            if (method.equals("wasNull")) return lastNull[0];
+            if (inv.getArguments().length != 1 || !(inv.getArgument(0) instanceof String column)) {
+                return Answers.RETURNS_DEFAULTS.answer(inv);
+            }
+            Object v = row.get(column);
+            lastNull[0] = v == null;
+            return switch (method) {
+                case "getLong" -> v == null ? 0L : ((Number) v).longValue();
+                case "getInt" -> v == null ? 0 : ((Number) v).intValue();
+                case "getDouble" -> v == null ? 0.0 : ((Number) v).doubleValue();
+                case "getString" -> v == null ? null : v.toString();
+                default -> Answers.RETURNS_DEFAULTS.answer(inv);
+            };
+        });
+    }
+}
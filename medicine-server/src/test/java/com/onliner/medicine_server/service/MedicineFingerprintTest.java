@@ -0,0 +1,76 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MedicineFingerprintTest {
+
+    @Test
+    void sameValuesGiveSameFingerprint() {
+        String fingerprint = MedicineFingerprint.of(medicine());
+
+        assertThat(fingerprint).matches("[0-9a-f]{64}");
+        assertThat(MedicineFingerprint.of(medicine())).isEqualTo(fingerprint);
+    }
+
+    @Test
+    void noAndCodeAreNotPartOfTheFingerprint() {
+        Medicine moved = medicine();
+        moved.setNo(99);
+        moved.setCode("Z999");
+
+        assertThat(MedicineFingerprint.of(moved)).isEqualTo(MedicineFingerprint.of(medicine()));
+    }
+
+    @Test
+    void formattingOnlyDifferencesAreIgnored() {
+        Medicine padded = medicine();
+        padded.setName("  타이레놀 ");
+        padded.setRemarks("");
+        padded.setOutQty(-0.0);
+
+        assertThat(MedicineFingerprint.of(padded)).isEqualTo(MedicineFingerprint.of(medicine()));
+    }
+
+    @Test
+    void anyContentChangeGivesNewFingerprint() {
+        String base = MedicineFingerprint.of(medicine());
+
+        Medicine restocked = medicine();
+        restocked.setStockQty(11.0);
+        Medicine renamed = medicine();
+        renamed.setProductLocation("B-2");
+
+        assertThat(MedicineFingerprint.of(restocked)).isNotEqualTo(base);
+        assertThat(MedicineFingerprint.of(renamed)).isNotEqualTo(base);
+    }
+
+    @Test
+    void valueMovedToNeighbouringFieldGivesNewFingerprint() {
+        // 구분자 덕분에 "ab" + "" 와 "a" + "b" 가 같은 문자열이 되지 않는다
+        Medicine left = medicine();
+        left.setSupplier("한국제약");
+        left.setManufacturer(null);
+        Medicine right = medicine();
+        right.setSupplier("한국");
+        right.setManufacturer("제약");
+
+        assertThat(MedicineFingerprint.of(left)).isNotEqualTo(MedicineFingerprint.of(right));
+    }
+
+    // ======================= 헬퍼 =======================
+    private static Medicine medicine() {
+        Medicine m = new Medicine();
+        m.setNo(1);
+        m.setCode("A001");
+        m.setName("타이레놀");
+        m.setSupplier("한국약품");
+        m.setOutQty(0.0);
+        m.setStockQty(10.0);
+        m.setStockAmount(1000.0);
+        m.setProductLocation("A-1");
+        return m;
+    }
+}
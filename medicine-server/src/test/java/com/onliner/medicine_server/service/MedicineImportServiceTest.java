@@ -0,0 +1,262 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.entity.StockMovement;
+import com.onliner.medicine_server.repository.MedicineBulkRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MedicineImportServiceTest {
+
+    // 테스트 시트 컬럼: No 0, 코드 3, 제품명 4, 재고수량 14, 재고금액 18 (나머지는 빈 셀)
+    private static final String[] HEADERS = {
+            "No", "입고처", "제조사", "코드", "제품명", "규격", "기준가", "재고위치", "전일재고", "전일금액",
+            "입고수량", "입고금액", "출고수량", "출고금액", "재고수량", "매입처집계수량", "단가", "기준가%",
+            "재고금액", "기준가코드", "비고", "표준코드", "제품위치"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    private FakeBulkRepository repo;
+    private StockLedgerService ledger;
+    private MedicineSearchIndex searchIndex;
+    private MedicineImportService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = new FakeBulkRepository();
+        ledger = mock(StockLedgerService.class);
+        searchIndex = mock(MedicineSearchIndex.class);
+        service = new MedicineImportService(repo, searchIndex, mock(CatalogCache.class), ledger,
+                mock(StockAlertService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void newRowIsInsertedWithImportJournalEntry() throws Exception {
+        MedicineImportResult result = importRows(new Object[]{1, "A001", "타이레놀", 10.0, 1000.0});
+
+        assertThat(result).isEqualTo(new MedicineImportResult(1, 0, 0));
+        assertThat(repo.rows).containsKey("A001");
+        List<StockMovement> movements = journaled(1).get(0);
+        assertThat(movements).hasSize(1);
+        StockMovement movement = movements.get(0);
+        assertThat(movement.getMedicineId()).isEqualTo(repo.rows.get("A001").getId());
+        assertThat(movement.getType()).isEqualTo(StockMovement.Type.IMPORT);
+        assertThat(movement.getQtyDelta()).isEqualTo(10.0);
+        assertThat(movement.getAmountDelta()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void unchangedRowIsSkipped() throws Exception {
+        Object[] row = {1, "A001", "타이레놀", 10.0, 1000.0};
+        importRows(row);
+
+        MedicineImportResult again = importRows(row);
+
+        assertThat(again).isEqualTo(new MedicineImportResult(0, 0, 1));
+        assertThat(repo.updateCalls).isEmpty();
+        assertThat(journaled(2).get(1)).isEmpty();
+        // 처음 업로드에서만 검색 인덱스 갱신
+        verify(searchIndex, times(1)).refreshCodes(anyCollection());
+    }
+
+    @Test
+    void changedRowIsUpdatedAndJournalsDifference() throws Exception {
+        importRows(new Object[]{1, "A001", "타이레놀", 10.0, 1000.0});
+        Long id = repo.rows.get("A001").getId();
+
+        MedicineImportResult result = importRows(new Object[]{1, "A001", "타이레놀", 7.0, 700.0});
+
+        assertThat(result).isEqualTo(new MedicineImportResult(0, 1, 0));
+        assertThat(repo.updateCalls).hasSize(1);
+        Medicine updated = repo.updateCalls.get(0);
+        assertThat(updated.getId()).isEqualTo(id);
+        assertThat(updated.getStockQty()).isEqualTo(7.0);
+        StockMovement movement = journaled(2).get(1).get(0);
+        assertThat(movement.getMedicineId()).isEqualTo(id);
+        assertThat(movement.getQtyDelta()).isEqualTo(-3.0);
+        assertThat(movement.getAmountDelta()).isEqualTo(-300.0);
+    }
+
+    @Test
+    void duplicateCodesInOneChunkKeepLastRow() throws Exception {
+        MedicineImportResult result = importRows(
+                new Object[]{1, "A001", "타이레놀", 10.0, 1000.0},
+                new Object[]{2, "A001", "타이레놀 ER", 4.0, 400.0});
+
+        assertThat(result).isEqualTo(new MedicineImportResult(1, 0, 0));
+        assertThat(repo.insertCalls).hasSize(1);
+        Medicine inserted = repo.rows.get("A001");
+        assertThat(inserted.getNo()).isEqualTo(2);
+        assertThat(inserted.getName()).isEqualTo("타이레놀 ER");
+        assertThat(journaled(1).get(0).get(0).getQtyDelta()).isEqualTo(4.0);
+    }
+
+    @Test
+    void duplicateNoInOneChunkKeepsLastRow() throws Exception {
+        MedicineImportResult result = importRows(
+                new Object[]{1, "A001", "타이레놀", 10.0, 1000.0},
+                new Object[]{1, "B001", "게보린", 4.0, 400.0});
+
+        assertThat(result).isEqualTo(new MedicineImportResult(1, 0, 0));
+        assertThat(repo.rows).containsOnlyKeys("B001");
+        List<StockMovement> movements = journaled(1).get(0);
+        assertThat(movements).hasSize(1);
+        assertThat(movements.get(0).getMedicineId()).isEqualTo(repo.rows.get("B001").getId());
+        assertThat(movements.get(0).getQtyDelta()).isEqualTo(4.0);
+    }
+
+    @Test
+    void concurrentInsertIsJournaledAgainstWrittenRow() throws Exception {
+        // 다른 업로드가 같은 코드를 먼저 넣고 원장에 6개를 기록한 뒤, 이 업로드가 10개로 덮어씀
+        repo.beforeUpsert = () -> repo.insertConcurrently(7, "A001", 6.0, 600.0);
+        when(ledger.journalTotals(anyCollection())).thenAnswer(inv ->
+                Map.of(repo.rows.get("A001").getId(), new Double[]{6.0, 600.0}));
+
+        importRows(new Object[]{1, "A001", "타이레놀", 10.0, 1000.0});
+
+        Medicine written = repo.rows.get("A001");
+        assertThat(written.getNo()).isEqualTo(7);
+        assertThat(written.getStockQty()).isEqualTo(10.0);
+        List<StockMovement> movements = journaled(1).get(0);
+        assertThat(movements).hasSize(1);
+        assertThat(movements.get(0).getMedicineId()).isEqualTo(written.getId());
+        assertThat(movements.get(0).getQtyDelta()).isEqualTo(4.0);
+        assertThat(movements.get(0).getAmountDelta()).isEqualTo(400.0);
+    }
+
+    @Test
+    void rowsWithoutNumericNoAreIgnored() throws Exception {
+        MedicineImportResult result = importRows(new Object[]{"소계", "", "", 0.0, 0.0});
+
+        assertThat(result).isEqualTo(MedicineImportResult.EMPTY);
+        verify(ledger, never()).journal(any());
+    }
+
+    // ======================= 헬퍼 =======================
+    // 행: {No, 코드, 제품명, 재고수량, 재고금액}
+    private MedicineImportResult importRows(Object[]... rows) throws Exception {
+        File file = Files.createTempFile(tempDir, "medicines-", ".xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADERS.length; c++) {
+                header.createCell(c).setCellValue(HEADERS[c]);
+            }
+            for (int r = 0; r < rows.length; r++) {
+                Object[] values = rows[r];
+                Row row = sheet.createRow(r + 1);
+                if (values[0] instanceof Integer no) {
+                    row.createCell(0).setCellValue(no);
+                } else {
+                    row.createCell(0).setCellValue(String.valueOf(values[0]));
+                }
+                row.createCell(3).setCellValue((String) values[1]);
+                row.createCell(4).setCellValue((String) values[2]);
+                row.createCell(14).setCellValue((Double) values[3]);
+                row.createCell(18).setCellValue((Double) values[4]);
+            }
+            workbook.write(out);
+        }
+        return service.importFile(file, false, ImportProgress.NONE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<StockMovement>> journaled(int calls) {
+        ArgumentCaptor<List<StockMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledger, times(calls)).journal(captor.capture());
+        return captor.getAllValues();
+    }
+
+    // medicines 테이블 대신 코드 → 행을 메모리에 두는 저장소 (키 조회 / 배치 쓰기만 흉내)
+    private static final class FakeBulkRepository extends MedicineBulkRepository {
+        final Map<String, Medicine> rows = new LinkedHashMap<>();
+        final List<Medicine> insertCalls = new ArrayList<>();
+        final List<Medicine> updateCalls = new ArrayList<>();
+        Runnable beforeUpsert;
+        private long nextId = 1;
+
+        FakeBulkRepository() {
+            super(null, null);
+        }
+
+        @Override
+        public List<MedicineKey> lockKeys(Collection<String> codes, Collection<Integer> nos) {
+            List<MedicineKey> keys = new ArrayList<>();
+            for (Medicine m : rows.values()) {
+                if (codes.contains(m.getCode()) || nos.contains(m.getNo())) {
+                    keys.add(new MedicineKey(m.getId(), m.getNo(), m.getCode(), m.getRowFingerprint(),
+                            m.getStockQty(), m.getStockAmount()));
+                }
+            }
+            return keys;
+        }
+
+        @Override
+        public void batchUpdate(List<Medicine> updates) {
+            for (Medicine m : updates) {
+                updateCalls.add(m);
+                rows.put(m.getCode(), m);
+            }
+        }
+
+        // 다른 업로드가 키 조회와 쓰기 사이에 같은 행을 먼저 넣은 상황을 흉내
+        void insertConcurrently(int no, String code, double qty, double amount) {
+            Medicine m = new Medicine();
+            m.setId(nextId++);
+            m.setNo(no);
+            m.setCode(code);
+            m.setStockQty(qty);
+            m.setStockAmount(amount);
+            rows.put(code, m);
+        }
+
+        // INSERT ... ON DUPLICATE KEY UPDATE: 코드나 No 가 같은 행이 있으면 No/코드는 두고 나머지만 갱신
+        @Override
+        public void batchUpsert(List<Medicine> inserts) {
+            if (beforeUpsert != null) beforeUpsert.run();
+            for (Medicine m : inserts) {
+                insertCalls.add(m);
+                Medicine dup = rows.values().stream()
+                        .filter(r -> r.getCode().equals(m.getCode()) || r.getNo().equals(m.getNo()))
+                        .findFirst().orElse(null);
+                if (dup == null) {
+                    m.setId(nextId++);
+                    rows.put(m.getCode(), m);
+                } else {
+                    dup.setName(m.getName());
+                    dup.setStockQty(m.getStockQty());
+                    dup.setStockAmount(m.getStockAmount());
+                    dup.setRowFingerprint(m.getRowFingerprint());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MedicineSearchIndexTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private MedicineSearchIndex index;
+    // medicines 테이블 대신 id → {id, code, name, manufacturer}
+    private final Map<Long, Object[]> table = new ConcurrentHashMap<>();
+    // 개별 조회가 결과를 읽은 직후 실행할 동작 (겹친 반영 흉내)
+    private volatile Runnable afterKeyedRead = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(NamedParameterJdbcTemplate.class);
+        index = new MedicineSearchIndex(jdbc);
+        stubKeyedQuery();
+    }
+
+    @Test
+    void searchIgnoresCaseAndWhitespace() {
+        index.upsert(save(1L, "AB-100", "타이레놀 정 500mg", "한국얀센"));
+
+        assertThat(index.search("타이 레놀", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("ab-1", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("ㅌㅇㄹㄴ", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+    }
+
+    @Test
+    void longerQueriesMatchThroughTrigrams() {
+        index.upsert(save(1L, "AB-100", "타이레놀 정 500mg", "한국얀센"));
+        index.upsert(save(2L, "CD-200", "타이레놀 이알 서방정", "한국얀센"));
+
+        assertThat(index.search("레놀정", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("타이레놀", 10)).extracting(MedicineSearchHit::id).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("놀이알", 10)).extracting(MedicineSearchHit::id).containsExactly(2L);
+        assertThat(index.search("레놀서", 10)).isEmpty();
+    }
+
+    @Test
+    void overlappingRefreshesApplyTheLatestRead() throws Exception {
+        save(1L, "AB-100", "타이레놀", "한국얀센");
+        CountDownLatch firstRead = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        afterKeyedRead = () -> {
+            afterKeyedRead = () -> { };
+            firstRead.countDown();
+            await(releaseFirst);
+        };
+
+        // 첫 반영이 예전 값을 읽은 채 멈춘 사이 값이 바뀌고 두 번째 반영이 시작됨
+        Thread first = new Thread(() -> index.refreshCodes(List.of("AB-100")));
+        first.start();
+        assertThat(firstRead.await(5, TimeUnit.SECONDS)).isTrue();
+        save(1L, "AB-100", "게보린", "삼진제약");
+        Thread second = new Thread(() -> index.refreshCodes(List.of("AB-100")));
+        second.start();
+        second.join(200);
+        releaseFirst.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertThat(index.search("게보린", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("타이레놀", 10)).isEmpty();
+    }
+
+    @Test
+    void updateDuringRebuildIsNotLostToOlderSnapshot() {
+        // 전체 조회가 도는 동안 개별 수정이 먼저 반영된 경우
+        stubFullQuery(List.of(new Object[]{1L, "AB-100", "타이레놀", "한국얀센"},
+                new Object[]{2L, "CD-200", "판콜에이", "동화약품"}),
+                () -> index.upsert(save(1L, "AB-100", "게보린", "삼진제약")));
+
+        index.rebuild();
+
+        assertThat(index.search("게보린", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("타이레놀", 10)).isEmpty();
+        assertThat(index.search("판콜", 10)).extracting(MedicineSearchHit::id).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void updatesAfterRebuildAreAppliedNormally() {
+        stubFullQuery(List.<Object[]>of(new Object[]{1L, "AB-100", "타이레놀", "한국얀센"}), () -> { });
+        index.rebuild();
+
+        index.upsert(save(1L, "AB-100", "게보린", "삼진제약"));
+
+        assertThat(index.search("게보린", 10)).extracting(MedicineSearchHit::id).containsExactly(1L);
+        assertThat(index.search("타이레놀", 10)).isEmpty();
+    }
+
+    // 전체 조회: duringQuery 를 실행한 뒤(조회 도중 들어온 수정) rows 를 돌려준다
+    @SuppressWarnings("unchecked")
+    private void stubFullQuery(List<Object[]> rows, Runnable duringQuery) {
+        when(jdbc.query(anyString(), any(RowMapper.class))).thenAnswer(invocation -> {
+            duringQuery.run();
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (Object[] row : rows) {
+                mapped.add(mapper.mapRow(resultSet(row), mapped.size()));
+            }
+            return mapped;
+        });
+    }
+
+    // 개별 조회(id / code IN (:keys)): table 에서 키가 일치하는 행을 돌려준다
+    @SuppressWarnings("unchecked")
+    private void stubKeyedQuery() {
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            Collection<?> keys = (Collection<?>) ((SqlParameterSource) invocation.getArgument(1)).getValue("keys");
+            int keyColumn = sql.contains("code IN") ? 1 : 0;
+            RowMapper<Object> mapper = invocation.getArgument(2);
+            List<Object> mapped = new ArrayList<>();
+            for (Object[] row : table.values()) {
+                if (keys.contains(row[keyColumn])) {
+                    mapped.add(mapper.mapRow(resultSet(row), mapped.size()));
+                }
+            }
+            afterKeyedRead.run();
+            return mapped;
+        });
+    }
+
+    private Medicine save(Long id, String code, String name, String manufacturer) {
+        table.put(id, new Object[]{id, code, name, manufacturer});
+        return medicine(id, code, name, manufacturer);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn((Long) row[0]);
+        when(rs.getString("code")).thenReturn((String) row[1]);
+        when(rs.getString("name")).thenReturn((String) row[2]);
+        when(rs.getString("manufacturer")).thenReturn((String) row[3]);
+        return rs;
+    }
+
+    private static Medicine medicine(Long id, String code, String name, String manufacturer) {
+        Medicine m = new Medicine();
+        m.setId(id);
+        m.setCode(code);
+        m.setName(name);
+        m.setManufacturer(manufacturer);
+        return m;
+    }
+}
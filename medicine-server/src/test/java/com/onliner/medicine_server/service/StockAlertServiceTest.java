@@ -0,0 +1,112 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.websocket.ChatWebSocketHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.Invocation;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockAlertServiceTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private ChatWebSocketHandler webSocket;
+    private StockAlertService service;
+    // 다음 조회가 돌려줄 행: {id, stock_qty}
+    private final List<double[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbc = mock(NamedParameterJdbcTemplate.class);
+        webSocket = mock(ChatWebSocketHandler.class);
+        service = new StockAlertService(jdbc, webSocket, "dh-pharm", 10, 600, 30);
+        when(jdbc.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(2);
+                    List<Object> mapped = new ArrayList<>();
+                    for (double[] row : rows) {
+                        mapped.add(mapper.mapRow(resultSet(row), mapped.size()));
+                    }
+                    return mapped;
+                });
+    }
+
+    @Test
+    void queriesOnlyRowsWithStockQuantity() {
+        service.onStockChanged(List.of(1L));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbc).query(sql.capture(), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<Object>>any());
+        assertThat(sql.getValue()).contains("stock_qty IS NOT NULL");
+        verify(webSocket, never()).publish(anyString(), any());
+    }
+
+    @Test
+    void alertsOnlyWhenLevelChanges() {
+        rows.add(new double[]{1, 5});
+        service.onStockChanged(List.of(1L));
+        service.onStockChanged(List.of(1L));
+
+        assertThat(publishedLevels()).containsExactly(List.of(StockAlertService.LEVEL_LOW));
+    }
+
+    @Test
+    void outOfStockIsSentImmediatelyButRecoveryWaitsForWindow() {
+        rows.add(new double[]{1, 5});
+        service.onStockChanged(List.of(1L));
+        rows.set(0, new double[]{1, 0});
+        service.onStockChanged(List.of(1L));
+        rows.set(0, new double[]{1, 50});
+        service.onStockChanged(List.of(1L));
+        service.flushPending();
+
+        // 회복 알림은 coalesce 시간(600초) 동안 보류된다
+        assertThat(publishedLevels()).containsExactly(
+                List.of(StockAlertService.LEVEL_LOW), List.of(StockAlertService.LEVEL_OUT));
+    }
+
+    // 알림 방으로 발행된 이벤트마다 알림 단계 목록
+    @SuppressWarnings("unchecked")
+    private List<List<String>> publishedLevels() {
+        List<List<String>> levels = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(webSocket).getInvocations()) {
+            if (!invocation.getMethod().getName().equals("publish")) continue;
+            assertThat((String) invocation.getArgument(0)).isEqualTo("vendor:dh-pharm:alerts");
+            Map<String, Object> event = invocation.getArgument(1);
+            List<StockAlert> alerts = (List<StockAlert>) event.get("alerts");
+            levels.add(alerts.stream().map(StockAlert::level).toList());
+        }
+        return levels;
+    }
+
+    private static ResultSet resultSet(double[] row) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn((long) row[0]);
+        when(rs.getString("code")).thenReturn("M" + (long) row[0]);
+        when(rs.getString("name")).thenReturn("약품" + (long) row[0]);
+        when(rs.getDouble("stock_qty")).thenReturn(row[1]);
+        // safety_stock 은 NULL → 기본 임계치(10) 사용
+        when(rs.getDouble("safety_stock")).thenReturn(0.0);
+        when(rs.wasNull()).thenReturn(true);
+        return rs;
+    }
+}
@@ -0,0 +1,274 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.Medicine;
+import com.onliner.medicine_server.entity.StockMovement;
+import com.onliner.medicine_server.repository.MedicineRepository;
+import com.onliner.medicine_server.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLedgerServiceTest {
+
+    private FakeMovementRepository repo;
+    private CatalogCache catalogCache;
+    private StockAlertService alerts;
+    private MedicineRepository medicineRepo;
+    private StockLedgerService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = new FakeMovementRepository();
+        repo.addMedicine(1L, "A001", 10.0, 1000.0, 100.0);
+        repo.addMedicine(2L, "B002", 5.0, 250.0, 50.0);
+        catalogCache = mock(CatalogCache.class);
+        alerts = mock(StockAlertService.class);
+        medicineRepo = mock(MedicineRepository.class);
+        service = new StockLedgerService(repo, medicineRepo,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), catalogCache, alerts);
+    }
+
+    @Test
+    void adjustByCodeAppliesDeltaToSnapshotAndJournal() {
+        List<StockAdjustmentResult> results = service.adjustByCode(List.of(
+                new StockAdjustment("A001", -3.0, "파손"),
+                new StockAdjustment(" B002 ", 2.0, "반품 입고")));
+
+        assertThat(results).extracting(StockAdjustmentResult::applied).containsExactly(true, true);
+        // 금액 증감이 없으면 수량 × 단가
+        assertThat(results.get(0).stockQty()).isEqualTo(7.0);
+        assertThat(results.get(0).stockAmount()).isEqualTo(700.0);
+        assertThat(results.get(1).stockQty()).isEqualTo(7.0);
+        assertThat(results.get(1).stockAmount()).isEqualTo(350.0);
+        assertThat(repo.journal).extracting(StockMovement::getType)
+                .containsOnly(StockMovement.Type.ADJUSTMENT);
+        assertThat(repo.journal).extracting(StockMovement::getQtyDelta).containsExactly(-3.0, 2.0);
+        verify(alerts).onStockChanged(Set.of(1L, 2L));
+    }
+
+    @Test
+    void sameCodeTwiceAccumulates() {
+        List<StockAdjustmentResult> results = service.adjustByCode(List.of(
+                new StockAdjustment("A001", 4.0, null),
+                new StockAdjustment("A001", 1.0, null)));
+
+        assertThat(repo.qty(1L)).isEqualTo(15.0);
+        assertThat(results).extracting(StockAdjustmentResult::stockQty).containsExactly(15.0, 15.0);
+    }
+
+    @Test
+    void invalidItemsFailIndividuallyWithoutBlockingOthers() {
+        List<StockAdjustmentResult> results = service.adjustByCode(List.of(
+                new StockAdjustment("NOPE", 1.0, null),
+                new StockAdjustment(" ", 1.0, null),
+                new StockAdjustment("A001", null, null),
+                new StockAdjustment("B002", 1.0, null)));
+
+        assertThat(results).extracting(StockAdjustmentResult::applied).containsExactly(false, false, false, true);
+        assertThat(results.get(0).error()).isNotBlank();
+        assertThat(repo.qty(1L)).isEqualTo(10.0);
+        assertThat(repo.qty(2L)).isEqualTo(6.0);
+        assertThat(repo.journal).hasSize(1);
+    }
+
+    @Test
+    void zeroDeltaIsAppliedWithoutJournalEntry() {
+        List<StockAdjustmentResult> results = service.adjustByCode(List.of(new StockAdjustment("A001", 0.0, null)));
+
+        assertThat(results.get(0).applied()).isTrue();
+        assertThat(results.get(0).stockQty()).isEqualTo(10.0);
+        assertThat(repo.journal).isEmpty();
+    }
+
+    @Test
+    void rebuildRestoresSnapshotFromJournal() {
+        service.seedOpeningBalances();
+        service.adjustByCode(List.of(new StockAdjustment("A001", -4.0, null)));
+        // 원장을 거치지 않은 직접 수정으로 스냅샷이 어긋난 상황
+        repo.setSnapshot(1L, 99.0, 9900.0);
+
+        int fixed = service.rebuildFromJournal();
+
+        assertThat(fixed).isEqualTo(1);
+        assertThat(repo.qty(1L)).isEqualTo(6.0);
+        assertThat(repo.qty(2L)).isEqualTo(5.0);
+        assertThat(service.rebuildFromJournal()).isZero();
+        verify(catalogCache, atLeastOnce()).invalidate(CatalogCache.Catalog.MEDICINES);
+    }
+
+    @Test
+    void manualEditSavesAndJournalsDifferenceWithOneAlert() {
+        Medicine edited = medicine(1L);
+
+        Double[] stock = service.saveManualEdit(edited, 10.0, 12.0, 1000.0, 1000.0, "재고 수정 (PUT)");
+
+        verify(medicineRepo).save(edited);
+        assertThat(stock).containsExactly(12.0, 1200.0);
+        assertThat(repo.journal).extracting(StockMovement::getQtyDelta).containsExactly(2.0);
+        verify(alerts).onStockChanged(List.of(1L));
+    }
+
+    @Test
+    void manualEditWithoutStockChangeSavesAndStillChecksAlerts() {
+        Medicine edited = medicine(1L);
+        edited.setSafetyStock(20.0);
+
+        assertThat(service.saveManualEdit(edited, 10.0, 10.0, 1000.0, null, "재고 수정 (PUT)")).isNull();
+
+        verify(medicineRepo).save(edited);
+        assertThat(repo.journal).isEmpty();
+        verify(alerts).onStockChanged(List.of(1L));
+    }
+
+    @Test
+    void failedSaveLeavesStockAndJournalUntouched() {
+        when(medicineRepo.save(any())).thenThrow(new IllegalStateException("db down"));
+        Medicine edited = medicine(1L);
+
+        assertThatThrownBy(() -> service.saveManualEdit(edited, 10.0, 12.0, null, null, "재고 수정 (PUT)"))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(repo.qty(1L)).isEqualTo(10.0);
+        assertThat(repo.journal).isEmpty();
+        verify(alerts, never()).onStockChanged(any());
+    }
+
+    private static Medicine medicine(Long id) {
+        Medicine m = new Medicine();
+        m.setId(id);
+        return m;
+    }
+
+    // medicines 스냅샷 + stock_movements 원장을 메모리에 두는 저장소 (SQL 과 같은 규칙으로 증감)
+    private static final class FakeMovementRepository extends StockMovementRepository {
+        private record Row(String code, double unitPrice) {
+        }
+
+        final Map<Long, Row> medicines = new LinkedHashMap<>();
+        final Map<Long, double[]> snapshot = new HashMap<>();
+        final List<StockMovement> journal = new ArrayList<>();
+
+        FakeMovementRepository() {
+            super(null, null);
+        }
+
+        void addMedicine(Long id, String code, double qty, double amount, double unitPrice) {
+            medicines.put(id, new Row(code, unitPrice));
+            snapshot.put(id, new double[]{qty, amount});
+        }
+
+        void setSnapshot(Long id, double qty, double amount) {
+            snapshot.put(id, new double[]{qty, amount});
+        }
+
+        double qty(Long id) {
+            return snapshot.get(id)[0];
+        }
+
+        @Override
+        public void batchAppend(List<StockMovement> movements) {
+            for (StockMovement mv : movements) {
+                journal.add(StockMovement.builder()
+                        .medicineId(mv.getMedicineId())
+                        .type(mv.getType())
+                        .qtyDelta(mv.getQtyDelta())
+                        .amountDelta(amountOf(mv))
+                        .reason(mv.getReason())
+                        .build());
+            }
+        }
+
+        @Override
+        public int[] batchIncrement(List<StockMovement> movements) {
+            int[] counts = new int[movements.size()];
+            for (int i = 0; i < counts.length; i++) {
+                StockMovement mv = movements.get(i);
+                double[] s = snapshot.get(mv.getMedicineId());
+                if (s == null) continue;
+                s[0] += mv.getQtyDelta();
+                s[1] += amountOf(mv);
+                counts[i] = 1;
+            }
+            return counts;
+        }
+
+        @Override
+        public int insertOpeningBalances() {
+            int inserted = 0;
+            for (Map.Entry<Long, double[]> e : snapshot.entrySet()) {
+                boolean hasJournal = journal.stream().anyMatch(mv -> mv.getMedicineId().equals(e.getKey()));
+                if (hasJournal) continue;
+                journal.add(StockMovement.builder()
+                        .medicineId(e.getKey())
+                        .type(StockMovement.Type.OPENING)
+                        .qtyDelta(e.getValue()[0])
+                        .amountDelta(e.getValue()[1])
+                        .build());
+                inserted++;
+            }
+            return inserted;
+        }
+
+        @Override
+        public int rebuildSnapshot() {
+            int fixed = 0;
+            for (Map.Entry<Long, double[]> e : snapshot.entrySet()) {
+                double qty = 0.0;
+                double amount = 0.0;
+                for (StockMovement mv : journal) {
+                    if (!mv.getMedicineId().equals(e.getKey())) continue;
+                    qty += mv.getQtyDelta();
+                    amount += mv.getAmountDelta();
+                }
+                if (e.getValue()[0] != qty || e.getValue()[1] != amount) {
+                    e.setValue(new double[]{qty, amount});
+                    fixed++;
+                }
+            }
+            return fixed;
+        }
+
+        @Override
+        public Map<String, Long> findIdsByCode(Collection<String> codes) {
+            Map<String, Long> result = new HashMap<>();
+            medicines.forEach((id, row) -> {
+                if (codes.contains(row.code())) result.put(row.code(), id);
+            });
+            return result;
+        }
+
+        @Override
+        public Map<Long, Double[]> findStock(Collection<Long> ids) {
+            Map<Long, Double[]> result = new HashMap<>();
+            for (Long id : ids) {
+                double[] s = snapshot.get(id);
+                if (s != null) result.put(id, new Double[]{s[0], s[1]});
+            }
+            return result;
+        }
+
+        private double amountOf(StockMovement mv) {
+            return mv.getAmountDelta() != null
+                    ? mv.getAmountDelta()
+                    : mv.getQtyDelta() * medicines.get(mv.getMedicineId()).unitPrice();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import com.onliner.medicine_server.repository.VendorClientBulkRepository;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VendorClientImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FakeBulkRepository repo;
+    private VendorClientSearchService searchService;
+    private CatalogCache catalogCache;
+    private VendorClientImportService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = new FakeBulkRepository();
+        searchService = mock(VendorClientSearchService.class);
+        catalogCache = mock(CatalogCache.class);
+        service = new VendorClientImportService(repo,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), catalogCache, searchService);
+    }
+
+    @Test
+    void codeThatIsOnlyAPrefixOfAnExistingCodeIsInserted() throws Exception {
+        long a10 = repo.existing("A10", "기존 A10");
+
+        int saved = importRows("A1", "새 A1");
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(repo.insertCalls).extracting(VendorClient::getCode).containsExactly("A1");
+        assertThat(repo.updateCalls).isEmpty();
+        assertThat(repo.rows.get("a10").getNameInternal()).isEqualTo("기존 A10");
+        assertThat(repo.rows.get("a1").getId()).isNotEqualTo(a10);
+    }
+
+    @Test
+    void existingCodeIsUpdatedByIdAndNewCodeIsInserted() throws Exception {
+        long a1 = repo.existing("A1", "기존 A1");
+
+        importRows("A10", "새 A10", "A1", "바뀐 A1");
+
+        assertThat(repo.updateCalls).singleElement().satisfies(c -> {
+            assertThat(c.getId()).isEqualTo(a1);
+            assertThat(c.getNameInternal()).isEqualTo("바뀐 A1");
+        });
+        assertThat(repo.insertCalls).extracting(VendorClient::getCode).containsExactly("A10");
+        verify(searchService).reindex(List.of(a1, repo.rows.get("a10").getId()));
+    }
+
+    @Test
+    void codeMatchIgnoresCaseLikeTheDatabaseCollation() throws Exception {
+        long a1 = repo.existing("A1", "기존 A1");
+
+        importRows("a1", "소문자 a1");
+
+        assertThat(repo.insertCalls).isEmpty();
+        assertThat(repo.updateCalls).extracting(VendorClient::getId).containsExactly(a1);
+    }
+
+    @Test
+    void duplicateCodeInFileKeepsLastRowAndBlankCodesAreSkipped() throws Exception {
+        int saved = importRows("B2", "첫 행", "", "코드 없음", "B2", "마지막 행");
+
+        assertThat(saved).isEqualTo(1);
+        assertThat(repo.insertCalls).singleElement()
+                .extracting(VendorClient::getNameInternal).isEqualTo("마지막 행");
+    }
+
+    @Test
+    void writesInBatchesAndLaterBatchesSeeEarlierInserts() throws Exception {
+        // 500 건 배치 두 개: 뒤 배치의 C0000 은 앞 배치에서 넣은 행의 수정이어야 한다
+        List<String> cells = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            cells.add(String.format("C%04d", i));
+            cells.add("거래처 " + i);
+        }
+        cells.add("C0000");
+        cells.add("다시 올린 C0000");
+
+        int saved = importRows(cells.toArray(String[]::new));
+
+        assertThat(saved).isEqualTo(501);
+        assertThat(repo.insertBatches).isEqualTo(1);
+        assertThat(repo.insertCalls).hasSize(500);
+        assertThat(repo.updateCalls).singleElement()
+                .extracting(VendorClient::getNameInternal).isEqualTo("다시 올린 C0000");
+        verify(catalogCache, times(2)).invalidate(CatalogCache.Catalog.VENDOR_CLIENTS);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> reindexed = ArgumentCaptor.forClass(Collection.class);
+        verify(searchService, times(2)).reindex(reindexed.capture());
+        assertThat(reindexed.getAllValues().get(0)).hasSize(500);
+        assertThat(reindexed.getAllValues().get(1)).containsExactly(repo.rows.get("c0000").getId());
+    }
+
+    // ======================= 헬퍼 =======================
+    // 인자: 코드, 상호내부명 쌍을 행 순서대로
+    private int importRows(String... codeAndName) throws Exception {
+        File file = Files.createTempFile(tempDir, "clients-", ".xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("거래처구분");
+            header.createCell(1).setCellValue("코드");
+            header.createCell(2).setCellValue("상호내부명");
+            for (int i = 0; i < codeAndName.length; i += 2) {
+                Row row = sheet.createRow(i / 2 + 1);
+                row.createCell(0).setCellValue("병원");
+                row.createCell(1).setCellValue(codeAndName[i]);
+                row.createCell(2).setCellValue(codeAndName[i + 1]);
+            }
+            workbook.write(out);
+        }
+        return service.importExcel(file, ImportProgress.NONE);
+    }
+
+    // vendor_clients 대신 코드(소문자) → 행을 메모리에 두는 저장소
+    private static final class FakeBulkRepository extends VendorClientBulkRepository {
+        final Map<String, VendorClient> rows = new LinkedHashMap<>();
+        final List<VendorClient> insertCalls = new ArrayList<>();
+        final List<VendorClient> updateCalls = new ArrayList<>();
+        int insertBatches;
+        private long nextId = 100;
+
+        FakeBulkRepository() {
+            super(null, null);
+        }
+
+        long existing(String code, String name) {
+            VendorClient c = new VendorClient();
+            c.setId(nextId++);
+            c.setCode(code);
+            c.setNameInternal(name);
+            rows.put(codeKey(code), c);
+            return c.getId();
+        }
+
+        @Override
+        public Map<String, Long> loadIdsByCode() {
+            Map<String, Long> ids = new HashMap<>();
+            rows.forEach((key, c) -> ids.put(key, c.getId()));
+            return ids;
+        }
+
+        @Override
+        public Map<String, Long> findIdsByCode(Collection<String> codes) {
+            Map<String, Long> ids = new HashMap<>();
+            for (String code : codes) {
+                VendorClient c = rows.get(codeKey(code));
+                if (c != null) ids.put(codeKey(code), c.getId());
+            }
+            return ids;
+        }
+
+        @Override
+        public void batchInsert(List<VendorClient> inserts) {
+            if (inserts.isEmpty()) return;
+            insertBatches++;
+            for (VendorClient c : inserts) {
+                insertCalls.add(c);
+                c.setId(nextId++);
+                rows.put(codeKey(c.getCode()), c);
+            }
+        }
+
+        @Override
+        public void batchUpdate(List<VendorClient> updates) {
+            for (VendorClient c : updates) {
+                updateCalls.add(c);
+                rows.values().stream()
+                        .filter(r -> r.getId().equals(c.getId()))
+                        .findFirst()
+                        .ifPresent(r -> r.setNameInternal(c.getNameInternal()));
+            }
+        }
+    }
+}
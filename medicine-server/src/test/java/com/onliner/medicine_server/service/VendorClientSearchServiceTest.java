@@ -0,0 +1,140 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorClient;
+import com.onliner.medicine_server.repository.VendorClientRepository;
+import com.onliner.medicine_server.util.SearchText;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VendorClientSearchServiceTest {
+
+    private NamedParameterJdbcTemplate namedJdbc;
+    private VendorClientRepository clientRepo;
+    private PlatformTransactionManager txManager;
+    private VendorClientSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        namedJdbc = mock(NamedParameterJdbcTemplate.class);
+        clientRepo = mock(VendorClientRepository.class);
+        txManager = mock(PlatformTransactionManager.class);
+        service = new VendorClientSearchService(namedJdbc, mock(JdbcTemplate.class),
+                clientRepo, new TransactionTemplate(txManager));
+    }
+
+    @Test
+    void indexedGramsCoverEveryQueryGramOfAMatchingClient() {
+        String searchText = VendorClient.buildSearchText("온라인 약국", "본점", "H-001", "123-45-67890");
+        Set<String> indexed = VendorClientSearchService.gramsOf(searchText);
+
+        for (String query : List.of("온라인", "라인약국", "본점", "h-001", "4567")) {
+            assertThat(indexed).containsAll(SearchText.bigrams(SearchText.normalize(query)));
+        }
+    }
+
+    @Test
+    void gramsDoNotCrossFieldBoundaries() {
+        String searchText = VendorClient.buildSearchText("약국", "본점", "H1", "");
+        Set<String> indexed = VendorClientSearchService.gramsOf(searchText);
+
+        assertThat(indexed).containsExactlyInAnyOrder("약국", "본점", "h1");
+        assertThat(indexed).doesNotContain("국|", "국본");
+        assertThat(VendorClientSearchService.gramsOf(null)).isEmpty();
+    }
+
+    @Test
+    void multiCharacterQueryUsesGramFilterWithAllQueryGrams() {
+        MapSqlParameterSource params = search("온라인 약국");
+
+        assertThat(params.getValue("grams")).isEqualTo(Set.of("온라", "라인", "인약", "약국"));
+        assertThat(params.getValue("gramCount")).isEqualTo(4);
+        assertThat(params.getValue("contains")).isEqualTo("%온라인약국%");
+    }
+
+    @Test
+    void businessNumberQuerySearchesDigitsOnly() {
+        MapSqlParameterSource params = search("123-45");
+
+        assertThat(params.getValue("key")).isEqualTo("12345");
+        assertThat(params.getValue("grams")).isEqualTo(Set.of("12", "23", "34", "45"));
+    }
+
+    @Test
+    void singleCharacterQueryUsesPrefixSearch() {
+        MapSqlParameterSource params = search("약");
+
+        assertThat(params.hasValue("grams")).isFalse();
+        assertThat(params.getValue("prefix")).isEqualTo("약%");
+    }
+
+    @Test
+    void blankQueryDoesNotHitTheDatabase() {
+        assertThat(service.search("  ", 20)).isEmpty();
+        verify(namedJdbc, never()).query(anyString(), any(MapSqlParameterSource.class), ArgumentMatchers.<RowMapper<Object>>any());
+    }
+
+    @Test
+    void saveFlushesThenReindexesInOneTransaction() {
+        VendorClient client = client(7L, "H-007");
+        when(clientRepo.saveAndFlush(client)).thenReturn(client);
+
+        assertThat(service.save(client)).isSameAs(client);
+
+        InOrder order = inOrder(txManager, clientRepo, namedJdbc);
+        order.verify(txManager).getTransaction(any());
+        order.verify(clientRepo).saveAndFlush(client);
+        order.verify(namedJdbc).update(anyString(), any(SqlParameterSource.class));
+        order.verify(txManager).commit(any());
+    }
+
+    @Test
+    void failedReindexRollsBackTheSave() {
+        VendorClient client = client(7L, "H-007");
+        when(clientRepo.saveAndFlush(client)).thenReturn(client);
+        when(namedJdbc.update(anyString(), any(SqlParameterSource.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> service.save(client)).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(txManager).rollback(any());
+        verify(txManager, never()).commit(any());
+    }
+
+    private static VendorClient client(Long id, String code) {
+        VendorClient client = new VendorClient();
+        client.setId(id);
+        client.setCode(code);
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MapSqlParameterSource search(String q) {
+        service.search(q, 20);
+        ArgumentCaptor<MapSqlParameterSource> captor = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(namedJdbc).query(anyString(), captor.capture(), any(RowMapper.class));
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,277 @@
+package com.onliner.medicine_server.service;
+
+import com.onliner.medicine_server.entity.VendorLedgerEntry;
+import com.onliner.medicine_server.repository.LedgerRollupRepository;
+import com.onliner.medicine_server.repository.VendorLedgerBulkRepository;
+import com.onliner.medicine_server.repository.VendorLedgerEntryRepository;
+import com.onliner.medicine_server.util.CursorCodec;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class VendorLedgerServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @TempDir
+    Path tempDir;
+
+    private VendorLedgerEntryRepository ledgerRepo;
+    private FakeLedgerBulkRepository bulkRepo;
+    private LedgerRollupRepository rollupRepo;
+    private CreditExposureService creditExposureService;
+    private VendorLedgerService service;
+
+    @BeforeEach
+    void setUp() {
+        ledgerRepo = mock(VendorLedgerEntryRepository.class);
+        bulkRepo = new FakeLedgerBulkRepository();
+        rollupRepo = mock(LedgerRollupRepository.class);
+        creditExposureService = mock(CreditExposureService.class);
+        service = new VendorLedgerService(ledgerRepo, bulkRepo, rollupRepo, creditExposureService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void nextCursorContinuesAfterLastRowOfSameQuery() {
+        when(ledgerRepo.findPageAfter(eq("H001"), eq(FROM), eq(0L), eq(TO), any(Limit.class)))
+                .thenReturn(entries(3, 10L));
+
+        MedicinePage<VendorLedgerEntry> first = service.getLedgerPage("H001", "2024-03-01", "2024-03-31", null, 2);
+
+        assertThat(first.items()).hasSize(2);
+        assertThat(first.nextCursor()).isNotNull();
+
+        service.getLedgerPage("H001", "2024-03-01", "2024-03-31", first.nextCursor(), 2);
+        verify(ledgerRepo).findPageAfter(eq("H001"), eq(LocalDate.of(2024, 3, 2)), eq(11L), eq(TO), any(Limit.class));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(ledgerRepo.findPageAfter(eq("H001"), eq(FROM), eq(0L), eq(TO), any(Limit.class)))
+                .thenReturn(entries(2, 10L));
+
+        assertThat(service.getLedgerPage("H001", "2024-03-01", "2024-03-31", null, 2).nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherHospitalOrPeriod() {
+        when(ledgerRepo.findPageAfter(eq("H001"), eq(FROM), eq(0L), eq(TO), any(Limit.class)))
+                .thenReturn(entries(3, 10L));
+        String cursor = service.getLedgerPage("H001", "2024-03-01", "2024-03-31", null, 2).nextCursor();
+
+        assertThatThrownBy(() -> service.getLedgerPage("H002", "2024-03-01", "2024-03-31", cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getLedgerPage("H001", "2024-03-05", "2024-03-31", cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getLedgerPage("H001", "2024-03-01", "2024-03-20", cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorPositionOutsideRangeIsRejected() {
+        String early = CursorCodec.encode("ledger", "H001", "2024-03-01", "2024-03-31", "2024-02-01", "1");
+
+        assertThatThrownBy(() -> service.getLedgerPage("H001", "2024-03-01", "2024-03-31", early, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void uploadingSameFileTwiceReplacesTheRangeInsteadOfAppending() throws Exception {
+        File file = ledgerFile(
+                new Object[]{"2024-03-05", "O-1", 2, 1000},
+                new Object[]{"2024-03-05", "O-2", 1, 500},
+                new Object[]{"2024-03-20", "O-3", 3, 300});
+
+        LedgerImportResult first = service.importExcel(file, "H001", "2024-03-01", "2024-03-31", ImportProgress.NONE);
+        List<String> afterFirst = bulkRepo.orderIds();
+        LedgerImportResult second = service.importExcel(file, "H001", "2024-03-01", "2024-03-31", ImportProgress.NONE);
+
+        assertThat(first).isEqualTo(new LedgerImportResult(0, 3, 0));
+        assertThat(second).isEqualTo(new LedgerImportResult(3, 3, 0));
+        assertThat(bulkRepo.orderIds()).isEqualTo(afterFirst).containsExactly("O-1", "O-2", "O-3");
+        // 두 번째 업로드는 금액이 같으므로 미수 잔액 증감 없음
+        verify(creditExposureService).applyLedgerDelta(eq("H001"), amount("1800"));
+        verify(creditExposureService).applyLedgerDelta(eq("H001"), amount("0"));
+    }
+
+    @Test
+    void replaceTouchesOnlyTheRequestedHospitalAndPeriod() throws Exception {
+        bulkRepo.insert("H001", "2024-02-28", "2월", 100);
+        bulkRepo.insert("H001", "2024-03-10", "이전 업로드", 700);
+        bulkRepo.insert("H002", "2024-03-10", "다른 병원", 900);
+        File file = ledgerFile(
+                new Object[]{"2024-03-10", "O-1", 1, 400},
+                new Object[]{"2024-04-01", "기간 밖", 1, 999},
+                new Object[]{"소계", null, 0, 400});
+
+        LedgerImportResult result = service.importExcel(file, "H001", "2024-03-01", "2024-03-31", ImportProgress.NONE);
+
+        assertThat(result).isEqualTo(new LedgerImportResult(1, 1, 1));
+        assertThat(bulkRepo.orderIds()).containsExactlyInAnyOrder("2월", "다른 병원", "O-1");
+        verify(creditExposureService).applyLedgerDelta(eq("H001"), amount("-300"));
+    }
+
+    @Test
+    void invalidPeriodIsRejectedBeforeTouchingTheTable() {
+        bulkRepo.insert("H001", "2024-03-10", "기존", 700);
+
+        assertThatThrownBy(() -> service.importExcel(tempDir.resolve("none.xlsx").toFile(),
+                "H001", "2024-03-31", "2024-03-01", ImportProgress.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(bulkRepo.orderIds()).containsExactly("기존");
+    }
+
+    @Test
+    void uploadRefreshesRollupsForTheReplacedRangeAfterInserting() throws Exception {
+        bulkRepo.insert("H001", "2024-03-10", "이전 업로드", 700);
+        File file = ledgerFile(new Object[]{"2024-03-10", "O-1", 1, 400});
+        List<List<String>> seenByRefresh = new ArrayList<>();
+        doAnswer(inv -> seenByRefresh.add(bulkRepo.orderIds()))
+                .when(rollupRepo).refresh("H001", FROM, TO);
+
+        service.importExcel(file, "H001", "2024-03-01", "2024-03-31", ImportProgress.NONE);
+
+        // 집계는 교체가 끝난 원본을 기준으로 한 번만 다시 계산
+        assertThat(seenByRefresh).containsExactly(List.of("O-1"));
+        verify(rollupRepo, never()).rebuildAll();
+    }
+
+    @Test
+    void summariesReadRollupRangesOnly() {
+        service.getDailySummary("H001", "2024-03-01", "2024-03-31");
+        service.getMonthlySummary("H001", "2024-01", "2024-03");
+
+        verify(rollupRepo).findDaily("H001", FROM, TO);
+        verify(rollupRepo).findMonthly("H001", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1));
+        verifyNoInteractions(ledgerRepo);
+        assertThatThrownBy(() -> service.getMonthlySummary("H001", "2024-1", "2024-03"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rollupsAreBackfilledOnlyWhenEmpty() {
+        when(rollupRepo.needsBackfill()).thenReturn(false, true);
+
+        service.backfillRollups();
+        verify(rollupRepo, never()).rebuildAll();
+
+        service.backfillRollups();
+        verify(rollupRepo).rebuildAll();
+    }
+
+    // 3월 1일부터 하루에 한 건씩, id 는 firstId 부터
+    private static List<VendorLedgerEntry> entries(int count, long firstId) {
+        List<VendorLedgerEntry> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(VendorLedgerEntry.builder()
+                    .id(firstId + i)
+                    .date(FROM.plusDays(i))
+                    .hospitalId("H001")
+                    .build());
+        }
+        return rows;
+    }
+
+    // 엑셀 숫자는 소수 자릿수가 붙어 오므로 값으로만 비교
+    private static BigDecimal amount(String expected) {
+        return argThat(actual -> actual.compareTo(new BigDecimal(expected)) == 0);
+    }
+
+    // 행: {일자, 주문번호, 수량, 금액}
+    private File ledgerFile(Object[]... rows) throws Exception {
+        File file = Files.createTempFile(tempDir, "ledger-", ".xlsx").toFile();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file.toPath())) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(1).setCellValue("일자");
+            header.createCell(2).setCellValue("주문번호");
+            header.createCell(5).setCellValue("수량");
+            header.createCell(8).setCellValue("금액");
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r + 1);
+                row.createCell(1).setCellValue((String) rows[r][0]);
+                if (rows[r][1] != null) row.createCell(2).setCellValue((String) rows[r][1]);
+                row.createCell(5).setCellValue((Integer) rows[r][2]);
+                row.createCell(8).setCellValue((Integer) rows[r][3]);
+            }
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    // vendor_ledger_entries 대신 메모리 목록 (구간 합계 / 구간 삭제 / 배치 삽입만 흉내)
+    private static final class FakeLedgerBulkRepository extends VendorLedgerBulkRepository {
+        final List<VendorLedgerEntry> rows = new ArrayList<>();
+
+        FakeLedgerBulkRepository() {
+            super(null);
+        }
+
+        void insert(String hospitalId, String date, String orderId, int amount) {
+            rows.add(VendorLedgerEntry.builder()
+                    .hospitalId(hospitalId)
+                    .date(LocalDate.parse(date))
+                    .orderId(orderId)
+                    .amount(BigDecimal.valueOf(amount))
+                    .build());
+        }
+
+        List<String> orderIds() {
+            return rows.stream().map(VendorLedgerEntry::getOrderId).toList();
+        }
+
+        @Override
+        public BigDecimal sumAmount(String hospitalId, LocalDate from, LocalDate to) {
+            return rows.stream()
+                    .filter(e -> inRange(e, hospitalId, from, to))
+                    .map(VendorLedgerEntry::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        @Override
+        public int deleteRange(String hospitalId, LocalDate from, LocalDate to) {
+            int before = rows.size();
+            rows.removeIf(e -> inRange(e, hospitalId, from, to));
+            return before - rows.size();
+        }
+
+        @Override
+        public void batchInsert(List<VendorLedgerEntry> entries) {
+            rows.addAll(entries);
+        }
+
+        private static boolean inRange(VendorLedgerEntry e, String hospitalId, LocalDate from, LocalDate to) {
+            return e.getHospitalId().equals(hospitalId)
+                    && !e.getDate().isBefore(from) && !e.getDate().isAfter(to);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.onliner.medicine_server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripKeepsKeysInOrder() {
+        String token = CursorCodec.encode("ledger", "H001", "2024-03-01", "", "약품 A");
+
+        assertThat(CursorCodec.decode(token, "ledger", 4))
+                .containsExactly("H001", "2024-03-01", "", "약품 A");
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = CursorCodec.encode("code", "??>>~~");
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsOtherKindOrKeyCount() {
+        String token = CursorCodec.encode("code", "A001");
+
+        assertThatThrownBy(() -> CursorCodec.decode(token, "id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(token, "code", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTamperedToken() {
+        byte[] bytes = Base64.getUrlDecoder().decode(CursorCodec.encode("id", "100"));
+        // 키 값의 마지막 글자를 바꾼다 ("100" → "109")
+        bytes[bytes.length - 9] = '9';
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThatThrownBy(() -> CursorCodec.decode(tampered, "id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokenWithoutChecksum() {
+        String unsigned = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("id\u001F100".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CursorCodec.decode(unsigned, "id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatThrownBy(() -> CursorCodec.decode("not base64!", "id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode("", "id", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.onliner.medicine_server.util;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfUtilTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void vectorOverlayKeepsTemplateAndContentTextExtractable() throws IOException {
+        File output = tempDir.resolve("merged.pdf").toFile();
+
+        try (InvoiceTemplate template = InvoiceTemplate.load("template", pdf("FORM HEADER"));
+             PDDocument content = PDDocument.load(pdf("ORDER 1", "ORDER 2"))) {
+            PdfUtil.overlayTemplate(template, content, output.getPath());
+        }
+
+        try (PDDocument merged = PDDocument.load(output)) {
+            assertThat(merged.getNumberOfPages()).isEqualTo(2);
+            for (int i = 0; i < 2; i++) {
+                // 양식이 마지막 페이지를 반복해 모든 페이지 아래에 깔리고, 내용 글자도 그대로 남는다
+                assertThat(pageText(merged, i)).contains("FORM HEADER", "ORDER " + (i + 1));
+                assertThat(xObjectTypes(merged.getPage(i)))
+                        .containsOnly(PDFormXObject.class.getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void pageWithoutResourcesIsOverlaidAsVector() throws IOException {
+        File output = tempDir.resolve("blank.pdf").toFile();
+
+        try (InvoiceTemplate template = InvoiceTemplate.load("template", pdf("FORM HEADER"));
+             PDDocument content = new PDDocument()) {
+            // 글자 없이 만든 페이지에는 /Resources 가 없다
+            content.addPage(new PDPage());
+            assertThat(content.getPage(0).getResources()).isNull();
+
+            PdfUtil.overlayTemplateVector(template, content, output.getPath());
+        }
+
+        try (PDDocument merged = PDDocument.load(output)) {
+            assertThat(pageText(merged, 0)).contains("FORM HEADER");
+            assertThat(xObjectTypes(merged.getPage(0))).containsOnly(PDFormXObject.class.getSimpleName());
+        }
+    }
+
+    @Test
+    void failedVectorOverlayRestoresContentPages() throws IOException {
+        String unwritable = tempDir.resolve("missing").resolve("out.pdf").toString();
+
+        try (InvoiceTemplate template = InvoiceTemplate.load("template", pdf("FORM HEADER"));
+             PDDocument content = PDDocument.load(pdf("ORDER 1", "ORDER 2"))) {
+            assertThatThrownBy(() -> PdfUtil.overlayTemplateVector(template, content, unwritable))
+                    .isInstanceOf(IOException.class);
+
+            // 저장이 실패하면 양식을 깔기 전 내용 스트림 / 리소스로 되돌아가야 이미지 합성이 원본을 쓴다
+            for (int i = 0; i < 2; i++) {
+                assertThat(pageText(content, i)).doesNotContain("FORM HEADER").contains("ORDER " + (i + 1));
+                assertThat(xObjectTypes(content.getPage(i))).isEmpty();
+            }
+        }
+    }
+
+    // ======================= 헬퍼 =======================
+    // 페이지마다 한 줄씩 글자를 쓴 PDF
+    private static byte[] pdf(String... lines) throws IOException {
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < lines.length; i++) {
+                PDPage page = new PDPage();
+                doc.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(doc, page)) {
+                    stream.beginText();
+                    stream.setFont(PDType1Font.HELVETICA, 12);
+                    stream.newLineAtOffset(72, 700 - 40 * i);
+                    stream.showText(lines[i]);
+                    stream.endText();
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static String pageText(PDDocument doc, int pageIndex) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(pageIndex + 1);
+        stripper.setEndPage(pageIndex + 1);
+        return stripper.getText(doc);
+    }
+
+    private static List<String> xObjectTypes(PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        List<String> types = new ArrayList<>();
+        for (COSName name : resources.getXObjectNames()) {
+            Object xObject = resources.getXObject(name);
+            types.add(xObject instanceof PDImageXObject ? PDImageXObject.class.getSimpleName()
+                    : xObject.getClass().getSimpleName());
+        }
+        return types;
+    }
+}
@@ -0,0 +1,41 @@
+package com.onliner.medicine_server.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextTest {
+
+    @Test
+    void normalizeDropsWhitespaceAndLowercases() {
+        assertThat(SearchText.normalize("  온라인 약국 ABC\t")).isEqualTo("온라인약국abc");
+        assertThat(SearchText.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void digitsKeepsOnlyNumbers() {
+        assertThat(SearchText.digits("123-45-67890")).isEqualTo("1234567890");
+        assertThat(SearchText.digits(null)).isEmpty();
+    }
+
+    @Test
+    void numberLikeAllowsOnlyDigitsHyphensAndSpaces() {
+        assertThat(SearchText.isNumberLike("123-45")).isTrue();
+        assertThat(SearchText.isNumberLike(" 12 34 ")).isTrue();
+        assertThat(SearchText.isNumberLike("---")).isFalse();
+        assertThat(SearchText.isNumberLike("A-123")).isFalse();
+        assertThat(SearchText.isNumberLike(" ")).isFalse();
+    }
+
+    @Test
+    void bigramsAreOrderedAndDistinct() {
+        assertThat(SearchText.bigrams("약국약국")).containsExactly("약국", "국약");
+        assertThat(SearchText.bigrams("약")).isEmpty();
+        assertThat(SearchText.bigrams("")).isEmpty();
+    }
+
+    @Test
+    void escapeLikeEscapesWildcards() {
+        assertThat(SearchText.escapeLike("50%_a\\b")).isEqualTo("50\\%\\_a\\\\b");
+    }
+}
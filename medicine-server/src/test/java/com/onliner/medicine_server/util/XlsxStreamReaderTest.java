@@ -0,0 +1,205 @@
+package com.onliner.medicine_server.util;
+
+import com.onliner.medicine_server.util.XlsxStreamReader.CellKind;
+import com.onliner.medicine_server.util.XlsxStreamReader.RowCells;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxStreamReaderTest {
+
+    private static final int WIDTH = 6;
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    @TempDir
+    Path tempDir;
+
+    // 재사용되는 행 버퍼를 콜백 안에서 복사해 둔 값
+    private record Snapshot(int rowIndex, String[] values, CellKind[] kinds) {
+        static Snapshot of(RowCells row) {
+            String[] values = new String[row.getWidth()];
+            CellKind[] kinds = new CellKind[row.getWidth()];
+            for (int c = 0; c < row.getWidth(); c++) {
+                values[c] = row.getRaw(c);
+                kinds[c] = row.getKind(c);
+            }
+            return new Snapshot(row.getRowIndex(), values, kinds);
+        }
+    }
+
+    @Test
+    void resolvesSharedStringsIncludingRepeatedValues() throws Exception {
+        File file = write(sheet -> {
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("코드");
+            header.createCell(1).setCellValue("제품명");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("A001");
+            row.createCell(1).setCellValue("코드"); // 헤더와 같은 문자열 → 같은 공유 문자열 인덱스
+        });
+
+        List<Snapshot> rows = read(file);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).values()[0]).isEqualTo("코드");
+        assertThat(rows.get(1).values()[0]).isEqualTo("A001");
+        assertThat(rows.get(1).values()[1]).isEqualTo("코드");
+        assertThat(rows.get(1).kinds()[1]).isEqualTo(CellKind.STRING);
+    }
+
+    @Test
+    void skippedCellsAndEmptyStringsReadAsBlank() throws Exception {
+        File file = write(sheet -> {
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("a");
+            row.createCell(1).setCellValue("");
+            // 2, 3 번 셀은 만들지 않음
+            row.createCell(4).setCellValue(12.5);
+        });
+
+        Snapshot row = read(file).get(0);
+
+        assertThat(row.values()).containsExactly("a", null, null, null, "12.5", null);
+        assertThat(row.kinds()).containsExactly(CellKind.STRING, CellKind.BLANK, CellKind.BLANK, CellKind.BLANK,
+                CellKind.NUMERIC, CellKind.BLANK);
+    }
+
+    @Test
+    void rowBufferIsClearedBetweenRowsAndMissingRowsKeepIndex() throws Exception {
+        File file = write(sheet -> {
+            Row first = sheet.createRow(0);
+            first.createCell(0).setCellValue("x");
+            first.createCell(1).setCellValue("y");
+            // 1번 행은 없음
+            Row third = sheet.createRow(2);
+            third.createCell(1).setCellValue("z");
+        });
+
+        List<Snapshot> rows = read(file);
+
+        assertThat(rows).extracting(Snapshot::rowIndex).containsExactly(0, 2);
+        assertThat(rows.get(1).values()[0]).isNull();
+        assertThat(rows.get(1).values()[1]).isEqualTo("z");
+    }
+
+    @Test
+    void detectsDateBooleanAndIgnoresColumnsPastWidth() throws Exception {
+        File file = write(sheet -> {
+            CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
+            dateStyle.setDataFormat(sheet.getWorkbook().getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue(LocalDate.of(2024, 3, 15));
+            row.getCell(0).setCellStyle(dateStyle);
+            row.createCell(1).setCellValue(true);
+            row.createCell(WIDTH + 2).setCellValue("넘침");
+        });
+
+        Snapshot row = read(file).get(0);
+
+        assertThat(row.kinds()[0]).isEqualTo(CellKind.DATE);
+        assertThat(row.kinds()[1]).isEqualTo(CellKind.BOOLEAN);
+        assertThat(row.values()[1]).isEqualTo("true");
+        assertThat(row.values()).hasSize(WIDTH).doesNotContain("넘침");
+    }
+
+    @Test
+    void columnsOutsideRowReadAsBlankThroughConverters() throws Exception {
+        File file = write(sheet -> sheet.createRow(0).createCell(0).setCellValue(3.0));
+        List<Object> converted = new ArrayList<>();
+
+        // 헤더에서 찾지 못한 컬럼(-1)과 폭을 넘는 컬럼은 빈 셀
+        XlsxStreamReader.read(file, WIDTH, row -> {
+            for (int col : new int[]{-1, WIDTH}) {
+                converted.add(row.getKind(col));
+                converted.add(row.getRaw(col));
+                converted.add(CellConverters.TEXT.convert(row, col));
+                converted.add(CellConverters.DOUBLE_OR_ZERO.convert(row, col));
+                converted.add(CellConverters.NUMERIC_INT_OR_NULL.convert(row, col));
+            }
+        });
+
+        assertThat(converted).containsExactly(
+                CellKind.BLANK, null, "", 0.0, null,
+                CellKind.BLANK, null, "", 0.0, null);
+    }
+
+    @Test
+    void phoneticRunsAreNotPartOfCellText() throws Exception {
+        File file = write(sheet -> sheet.createRow(0).createCell(0).setCellValue("placeholder"));
+        // 공유 문자열(A1)과 인라인 문자열(B1) 모두 읽기 표시(<rPh>)를 붙여 다시 씀
+        replaceParts(file, Map.of(
+                "xl/sharedStrings.xml", "<sst xmlns=\"" + MAIN_NS + "\" count=\"1\" uniqueCount=\"1\">"
+                        + "<si><t>東京</t><rPh sb=\"0\" eb=\"2\"><t>トウキョウ</t></rPh>"
+                        + "<phoneticPr fontId=\"1\"/></si></sst>",
+                "xl/worksheets/sheet1.xml", "<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>"
+                        + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c>"
+                        + "<c r=\"B1\" t=\"inlineStr\"><is><r><t>大</t></r><r><t>阪</t></r>"
+                        + "<rPh sb=\"0\" eb=\"2\"><t>オオサカ</t></rPh></is></c></row>"
+                        + "</sheetData></worksheet>"));
+
+        Snapshot row = read(file).get(0);
+
+        assertThat(row.values()[0]).isEqualTo("東京");
+        assertThat(row.values()[1]).isEqualTo("大阪");
+        assertThat(row.kinds()[1]).isEqualTo(CellKind.STRING);
+    }
+
+    // ======================= 헬퍼 =======================
+    @FunctionalInterface
+    private interface SheetWriter {
+        void write(Sheet sheet);
+    }
+
+    private File write(SheetWriter writer) throws Exception {
+        Path path = Files.createTempFile(tempDir, "sheet-", ".xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            writer.write(workbook.createSheet());
+            workbook.write(out);
+        }
+        return path.toFile();
+    }
+
+    // zip 안의 지정한 파트만 주어진 XML 로 바꿔 다시 씀 (POI 가 직접 만들 수 없는 요소 테스트용)
+    private static void replaceParts(File file, Map<String, String> parts) throws Exception {
+        Path copy = Files.createTempFile(file.toPath().getParent(), "sheet-", ".xlsx");
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(file.toPath()));
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(copy))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                String replacement = parts.get(entry.getName());
+                if (replacement != null) {
+                    out.write(replacement.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+        Files.move(copy, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static List<Snapshot> read(File file) throws Exception {
+        List<Snapshot> rows = new ArrayList<>();
+        XlsxStreamReader.read(file, WIDTH, row -> rows.add(Snapshot.of(row)));
+        return rows;
+    }
+}